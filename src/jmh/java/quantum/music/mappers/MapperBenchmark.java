@@ -0,0 +1,77 @@
+package quantum.music.mappers;
+
+import org.openjdk.jmh.annotations.*;
+import quantum.music.api.ApiAlbum;
+import quantum.music.domain.providers.Album;
+import quantum.music.domain.providers.Artist;
+import quantum.music.domain.providers.Track;
+import quantum.music.domain.providers.TrackList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of domain objects to API representations, as done by the resources for every response:
+ * search result pages and albums with their embedded tracks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    private static final String BASE_URL = "https://qmusic.example.com/music";
+
+    @Param({"50", "500"})
+    int items;
+
+    private final BenchmarkMapper mapper = new BenchmarkMapper();
+    private List<Album> albums;
+    private TrackList trackList;
+
+    @Setup
+    public void setUp() {
+        albums = new ArrayList<>();
+        List<Track> tracks = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            albums.add(album(i));
+            tracks.add(Track.builder()
+                .id(STR."tdl:\{50_000_000 + i}")
+                .title(STR."Track \{i}")
+                .duration(180 + i % 240)
+                .trackNumber(i % 20 + 1)
+                .volumeNumber(i / 20 + 1)
+                .build());
+        }
+        trackList = new TrackList(album(0), tracks);
+    }
+
+    @Benchmark
+    public List<ApiAlbum> mapSearchPage() {
+        return mapper.map(albums, album -> mapper.link(BASE_URL, album));
+    }
+
+    @Benchmark
+    public ApiAlbum mapAlbumWithTracks() {
+        return mapper.detail(BASE_URL, trackList);
+    }
+
+    private static Album album(int i) {
+        return Album.builder()
+            .id(STR."tdl:\{1_000_000 + i}")
+            .title(STR."Album \{i}")
+            .artist(Artist.builder().id(STR."tdl:\{7_000 + i}").name(STR."Artist \{i}").build())
+            .release("2024-03-15")
+            .copyright("(P) 2024 Example Records")
+            .cover(STR."https://resources.example.com/images/\{i}/640x640.jpg")
+            .tags(List.of("LOSSLESS", "HIRES_LOSSLESS"))
+            .build();
+    }
+
+    /** Exposes the protected mappings of {@link Mapper}, as resources do. */
+    private static final class BenchmarkMapper extends Mapper {
+    }
+}
@@ -0,0 +1,74 @@
+package quantum.music.providers.tdl.manifest;
+
+import org.openjdk.jmh.annotations.*;
+import quantum.music.domain.tdl.MediaInfo;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of playback manifests, run for every stream that misses the playback cache.
+ *
+ * <p>DASH manifests list one {@code S} element per segment with varying durations, as long tracks
+ * do, so the parser expands thousands of segment URLs.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ManifestParserBenchmark {
+
+    @Param({"100", "2000", "10000"})
+    int segments;
+
+    private final ManifestParser parser = new ManifestParser();
+    private String dash;
+    private String bts;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        StringBuilder timeline = new StringBuilder();
+        for (int i = 0; i < segments; i++) {
+            timeline.append("<S d=\"").append(176400 + random.nextInt(1024)).append("\"/>");
+        }
+        dash = encode(STR."""
+            <?xml version="1.0" encoding="UTF-8"?>
+            <MPD xmlns="urn:mpeg:dash:schema:mpd:2011" profiles="urn:mpeg:dash:profile:isoff-main:2011" type="static">
+              <Period id="0">
+                <AdaptationSet id="0" contentType="audio" mimeType="audio/mp4" segmentAlignment="true">
+                  <Representation id="FLAC,96000,24" codecs="flac" bandwidth="3074560" audioSamplingRate="96000">
+                    <SegmentTemplate timescale="96000" initialization="https://sp-ad-cf.audio.example.com/mediatracks/GisWAiIDMzc3MzY1NjUxODQ4MzM5Ny9pbml0Lm1wNA/$RepresentationID$/0.mp4"
+                                     media="https://sp-ad-cf.audio.example.com/mediatracks/GisWAiIDMzc3MzY1NjUxODQ4MzM5Ny9pbml0Lm1wNA/$Bandwidth$/$Number$.mp4?token=exp~1760000000~hmac~0123456789abcdef"
+                                     startNumber="1">
+                      <SegmentTimeline>\{timeline}</SegmentTimeline>
+                    </SegmentTemplate>
+                  </Representation>
+                </AdaptationSet>
+              </Period>
+            </MPD>
+            """);
+        bts = encode("""
+            {"mimeType":"audio/flac","codecs":"flac","encryptionType":"OLD_AES","keyId":"dGhpcyBpcyBhIGtleSBpZA==",
+             "urls":["https://sp-pr-cf.audio.example.com/mediatracks/CAEaKwgDEidmM2I4ZTA1NjI3ZjU1ZGQ3/0.flac?token=exp~1760000000"]}
+            """);
+    }
+
+    @Benchmark
+    public MediaInfo parseDash() {
+        return parser.parse("application/dash+xml", dash);
+    }
+
+    @Benchmark
+    public MediaInfo parseBts() {
+        return parser.parse("application/vnd.tidal.bts", bts);
+    }
+
+    private static String encode(String manifest) {
+        return Base64.getEncoder().encodeToString(manifest.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,119 @@
+package quantum.music.providers.tdl.services;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.openjdk.jmh.annotations.*;
+import quantum.music.domain.PagedResponse;
+import quantum.music.domain.providers.Album;
+import quantum.music.domain.providers.TrackList;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of TDL JSON responses to domain objects: search result pages and album track lists.
+ *
+ * <p>Responses are shaped like the upstream ones, with nested album, artist and media metadata nodes.
+ * The {@code decodeAndMap} variants include the JSON decoding done by the REST client.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TdlMappingBenchmark {
+
+    @Param({"50", "500"})
+    int items;
+
+    private final TldSearchService searchService = new TldSearchService();
+    private final TldAlbumService albumService = new TldAlbumService();
+    private JsonObject searchJson;
+    private String searchBody;
+    private JsonObject tracksJson;
+    private String tracksBody;
+
+    @Setup
+    public void setUp() {
+        searchService.imageUrl = "https://resources.example.com/images/%s/%s";
+        albumService.imageUrl = searchService.imageUrl;
+
+        JsonArray albums = new JsonArray();
+        for (int i = 0; i < items; i++) {
+            albums.add(album(1_000_000L + i)
+                .put("artists", new JsonArray().add(artist(i)).add(artist(i + 1))));
+        }
+        searchJson = new JsonObject().put("albums", new JsonObject()
+            .put("offset", 0)
+            .put("limit", items)
+            .put("totalNumberOfItems", items * 10)
+            .put("items", albums));
+        searchBody = searchJson.encode();
+
+        JsonArray tracks = new JsonArray();
+        for (int i = 0; i < items; i++) {
+            tracks.add(new JsonObject()
+                .put("id", 50_000_000L + i)
+                .put("title", STR."Track \{i} (Remastered \{2000 + i % 25})")
+                .put("duration", 180 + i % 240)
+                .put("trackNumber", i % 20 + 1)
+                .put("volumeNumber", i / 20 + 1)
+                .put("audioQuality", "LOSSLESS")
+                .put("isrc", STR."USRC1\{7000000 + i}")
+                .put("copyright", "(P) 2024 Example Records")
+                .put("mediaMetadata", new JsonObject().put("tags", new JsonArray().add("LOSSLESS").add("HIRES_LOSSLESS")))
+                .put("album", album(1_000_000L))
+                .put("artist", artist(0))
+                .put("artists", new JsonArray().add(artist(0))));
+        }
+        tracksJson = new JsonObject()
+            .put("limit", items)
+            .put("offset", 0)
+            .put("totalNumberOfItems", items)
+            .put("items", tracks);
+        tracksBody = tracksJson.encode();
+    }
+
+    @Benchmark
+    public PagedResponse<Album> mapSearchPage() {
+        return searchService.mapAlbumPage(searchJson);
+    }
+
+    @Benchmark
+    public PagedResponse<Album> decodeAndMapSearchPage() {
+        return searchService.mapAlbumPage(new JsonObject(searchBody));
+    }
+
+    @Benchmark
+    public TrackList mapAlbumTracks() {
+        return albumService.mapAlbumWithTracks(tracksJson);
+    }
+
+    @Benchmark
+    public TrackList decodeAndMapAlbumTracks() {
+        return albumService.mapAlbumWithTracks(new JsonObject(tracksBody));
+    }
+
+    private static JsonObject album(long id) {
+        return new JsonObject()
+            .put("id", id)
+            .put("title", STR."Album \{id}")
+            .put("numberOfVolumes", 1)
+            .put("numberOfTracks", 12)
+            .put("releaseDate", "2024-03-15")
+            .put("copyright", "(P) 2024 Example Records")
+            .put("type", "ALBUM")
+            .put("upc", Long.toString(600000000000L + id))
+            .put("cover", UUID.nameUUIDFromBytes(Long.toString(id).getBytes()).toString())
+            .put("mediaMetadata", new JsonObject().put("tags", new JsonArray().add("LOSSLESS").add("HIRES_LOSSLESS")));
+    }
+
+    private static JsonObject artist(long id) {
+        return new JsonObject()
+            .put("id", 7_000L + id)
+            .put("name", STR."Artist \{id}")
+            .put("type", "MAIN")
+            .put("picture", UUID.nameUUIDFromBytes(Long.toString(id).getBytes()).toString());
+    }
+}
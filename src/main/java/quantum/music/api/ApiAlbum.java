@@ -32,6 +32,8 @@ public final class ApiAlbum {
     private final String link;
     @Schema(description = "Link to fetch the tracks that belong to this album")
     private final String tracks;
+    @Schema(description = "Tracks of the album, when requested with expand=tracks", implementation = ApiAlbumTracks.class)
+    private final ApiAlbumTracks trackList;
 
     private ApiAlbum(Builder builder) {
         this.id = builder.id;
@@ -45,6 +47,7 @@ public final class ApiAlbum {
         this.type = builder.type;
         this.link = builder.link;
         this.tracks = builder.tracks;
+        this.trackList = builder.trackList;
     }
 
     public static Builder builder() {
@@ -99,6 +102,10 @@ public final class ApiAlbum {
         return tracks;
     }
 
+    public ApiAlbumTracks getTrackList() {
+        return trackList;
+    }
+
     /**
      * Builder for {@link ApiAlbum} that performs defensive copying when creating the DTO.
      */
@@ -114,6 +121,7 @@ public final class ApiAlbum {
         private String type;
         private String link;
         private String tracks;
+        private ApiAlbumTracks trackList;
 
         private Builder() {
         }
@@ -130,6 +138,7 @@ public final class ApiAlbum {
             this.type = template.type;
             this.link = template.link;
             this.tracks = template.tracks;
+            this.trackList = template.trackList;
         }
 
         /**
@@ -242,6 +251,16 @@ public final class ApiAlbum {
             return this;
         }
 
+        /**
+         * Embeds the album tracks.
+         * @param trackList tracks of the album
+         * @return this builder for chaining
+         */
+        public Builder trackList(ApiAlbumTracks trackList) {
+            this.trackList = trackList;
+            return this;
+        }
+
         /**
          * Creates an immutable {@link ApiAlbum} instance.
          * @return the constructed DTO
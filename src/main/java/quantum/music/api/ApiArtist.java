@@ -20,6 +20,8 @@ public final class ApiArtist {
     private final String link;
     @Schema(description = "Link to fetch the artist albums")
     private final String albums;
+    @Schema(description = "First page of the artist albums, when requested with expand=albums", implementation = ListResponse.class)
+    private final ListResponse<ApiAlbum> albumList;
 
     private ApiArtist(Builder builder) {
         this.id = builder.id;
@@ -28,6 +30,7 @@ public final class ApiArtist {
         this.picture = builder.picture;
         this.link = builder.link;
         this.albums = builder.albums;
+        this.albumList = builder.albumList;
     }
 
     public static Builder builder() {
@@ -62,6 +65,10 @@ public final class ApiArtist {
         return albums;
     }
 
+    public ListResponse<ApiAlbum> getAlbumList() {
+        return albumList;
+    }
+
     /**
      * Builder for {@link ApiArtist}.
      */
@@ -72,6 +79,7 @@ public final class ApiArtist {
         private String picture;
         private String link;
         private String albums;
+        private ListResponse<ApiAlbum> albumList;
 
         private Builder() {
         }
@@ -83,6 +91,7 @@ public final class ApiArtist {
             this.picture = template.picture;
             this.link = template.link;
             this.albums = template.albums;
+            this.albumList = template.albumList;
         }
 
         /**
@@ -133,6 +142,14 @@ public final class ApiArtist {
             return this;
         }
 
+        /**
+         * Embeds the first page of the artist albums.
+         */
+        public Builder albumList(ListResponse<ApiAlbum> albumList) {
+            this.albumList = albumList;
+            return this;
+        }
+
         /**
          * Creates an immutable {@link ApiArtist}.
          */
@@ -0,0 +1,20 @@
+package quantum.music.api;
+
+import java.util.List;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+/**
+ * Resources resolved by a batch lookup.
+ *
+ * @param albums  the albums found, in the order of the requested ids
+ * @param artists the artists found, in the order of the requested ids
+ * @param tracks  the tracks found, in the order of the requested ids
+ * @param missing the requested ids that were not found
+ */
+@Schema(name = "Batch", description = "Albums, artists and tracks resolved in one call")
+public record ApiBatch(
+        List<ApiAlbum> albums,
+        List<ApiArtist> artists,
+        List<ApiTrack> tracks,
+        @Schema(description = "Requested ids that were not found") List<String> missing) {
+}
@@ -0,0 +1,18 @@
+package quantum.music.api;
+
+import java.util.List;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+/**
+ * Ids of the resources to resolve in a batch lookup.
+ *
+ * @param albums  album ids, e.g. "tdl:12345"
+ * @param artists artist ids
+ * @param tracks  track ids
+ */
+@Schema(name = "BatchRequest", description = "Ids of albums, artists and tracks to resolve in one call")
+public record ApiBatchRequest(
+        @Schema(description = "Album ids", example = "[\"tdl:12345\", \"lcl:65a1f0c2e4b0a1b2c3d4e5f6\"]") List<String> albums,
+        @Schema(description = "Artist ids") List<String> artists,
+        @Schema(description = "Track ids") List<String> tracks) {
+}
@@ -0,0 +1,25 @@
+package quantum.music.api;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+/**
+ * Statistics of a server-side cache.
+ *
+ * @param name        the unique cache name
+ * @param hits        lookups answered from the cache
+ * @param misses      lookups that had to go to the source
+ * @param hitRatio    ratio of lookups answered from the cache
+ * @param entries     entries currently held
+ * @param size        current size of the cache
+ * @param bytesServed bytes served from the cache
+ */
+@Schema(name = "CacheStats", description = "Statistics of a server-side cache")
+public record ApiCacheStats(
+        @Schema(description = "Unique cache name") String name,
+        @Schema(description = "Lookups answered from the cache") long hits,
+        @Schema(description = "Lookups that had to go to the source") long misses,
+        @Schema(description = "Ratio of lookups answered from the cache") double hitRatio,
+        @Schema(description = "Entries currently held") long entries,
+        @Schema(description = "Current size of the cache (bytes for on-disk caches)") long size,
+        @Schema(description = "Bytes served from the cache") long bytesServed) {
+}
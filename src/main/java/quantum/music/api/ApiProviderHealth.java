@@ -0,0 +1,21 @@
+package quantum.music.api;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+/**
+ * Health of a music provider.
+ *
+ * @param id                the provider ID
+ * @param status            UP, DEGRADED or DOWN
+ * @param circuit           state of the circuit guarding the upstream, absent when the provider has none
+ * @param failureRate       share of recent upstream calls that failed
+ * @param retryAfterSeconds seconds before the upstream is probed again
+ */
+@Schema(name = "ProviderHealth", description = "Health of a music provider")
+public record ApiProviderHealth(
+        @Schema(description = "Provider ID") String id,
+        @Schema(description = "UP, DEGRADED (upstream being probed) or DOWN (only cached metadata served)") String status,
+        @Schema(description = "State of the upstream circuit: CLOSED, HALF_OPEN or OPEN") String circuit,
+        @Schema(description = "Share of recent upstream calls that failed") double failureRate,
+        @Schema(description = "Seconds before the upstream is probed again") long retryAfterSeconds) {
+}
@@ -0,0 +1,47 @@
+package quantum.music.api;
+
+import java.util.List;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+/**
+ * Event of a streamed search: the albums found by one source, or the closing summary.
+ */
+@Schema(name = "SearchEvent", description = "Albums found by one source, or the summary closing a streamed search")
+public record ApiSearchEvent(
+        @Schema(description = "Event type", enumeration = {"albums", "summary"}) String type,
+        @Schema(description = "Source that found the albums") String source,
+        List<ApiAlbum> items,
+        @Schema(description = "Total number of matches; for the summary, the sum over all sources") Integer total,
+        @Schema(description = "Whether the source has more matches than returned") Boolean hasMore,
+        @Schema(description = "Sources that answered, in the order they did") List<String> sources,
+        @Schema(description = "Sources that failed or timed out") List<String> failed
+) {
+
+    public static final String ALBUMS = "albums";
+    public static final String SUMMARY = "summary";
+
+    /**
+     * Creates the event carrying the albums found by one source.
+     *
+     * @param source source id
+     * @param items albums found by the source
+     * @param total total number of matches of the source
+     * @param hasMore whether the source has more matches than returned
+     * @return the albums event
+     */
+    public static ApiSearchEvent albums(String source, List<ApiAlbum> items, int total, boolean hasMore) {
+        return new ApiSearchEvent(ALBUMS, source, items, total, hasMore, null, null);
+    }
+
+    /**
+     * Creates the event closing a streamed search.
+     *
+     * @param total sum of the totals of all sources
+     * @param sources sources that answered
+     * @param failed sources that failed or timed out
+     * @return the summary event
+     */
+    public static ApiSearchEvent summary(int total, List<String> sources, List<String> failed) {
+        return new ApiSearchEvent(SUMMARY, null, null, total, null, sources, failed);
+    }
+}
@@ -11,7 +11,9 @@ public record ListResponse<T>(
         List<T> items,
         @Schema int offset,
         @Schema int limit,
-        @Schema int total
+        @Schema(description = "Total number of items; negative when unknown") int total,
+        @Schema(description = "Whether more items follow this page") boolean hasMore,
+        @Schema(description = "Opaque cursor of the next page, when paging by cursor") String next
 ) {
 
     public static <T> Builder<T> list(List<T> items) {
@@ -23,6 +25,8 @@ public record ListResponse<T>(
         private int offset;
         private int limit;
         private int total;
+        private boolean hasMore;
+        private String next;
 
         private Builder(List<T> items) {
             this.items = items;
@@ -48,8 +52,18 @@ public record ListResponse<T>(
             return this;
         }
 
+        public Builder<T> hasMore(boolean hasMore) {
+            this.hasMore = hasMore;
+            return this;
+        }
+
+        public Builder<T> next(String next) {
+            this.next = next;
+            return this;
+        }
+
         public ListResponse<T> build() {
-            return new ListResponse<>(items, offset, limit, total);
+            return new ListResponse<>(items, offset, limit, total, hasMore, next);
         }
     }
 }
@@ -0,0 +1,367 @@
+package quantum.music.client;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.smallrye.mutiny.subscription.UniEmitter;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Adaptive bound on the number of concurrent calls to an upstream (AIMD).
+ *
+ * <p>Calls beyond the current limit wait in a bounded queue for a permit; they are rejected with 503 when
+ * the queue is full or when no permit frees up within the maximum wait, so an overloaded upstream does not
+ * pile up work. The limit grows by one permit per limit's worth of fast calls while it is in use, and
+ * shrinks multiplicatively when a call is slower than the latency threshold, times out, or is throttled
+ * upstream (429/503).</p>
+ */
+public class AdaptiveLimiter {
+
+    private static final Logger LOG = Logger.getLogger(AdaptiveLimiter.class);
+
+    /** Factor applied to the limit when the upstream shows signs of overload. */
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueue;
+    private final Duration maxWait;
+    private final long latencyThresholdNanos;
+
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+    private double limit;
+    private int inFlight;
+    private long rejected;
+
+    /**
+     * @param name name of the limiter, used in logs and rejections
+     * @param initialLimit number of concurrent calls allowed at first
+     * @param minLimit lowest limit the backoff can reach
+     * @param maxLimit highest limit the growth can reach
+     * @param maxQueue maximum number of calls waiting for a permit
+     * @param maxWait maximum time a call waits for a permit
+     * @param latencyThreshold latency above which a call counts as a sign of overload
+     */
+    public AdaptiveLimiter(String name, int initialLimit, int minLimit, int maxLimit, int maxQueue,
+                           Duration maxWait, Duration latencyThreshold) {
+        this.name = name;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.maxQueue = Math.max(0, maxQueue);
+        this.maxWait = maxWait;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.limit = Math.clamp(initialLimit, this.minLimit, this.maxLimit);
+    }
+
+    /**
+     * Executes a call once a permit is available, releasing the permit when the call terminates.
+     *
+     * @param call supplies the call to execute
+     * @param <T> the type of the result
+     * @return a Uni emitting the result of the call, or failing with 503 when rejected
+     */
+    public <T> Uni<T> execute(Supplier<Uni<T>> call) {
+        return acquire().onItem().transformToUni(permit -> call.get()
+            .onItem().invoke(item -> permit.sample())
+            .onTermination().invoke((item, failure, cancelled) -> permit.release(failure)));
+    }
+
+    /**
+     * Subscribes to a stream once a permit is available, holding the permit until the stream terminates.
+     * The latency sample is the time to the first item.
+     *
+     * @param stream supplies the stream
+     * @param <T> the type of the items
+     * @return the stream, or a failure with 503 when rejected
+     */
+    public <T> Multi<T> stream(Supplier<Multi<T>> stream) {
+        return acquire().onItem().transformToMulti(permit -> permit.guard(stream.get()));
+    }
+
+    /**
+     * Waits for a permit. The permit must be released once the guarded call terminates.
+     *
+     * @return a Uni emitting the permit, or failing with 503 when the queue is full or the wait too long
+     */
+    public Uni<Permit> acquire() {
+        return Uni.createFrom().emitter(emitter -> {
+            Permit permit = new Permit();
+            synchronized (this) {
+                if (inFlight < (int) limit) {
+                    inFlight++;
+                    emitter.complete(permit);
+                    return;
+                }
+                if (waiters.size() >= maxQueue) {
+                    rejected++;
+                    emitter.fail(rejection("queue full"));
+                    return;
+                }
+                Waiter waiter = new Waiter(emitter, permit);
+                waiters.add(waiter);
+                waiter.timeout = Infrastructure.getDefaultWorkerPool()
+                    .schedule(() -> expire(waiter), maxWait.toMillis(), TimeUnit.MILLISECONDS);
+                emitter.onTermination(() -> {
+                    if (emitter.isCancelled()) {
+                        abandon(waiter);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Current limit on concurrent calls.
+     *
+     * @return the number of permits
+     */
+    public synchronized int limit() {
+        return (int) limit;
+    }
+
+    /**
+     * Calls currently holding a permit.
+     *
+     * @return the number of permits in use
+     */
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Calls currently waiting for a permit.
+     *
+     * @return the queue length
+     */
+    public synchronized int queued() {
+        return waiters.size();
+    }
+
+    /**
+     * Calls rejected since startup.
+     *
+     * @return the number of rejections
+     */
+    public synchronized long rejected() {
+        return rejected;
+    }
+
+    private void expire(Waiter waiter) {
+        synchronized (this) {
+            if (!waiter.claim(Waiter.DROPPED)) {
+                return;
+            }
+            waiters.remove(waiter);
+            rejected++;
+        }
+        LOG.debugf("Limiter %s rejected a call after waiting %s", name, maxWait);
+        waiter.emitter.fail(rejection("no permit within the maximum wait"));
+    }
+
+    /**
+     * Cleans up after a waiter whose subscriber went away, returning the permit if it was already handed over.
+     */
+    private void abandon(Waiter waiter) {
+        synchronized (this) {
+            if (waiter.claim(Waiter.DROPPED)) {
+                waiters.remove(waiter);
+                waiter.cancelTimeout();
+                return;
+            }
+        }
+        if (waiter.granted()) {
+            waiter.permit.release(null);
+        }
+    }
+
+    /**
+     * Returns a permit, handing it over to the next waiter if there is one.
+     */
+    private void release(boolean overloaded, boolean sampled, long latencyNanos) {
+        Waiter next = null;
+        synchronized (this) {
+            if (overloaded || (sampled && latencyNanos > latencyThresholdNanos)) {
+                double reduced = Math.max(minLimit, limit * BACKOFF_RATIO);
+                if ((int) reduced < (int) limit) {
+                    LOG.debugf("Limiter %s reduced to %d", name, (int) reduced);
+                }
+                limit = reduced;
+            } else if (sampled && inFlight * 2 >= (int) limit) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+            if (inFlight <= (int) limit) {
+                while (!waiters.isEmpty()) {
+                    Waiter waiter = waiters.poll();
+                    if (waiter.claim(Waiter.GRANTED)) {
+                        next = waiter;
+                        break;
+                    }
+                }
+            }
+            if (next == null) {
+                inFlight--;
+            }
+        }
+        if (next != null) {
+            next.cancelTimeout();
+            next.permit.grantedAt = System.nanoTime();
+            next.emitter.complete(next.permit);
+        }
+    }
+
+    private RejectedException rejection(String reason) {
+        return new RejectedException(STR."Upstream \{name} busy: \{reason}");
+    }
+
+    /**
+     * Tells whether a failure shows that the upstream is overloaded: a timeout or a 429/503 response,
+     * possibly wrapped, as the REST client does with connect and read timeouts in a {@code ProcessingException}.
+     * Timeouts are also recognized by the name of their class, since Vert.x and Netty raise their own types.
+     */
+    static boolean isOverload(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof TimeoutException || cause instanceof io.smallrye.mutiny.TimeoutException
+                    || cause.getClass().getSimpleName().endsWith("TimeoutException")) {
+                return true;
+            }
+            if (cause instanceof WebApplicationException e && e.getResponse() != null
+                    && (e.getResponse().getStatus() == 429 || e.getResponse().getStatus() == 503)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Right to run one call. Released exactly once, whichever way the call ends.
+     */
+    public final class Permit {
+
+        private volatile long grantedAt = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile long latencyNanos = -1;
+
+        private Permit() {
+        }
+
+        /**
+         * Records the latency of the call, from the grant of the permit to now. Only the first sample counts.
+         */
+        public void sample() {
+            if (latencyNanos < 0) {
+                latencyNanos = System.nanoTime() - grantedAt;
+            }
+        }
+
+        /**
+         * Releases the permit, adapting the limit to the outcome of the call.
+         *
+         * @param failure failure of the call, or null when it succeeded or was cancelled
+         */
+        public void release(Throwable failure) {
+            if (released.compareAndSet(false, true)) {
+                long latency = latencyNanos;
+                AdaptiveLimiter.this.release(failure != null && isOverload(failure), latency >= 0, latency);
+            }
+        }
+
+        /**
+         * Holds the permit for the lifetime of a stream, sampling the time to its first item.
+         *
+         * @param stream the stream to guard
+         * @param <T> the type of the items
+         * @return the stream, releasing the permit when it terminates
+         */
+        public <T> Multi<T> guard(Multi<T> stream) {
+            return stream
+                .onItem().invoke(item -> sample())
+                .onTermination().invoke((failure, cancelled) -> release(failure));
+        }
+
+        /**
+         * Holds the permit for the lifetime of a stream that may never be subscribed, e.g. the body of a
+         * response whose client went away after the headers were sent. When the stream is not subscribed
+         * within the timeout, the permit is released and the stream is cancelled so that its source frees
+         * the upstream connection; a later subscription fails.
+         *
+         * @param stream the stream to guard
+         * @param subscribeTimeout maximum time between now and the subscription to the stream
+         * @param <T> the type of the items
+         * @return the stream, releasing the permit when it terminates or is abandoned
+         */
+        public <T> Multi<T> guard(Multi<T> stream, Duration subscribeTimeout) {
+            AtomicBoolean subscribed = new AtomicBoolean();
+            ScheduledFuture<?> abandon = Infrastructure.getDefaultWorkerPool().schedule(() -> {
+                if (subscribed.compareAndSet(false, true)) {
+                    LOG.debugf("Limiter %s released the permit of a stream never subscribed", name);
+                    release(null);
+                    stream.subscribe().with(item -> { }, failure -> { }).cancel();
+                }
+            }, subscribeTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            return Multi.createFrom().deferred(() -> {
+                if (!subscribed.compareAndSet(false, true)) {
+                    return Multi.createFrom().failure(new IllegalStateException(
+                        STR."Stream of \{name} abandoned: not subscribed within \{subscribeTimeout}"));
+                }
+                abandon.cancel(false);
+                return guard(stream);
+            });
+        }
+    }
+
+    /**
+     * Failure of a call rejected locally because the pool was saturated; the upstream was not called.
+     */
+    public static final class RejectedException extends WebApplicationException {
+
+        private RejectedException(String message) {
+            super(message, Response.status(Response.Status.SERVICE_UNAVAILABLE).header("Retry-After", "1").build());
+        }
+    }
+
+    private static final class Waiter {
+
+        private final UniEmitter<? super Permit> emitter;
+        private final Permit permit;
+        private static final int WAITING = 0;
+        private static final int GRANTED = 1;
+        private static final int DROPPED = 2;
+
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        private volatile ScheduledFuture<?> timeout;
+
+        private Waiter(UniEmitter<? super Permit> emitter, Permit permit) {
+            this.emitter = emitter;
+            this.permit = permit;
+        }
+
+        /** Settles the waiter with exactly one outcome: granted a permit, or dropped after expiry or abandonment. */
+        private boolean claim(int outcome) {
+            return state.compareAndSet(WAITING, outcome);
+        }
+
+        private boolean granted() {
+            return state.get() == GRANTED;
+        }
+
+        private void cancelTimeout() {
+            ScheduledFuture<?> scheduled = timeout;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+        }
+    }
+}
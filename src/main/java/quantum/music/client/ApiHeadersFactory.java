@@ -25,7 +25,10 @@ public class ApiHeadersFactory implements ClientHeadersFactory {
     ) {
         MultivaluedMap<String, String> result = new MultivaluedHashMap<>();
         result.add("Origin", origin);
-        result.add("Authorization", String.format("Bearer %s", tokenService.getCachedToken()));
+        String token = tokenService.getLatestToken();
+        if (token != null) {
+            result.add("Authorization", String.format("Bearer %s", token));
+        }
         return result;
     }
 }
\ No newline at end of file
@@ -0,0 +1,230 @@
+package quantum.music.client;
+
+import io.smallrye.mutiny.Uni;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker failing calls fast while an upstream is down.
+ *
+ * <p>The outcomes of the last calls are kept in a sliding window. Once enough calls were made and the
+ * share of upstream failures reaches the threshold, the circuit opens: calls fail immediately with 503
+ * instead of waiting for the upstream timeout. After the open duration a few trial calls are let
+ * through (half-open); the circuit closes when they all succeed and opens again as soon as one fails.</p>
+ *
+ * <p>Only upstream failures count: server errors, timeouts and connection failures. Client errors such
+ * as 404, and calls rejected locally by a concurrency limiter, say nothing about the upstream health.</p>
+ */
+public class CircuitBreaker {
+
+    private static final Logger LOG = Logger.getLogger(CircuitBreaker.class);
+
+    /**
+     * State of the circuit.
+     */
+    public enum State {
+        /** Calls go through. */
+        CLOSED,
+        /** A few trial calls go through to probe the upstream. */
+        HALF_OPEN,
+        /** Calls fail fast. */
+        OPEN
+    }
+
+    private final String name;
+    private final boolean[] window;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenCalls;
+
+    private State state = State.CLOSED;
+    private int recorded;
+    private int next;
+    private int failures;
+    private long openedAt;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    /**
+     * @param name name of the upstream, used in logs and failures
+     * @param windowSize number of recent calls whose outcome is kept
+     * @param minimumCalls number of recorded calls below which the circuit never opens
+     * @param failureRateThreshold share of failed calls, between 0 and 1, at which the circuit opens
+     * @param openDuration time the circuit stays open before trial calls are let through
+     * @param halfOpenCalls number of successful trial calls needed to close the circuit
+     */
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                          Duration openDuration, int halfOpenCalls) {
+        this.name = name;
+        this.window = new boolean[Math.max(1, windowSize)];
+        this.minimumCalls = Math.clamp(minimumCalls, 1, window.length);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+    }
+
+    /**
+     * Executes a call unless the circuit is open, recording its outcome.
+     *
+     * @param call supplies the call to execute
+     * @param <T> the type of the result
+     * @return a Uni emitting the result of the call, or failing with {@link OpenException} when the circuit is open
+     */
+    public <T> Uni<T> execute(Supplier<Uni<T>> call) {
+        return Uni.createFrom().deferred(() -> {
+            boolean trial;
+            synchronized (this) {
+                if (!permit()) {
+                    return Uni.createFrom().failure(new OpenException(name, retryAfter()));
+                }
+                trial = state == State.HALF_OPEN;
+            }
+            return call.get().onTermination().invoke((item, failure, cancelled) -> {
+                if (cancelled) {
+                    cancelled(trial);
+                } else {
+                    record(trial, failure != null && isUpstreamFailure(failure));
+                }
+            });
+        });
+    }
+
+    /**
+     * Current state of the circuit.
+     *
+     * @return the state
+     */
+    public synchronized State state() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openDurationNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    /**
+     * Share of failed calls in the sliding window.
+     *
+     * @return a value between 0 and 1, 0 when no call was recorded
+     */
+    public synchronized double failureRate() {
+        return recorded == 0 ? 0 : (double) failures / recorded;
+    }
+
+    /**
+     * Time left before trial calls are let through.
+     *
+     * @return the remaining open time, zero unless the circuit is open
+     */
+    public synchronized Duration retryAfter() {
+        if (state != State.OPEN) {
+            return Duration.ZERO;
+        }
+        long remaining = openDurationNanos - (System.nanoTime() - openedAt);
+        return remaining > 0 ? Duration.ofNanos(remaining) : Duration.ZERO;
+    }
+
+    /**
+     * Tells whether a failure reveals an unavailable upstream, as opposed to a client error.
+     *
+     * @param failure failure of an upstream call
+     * @return true for server errors, open circuits, timeouts and connection failures
+     */
+    public static boolean isUpstreamFailure(Throwable failure) {
+        if (failure instanceof AdaptiveLimiter.RejectedException) {
+            return false;
+        }
+        if (failure instanceof WebApplicationException e) {
+            return e.getResponse() == null || e.getResponse().getStatus() >= 500;
+        }
+        return true;
+    }
+
+    private boolean permit() {
+        switch (state) {
+            case CLOSED -> {
+                return true;
+            }
+            case OPEN -> {
+                if (System.nanoTime() - openedAt < openDurationNanos) {
+                    return false;
+                }
+                LOG.infof("Circuit %s half-open, probing upstream", name);
+                state = State.HALF_OPEN;
+                trialsStarted = 0;
+                trialsSucceeded = 0;
+            }
+            case HALF_OPEN -> { }
+        }
+        if (trialsStarted >= halfOpenCalls) {
+            return false;
+        }
+        trialsStarted++;
+        return true;
+    }
+
+    private synchronized void record(boolean trial, boolean failed) {
+        if (trial) {
+            if (state != State.HALF_OPEN) {
+                return;
+            }
+            if (failed) {
+                open();
+            } else if (++trialsSucceeded >= halfOpenCalls) {
+                LOG.infof("Circuit %s closed", name);
+                state = State.CLOSED;
+                recorded = 0;
+                next = 0;
+                failures = 0;
+            }
+            return;
+        }
+        if (state != State.CLOSED) {
+            return;
+        }
+        if (recorded == window.length) {
+            if (window[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[next] = failed;
+        if (failed) {
+            failures++;
+        }
+        next = (next + 1) % window.length;
+        if (recorded >= minimumCalls && (double) failures / recorded >= failureRateThreshold) {
+            LOG.warnf("Circuit %s opened: %d of the last %d calls failed", name, failures, recorded);
+            open();
+        }
+    }
+
+    private synchronized void cancelled(boolean trial) {
+        if (trial && state == State.HALF_OPEN) {
+            trialsStarted--;
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+    }
+
+    /**
+     * Failure of a call refused because the circuit is open; the upstream was not called.
+     */
+    public static final class OpenException extends WebApplicationException {
+
+        private OpenException(String name, Duration retryAfter) {
+            super(STR."Upstream \{name} unavailable",
+                Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", Long.toString(Math.max(1, retryAfter.toSeconds())))
+                    .build());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package quantum.music.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.json.JsonObject;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+
+/**
+ * {@link ApiClient} decorator that fails fast while the TDL upstream is down.
+ *
+ * <p>Every call goes through a single {@link CircuitBreaker}. While the circuit is open, calls are refused
+ * with 503 right away instead of each waiting for the REST client timeout; callers with a cached copy of
+ * the resource serve it instead. The state of the circuit is published as the
+ * {@code qmusic.upstream.circuit.state} gauge: 0 closed, 1 half-open, 2 open.</p>
+ */
+@ApplicationScoped
+public class CircuitBreakerApiClient implements ApiClient {
+
+    @Inject
+    LimitedApiClient delegate;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "tdl.breaker.window-size", defaultValue = "20")
+    int windowSize;
+
+    @ConfigProperty(name = "tdl.breaker.minimum-calls", defaultValue = "10")
+    int minimumCalls;
+
+    @ConfigProperty(name = "tdl.breaker.failure-rate-threshold", defaultValue = "0.5")
+    double failureRateThreshold;
+
+    @ConfigProperty(name = "tdl.breaker.open-duration", defaultValue = "PT30S")
+    Duration openDuration;
+
+    @ConfigProperty(name = "tdl.breaker.half-open-calls", defaultValue = "3")
+    int halfOpenCalls;
+
+    private CircuitBreaker breaker;
+
+    @PostConstruct
+    void init() {
+        breaker = new CircuitBreaker("tdl", windowSize, minimumCalls, failureRateThreshold, openDuration, halfOpenCalls);
+        Gauge.builder("qmusic.upstream.circuit.state", breaker, b -> b.state().ordinal())
+            .description("State of the upstream circuit: 0 closed, 1 half-open, 2 open")
+            .tag("provider", "tdl")
+            .register(registry);
+    }
+
+    /**
+     * Circuit breaker guarding the upstream.
+     *
+     * @return the breaker
+     */
+    public CircuitBreaker breaker() {
+        return breaker;
+    }
+
+    @Override
+    public Uni<JsonObject> search(String query, String types, int offset, int limit) {
+        return breaker.execute(() -> delegate.search(query, types, offset, limit));
+    }
+
+    @Override
+    public Uni<JsonObject> artist(String artist) {
+        return breaker.execute(() -> delegate.artist(artist));
+    }
+
+    @Override
+    public Uni<JsonObject> bio(String artist) {
+        return breaker.execute(() -> delegate.bio(artist));
+    }
+
+    @Override
+    public Uni<JsonObject> albums(String artist, int offset, int limit) {
+        return breaker.execute(() -> delegate.albums(artist, offset, limit));
+    }
+
+    @Override
+    public Uni<JsonObject> album(String album) {
+        return breaker.execute(() -> delegate.album(album));
+    }
+
+    @Override
+    public Uni<JsonObject> tracks(String album) {
+        return breaker.execute(() -> delegate.tracks(album));
+    }
+
+    @Override
+    public Uni<JsonObject> track(String track) {
+        return breaker.execute(() -> delegate.track(track));
+    }
+
+    @Override
+    public Uni<JsonObject> media(String track, String audioQuality, String playbackMode, String assetPresentation) {
+        return breaker.execute(() -> delegate.media(track, audioQuality, playbackMode, assetPresentation));
+    }
+}
@@ -0,0 +1,62 @@
+package quantum.music.client;
+
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.json.JsonObject;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * {@link ApiClient} decorator that bounds the number of concurrent upstream calls.
+ *
+ * <p>Every call takes a permit from the metadata pool of {@link UpstreamLimiters}; calls over the limit
+ * wait for a permit or are rejected with 503 instead of adding to the load of a throttling upstream.</p>
+ */
+@ApplicationScoped
+public class LimitedApiClient implements ApiClient {
+
+    @Inject
+    TimedApiClient delegate;
+
+    @Inject
+    UpstreamLimiters limiters;
+
+    @Override
+    public Uni<JsonObject> search(String query, String types, int offset, int limit) {
+        return limiters.metadata().execute(() -> delegate.search(query, types, offset, limit));
+    }
+
+    @Override
+    public Uni<JsonObject> artist(String artist) {
+        return limiters.metadata().execute(() -> delegate.artist(artist));
+    }
+
+    @Override
+    public Uni<JsonObject> bio(String artist) {
+        return limiters.metadata().execute(() -> delegate.bio(artist));
+    }
+
+    @Override
+    public Uni<JsonObject> albums(String artist, int offset, int limit) {
+        return limiters.metadata().execute(() -> delegate.albums(artist, offset, limit));
+    }
+
+    @Override
+    public Uni<JsonObject> album(String album) {
+        return limiters.metadata().execute(() -> delegate.album(album));
+    }
+
+    @Override
+    public Uni<JsonObject> tracks(String album) {
+        return limiters.metadata().execute(() -> delegate.tracks(album));
+    }
+
+    @Override
+    public Uni<JsonObject> track(String track) {
+        return limiters.metadata().execute(() -> delegate.track(track));
+    }
+
+    @Override
+    public Uni<JsonObject> media(String track, String audioQuality, String playbackMode, String assetPresentation) {
+        return limiters.metadata().execute(() -> delegate.media(track, audioQuality, playbackMode, assetPresentation));
+    }
+}
@@ -0,0 +1,53 @@
+package quantum.music.client;
+
+import io.smallrye.mutiny.Uni;
+import org.jboss.logging.Logger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent identical calls into a single execution.
+ *
+ * <p>The first caller for a key triggers the call; callers arriving while it is in flight subscribe to
+ * the same memoized result. The key is released as soon as the call completes or fails, so later calls
+ * always go upstream again.</p>
+ */
+public class SingleFlight {
+
+    private static final Logger LOG = Logger.getLogger(SingleFlight.class);
+
+    private final Map<String, Uni<?>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Executes the call for the given key, or joins the execution already in flight for it.
+     *
+     * @param key identifies the call and its arguments
+     * @param call supplies the call to execute; invoked at most once per flight
+     * @param <T> the type of the result
+     * @return a Uni emitting the shared result
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Uni<T> execute(String key, Supplier<Uni<T>> call) {
+        return Uni.createFrom().deferred(() -> {
+            Uni<?> existing = inFlight.get(key);
+            if (existing != null) {
+                LOG.debugf("Joining in-flight call: %s", key);
+                return (Uni<T>) existing;
+            }
+            return (Uni<T>) inFlight.computeIfAbsent(key, k -> call.get()
+                .onTermination().invoke(() -> inFlight.remove(k))
+                .memoize().indefinitely());
+        });
+    }
+
+    /**
+     * Returns the number of calls currently in flight.
+     *
+     * @return the number of distinct keys being executed
+     */
+    public int size() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,63 @@
+package quantum.music.client;
+
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.json.JsonObject;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * {@link ApiClient} decorator that deduplicates concurrent identical upstream calls.
+ *
+ * <p>When many requests need the same resource at once (e.g. a trending album), only one request is sent
+ * upstream and every caller receives its result. Each call is keyed by its endpoint and arguments.</p>
+ */
+@ApplicationScoped
+public class SingleFlightApiClient implements ApiClient {
+
+    @Inject
+    CircuitBreakerApiClient delegate;
+
+    private final SingleFlight singleFlight = new SingleFlight();
+
+    @Override
+    public Uni<JsonObject> search(String query, String types, int offset, int limit) {
+        return singleFlight.execute(STR."search|\{query}|\{types}|\{offset}|\{limit}",
+                () -> delegate.search(query, types, offset, limit));
+    }
+
+    @Override
+    public Uni<JsonObject> artist(String artist) {
+        return singleFlight.execute(STR."artist|\{artist}", () -> delegate.artist(artist));
+    }
+
+    @Override
+    public Uni<JsonObject> bio(String artist) {
+        return singleFlight.execute(STR."bio|\{artist}", () -> delegate.bio(artist));
+    }
+
+    @Override
+    public Uni<JsonObject> albums(String artist, int offset, int limit) {
+        return singleFlight.execute(STR."albums|\{artist}|\{offset}|\{limit}", () -> delegate.albums(artist, offset, limit));
+    }
+
+    @Override
+    public Uni<JsonObject> album(String album) {
+        return singleFlight.execute(STR."album|\{album}", () -> delegate.album(album));
+    }
+
+    @Override
+    public Uni<JsonObject> tracks(String album) {
+        return singleFlight.execute(STR."tracks|\{album}", () -> delegate.tracks(album));
+    }
+
+    @Override
+    public Uni<JsonObject> track(String track) {
+        return singleFlight.execute(STR."track|\{track}", () -> delegate.track(track));
+    }
+
+    @Override
+    public Uni<JsonObject> media(String track, String audioQuality, String playbackMode, String assetPresentation) {
+        return singleFlight.execute(STR."media|\{track}|\{audioQuality}|\{playbackMode}|\{assetPresentation}",
+                () -> delegate.media(track, audioQuality, playbackMode, assetPresentation));
+    }
+}
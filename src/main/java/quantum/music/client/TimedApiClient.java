@@ -0,0 +1,73 @@
+package quantum.music.client;
+
+import io.micrometer.core.instrument.Tags;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.json.JsonObject;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import quantum.music.service.OperationMetrics;
+
+import java.util.function.Supplier;
+
+/**
+ * {@link ApiClient} decorator recording the latency, outcome and concurrency of every upstream call.
+ *
+ * <p>Calls are timed as {@code qmusic.upstream.call}, tagged with the endpoint. This decorator sits
+ * right above the REST client, below the concurrency limiter, so the time spent waiting for a permit
+ * is not counted as upstream latency.</p>
+ */
+@ApplicationScoped
+public class TimedApiClient implements ApiClient {
+
+    @Inject
+    @RestClient
+    ApiClient delegate;
+
+    @Inject
+    OperationMetrics metrics;
+
+    @Override
+    public Uni<JsonObject> search(String query, String types, int offset, int limit) {
+        return time("search", () -> delegate.search(query, types, offset, limit));
+    }
+
+    @Override
+    public Uni<JsonObject> artist(String artist) {
+        return time("artist", () -> delegate.artist(artist));
+    }
+
+    @Override
+    public Uni<JsonObject> bio(String artist) {
+        return time("bio", () -> delegate.bio(artist));
+    }
+
+    @Override
+    public Uni<JsonObject> albums(String artist, int offset, int limit) {
+        return time("albums", () -> delegate.albums(artist, offset, limit));
+    }
+
+    @Override
+    public Uni<JsonObject> album(String album) {
+        return time("album", () -> delegate.album(album));
+    }
+
+    @Override
+    public Uni<JsonObject> tracks(String album) {
+        return time("tracks", () -> delegate.tracks(album));
+    }
+
+    @Override
+    public Uni<JsonObject> track(String track) {
+        return time("track", () -> delegate.track(track));
+    }
+
+    @Override
+    public Uni<JsonObject> media(String track, String audioQuality, String playbackMode, String assetPresentation) {
+        return time("media", () -> delegate.media(track, audioQuality, playbackMode, assetPresentation));
+    }
+
+    private Uni<JsonObject> time(String endpoint, Supplier<Uni<JsonObject>> call) {
+        return metrics.time("qmusic.upstream.call", Tags.of("provider", "tdl", "operation", endpoint), call);
+    }
+}
@@ -0,0 +1,114 @@
+package quantum.music.client;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+
+/**
+ * Concurrency limiters of the TDL upstream, one pool per kind of traffic.
+ *
+ * <p>Metadata calls (search, albums, artists, tracks, playback info) and audio streams are limited
+ * separately, so a burst of listeners cannot starve catalog browsing and the other way round. The
+ * limit, usage, queue and rejections of each pool are published as {@code qmusic.upstream.*} metrics
+ * tagged with the pool name.</p>
+ */
+@ApplicationScoped
+public class UpstreamLimiters {
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "tdl.limiter.metadata.initial-limit", defaultValue = "20")
+    int metadataInitialLimit;
+
+    @ConfigProperty(name = "tdl.limiter.metadata.min-limit", defaultValue = "4")
+    int metadataMinLimit;
+
+    @ConfigProperty(name = "tdl.limiter.metadata.max-limit", defaultValue = "100")
+    int metadataMaxLimit;
+
+    @ConfigProperty(name = "tdl.limiter.metadata.max-queue", defaultValue = "200")
+    int metadataMaxQueue;
+
+    @ConfigProperty(name = "tdl.limiter.metadata.max-wait", defaultValue = "PT2S")
+    Duration metadataMaxWait;
+
+    @ConfigProperty(name = "tdl.limiter.metadata.latency-threshold", defaultValue = "PT1S")
+    Duration metadataLatencyThreshold;
+
+    @ConfigProperty(name = "tdl.limiter.stream.initial-limit", defaultValue = "50")
+    int streamInitialLimit;
+
+    @ConfigProperty(name = "tdl.limiter.stream.min-limit", defaultValue = "10")
+    int streamMinLimit;
+
+    @ConfigProperty(name = "tdl.limiter.stream.max-limit", defaultValue = "400")
+    int streamMaxLimit;
+
+    @ConfigProperty(name = "tdl.limiter.stream.max-queue", defaultValue = "50")
+    int streamMaxQueue;
+
+    @ConfigProperty(name = "tdl.limiter.stream.max-wait", defaultValue = "PT3S")
+    Duration streamMaxWait;
+
+    @ConfigProperty(name = "tdl.limiter.stream.latency-threshold", defaultValue = "PT2S")
+    Duration streamLatencyThreshold;
+
+    private AdaptiveLimiter metadata;
+    private AdaptiveLimiter stream;
+
+    @PostConstruct
+    void init() {
+        metadata = register("metadata", new AdaptiveLimiter("tdl-metadata", metadataInitialLimit, metadataMinLimit,
+            metadataMaxLimit, metadataMaxQueue, metadataMaxWait, metadataLatencyThreshold));
+        stream = register("stream", new AdaptiveLimiter("tdl-stream", streamInitialLimit, streamMinLimit,
+            streamMaxLimit, streamMaxQueue, streamMaxWait, streamLatencyThreshold));
+    }
+
+    /**
+     * Limiter of the catalog and playback info calls.
+     *
+     * @return the metadata pool
+     */
+    public AdaptiveLimiter metadata() {
+        return metadata;
+    }
+
+    /**
+     * Limiter of the audio streams, a permit being held for the whole stream, however many upstream
+     * connections it uses (segmented streams prefetch several segments under one permit).
+     *
+     * @return the stream pool
+     */
+    public AdaptiveLimiter stream() {
+        return stream;
+    }
+
+    private AdaptiveLimiter register(String pool, AdaptiveLimiter limiter) {
+        Tags tags = Tags.of("provider", "tdl", "pool", pool);
+        Gauge.builder("qmusic.upstream.limit", limiter, AdaptiveLimiter::limit)
+            .description("Current limit on concurrent upstream calls")
+            .tags(tags)
+            .register(registry);
+        Gauge.builder("qmusic.upstream.in.flight", limiter, AdaptiveLimiter::inFlight)
+            .description("Upstream calls holding a permit")
+            .tags(tags)
+            .register(registry);
+        Gauge.builder("qmusic.upstream.queued", limiter, AdaptiveLimiter::queued)
+            .description("Upstream calls waiting for a permit")
+            .tags(tags)
+            .register(registry);
+        FunctionCounter.builder("qmusic.upstream.rejected", limiter, AdaptiveLimiter::rejected)
+            .description("Upstream calls rejected because the pool was saturated")
+            .tags(tags)
+            .register(registry);
+        return limiter;
+    }
+}
@@ -29,14 +29,17 @@ public class MongoIndexConfig {
     String database;
 
     /**
-     * Creates text indexes for Album collection on application startup.
-     * This allows full-text search on title, artist, and albumArtist fields.
+     * Creates indexes for Album collection on application startup.
+     * This allows full-text search on title, artist, and albumArtist fields,
+     * track lookups by embedded track id and keyset paging of artist albums.
      *
      * @param event the startup event
      */
     void onStart(@Observes StartupEvent event) {
-        LOG.info("Creating MongoDB text indexes...");
+        LOG.info("Creating MongoDB indexes...");
         createAlbumTextIndex();
+        createTrackIdIndex();
+        createArtistAlbumsIndex();
         LOG.info("MongoDB indexes created successfully");
     }
 
@@ -62,4 +65,40 @@ public class MongoIndexConfig {
             LOG.error("Error creating text index for albums", e);
         }
     }
+
+    private void createTrackIdIndex() {
+        try {
+            MongoCollection<Document> albumsCollection = mongoClient
+                    .getDatabase(database)
+                    .getCollection("albums");
+
+            // Multikey index on embedded track ids, used to find the album holding a track
+            albumsCollection.createIndex(
+                    Indexes.ascending("tracks._id"),
+                    new IndexOptions().name("album_track_id_index")
+            );
+
+            LOG.info("Track id index created for albums collection");
+        } catch (Exception e) {
+            LOG.error("Error creating track id index for albums", e);
+        }
+    }
+
+    private void createArtistAlbumsIndex() {
+        try {
+            MongoCollection<Document> albumsCollection = mongoClient
+                    .getDatabase(database)
+                    .getCollection("albums");
+
+            // Compound index matching the keyset order of artist album pages
+            albumsCollection.createIndex(
+                    Indexes.ascending("artist_id", "title", "_id"),
+                    new IndexOptions().name("album_artist_title_index")
+            );
+
+            LOG.info("Artist albums index created for albums collection");
+        } catch (Exception e) {
+            LOG.error("Error creating artist albums index for albums", e);
+        }
+    }
 }
@@ -0,0 +1,25 @@
+package quantum.music.domain;
+
+import quantum.music.domain.providers.Album;
+import quantum.music.domain.providers.Artist;
+import quantum.music.domain.providers.TrackDetail;
+
+import java.util.List;
+
+/**
+ * Resources resolved by a batch lookup across providers.
+ * <p>
+ * Each list keeps the order of the requested ids; ids that could not be resolved, because they are
+ * unknown, malformed or belong to an unknown provider, are reported in {@code missing}.
+ *
+ * @param albums  the albums found
+ * @param artists the artists found
+ * @param tracks  the track details found
+ * @param missing the requested ids that were not found
+ */
+public record BatchResult(
+        List<Album> albums,
+        List<Artist> artists,
+        List<TrackDetail> tracks,
+        List<String> missing) {
+}
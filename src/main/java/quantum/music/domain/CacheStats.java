@@ -0,0 +1,33 @@
+package quantum.music.domain;
+
+/**
+ * Point-in-time statistics of one of the qmusic caches.
+ * <p>
+ * Caches sit in front of providers to avoid repeated upstream calls or database queries. These
+ * counters let operators check whether a cache is effective and how much data it serves.
+ *
+ * @param name        the unique cache name
+ * @param hits        number of lookups answered from the cache
+ * @param misses      number of lookups that had to go to the source
+ * @param entries     number of entries currently held
+ * @param size        current size of the cache (bytes for on-disk caches, weight otherwise)
+ * @param bytesServed number of bytes served from the cache, when applicable
+ */
+public record CacheStats(
+        String name,
+        long hits,
+        long misses,
+        long entries,
+        long size,
+        long bytesServed) {
+
+    /**
+     * Ratio of lookups answered from the cache.
+     *
+     * @return a value between 0 and 1, or 0 when no lookup happened yet
+     */
+    public double hitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
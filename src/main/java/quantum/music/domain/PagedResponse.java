@@ -14,11 +14,51 @@ import java.util.List;
  * @param items the list of domain entities for the current page
  * @param offset the zero-based index indicating the start of the current page in the full collection
  * @param limit  the maximum number of entities returned per page
- * @param total  the total number of entities available in the full collection
+ * @param total  the total number of entities available in the full collection; may be an estimate
+ *               for providers that do not count deep result sets
+ * @param hasMore whether more entities follow the current page
+ * @param next   opaque cursor of the next page, or null when not paging by cursor or on the last page
  */
 public record PagedResponse<T>(
     List<T> items,
     int offset,
     int limit,
-    int total) {
+    int total,
+    boolean hasMore,
+    String next) {
+
+    /**
+     * Creates a page with an exact total, deriving whether more entities follow it.
+     *
+     * @param items the list of domain entities for the current page
+     * @param offset the zero-based index of the current page in the full collection
+     * @param limit the maximum number of entities returned per page
+     * @param total the total number of entities available in the full collection
+     */
+    public PagedResponse(List<T> items, int offset, int limit, int total) {
+        this(items, offset, limit, total, offset + items.size() < total);
+    }
+
+    /**
+     * Creates a page without a cursor.
+     *
+     * @param items the list of domain entities for the current page
+     * @param offset the zero-based index of the current page in the full collection
+     * @param limit the maximum number of entities returned per page
+     * @param total the total number of entities available in the full collection, possibly estimated
+     * @param hasMore whether more entities follow the current page
+     */
+    public PagedResponse(List<T> items, int offset, int limit, int total, boolean hasMore) {
+        this(items, offset, limit, total, hasMore, null);
+    }
+
+    /**
+     * Returns a copy of this page pointing at the next one.
+     *
+     * @param next opaque cursor of the next page, or null on the last page
+     * @return the same page with the given cursor
+     */
+    public PagedResponse<T> withNext(String next) {
+        return new PagedResponse<>(items, offset, limit, total, hasMore, next);
+    }
 }
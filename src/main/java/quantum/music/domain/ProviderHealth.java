@@ -0,0 +1,45 @@
+package quantum.music.domain;
+
+import java.time.Duration;
+
+/**
+ * Point-in-time health of a music provider.
+ * <p>
+ * Providers backed by a remote service guard it with a circuit breaker; while the circuit is open,
+ * requests needing the service fail fast and only cached metadata can be served.
+ *
+ * @param providerId  the provider ID
+ * @param status      overall status of the provider
+ * @param circuit     state of the circuit guarding the upstream, null when the provider has none
+ * @param failureRate share of recent upstream calls that failed, between 0 and 1
+ * @param retryAfter  time left before the upstream is probed again, zero unless the circuit is open
+ */
+public record ProviderHealth(
+        String providerId,
+        Status status,
+        String circuit,
+        double failureRate,
+        Duration retryAfter) {
+
+    /**
+     * Overall status of a provider.
+     */
+    public enum Status {
+        /** Requests are served normally. */
+        UP,
+        /** The upstream is being probed after an outage. */
+        DEGRADED,
+        /** The upstream is unavailable; only cached metadata is served. */
+        DOWN
+    }
+
+    /**
+     * Health of a provider without remote dependency, always up.
+     *
+     * @param providerId the provider ID
+     * @return an up status without circuit
+     */
+    public static ProviderHealth up(String providerId) {
+        return new ProviderHealth(providerId, Status.UP, null, 0, Duration.ZERO);
+    }
+}
@@ -13,6 +13,7 @@ import java.util.List;
  * @param type album type (e.g., ALBUM)
  * @param cover cover image URL
  * @param tags provider-specific tags such as format and quality
+ * @param upc Universal Product Code of the release, when known
  */
 public record Album(
         String id,
@@ -23,7 +24,8 @@ public record Album(
         String copyright,
         String type,
         String cover,
-        List<String> tags) {
+        List<String> tags,
+        String upc) {
 
     public static Builder builder() {
         return new Builder();
@@ -39,6 +41,7 @@ public record Album(
         private String type;
         private String cover;
         private List<String> tags;
+        private String upc;
 
         public Builder id(String id) {
             this.id = id;
@@ -85,8 +88,13 @@ public record Album(
             return this;
         }
 
+        public Builder upc(String upc) {
+            this.upc = upc;
+            return this;
+        }
+
         public Album build() {
-            return new Album(id, title, volumes, artist, release, copyright, type, cover, tags);
+            return new Album(id, title, volumes, artist, release, copyright, type, cover, tags, upc);
         }
     }
 }
\ No newline at end of file
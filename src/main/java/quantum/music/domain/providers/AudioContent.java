@@ -0,0 +1,82 @@
+package quantum.music.domain.providers;
+
+import io.smallrye.mutiny.Multi;
+import io.vertx.mutiny.core.buffer.Buffer;
+
+import java.nio.file.Path;
+
+/**
+ * Provider-agnostic audio payload returned when streaming a track.
+ *
+ * <p>Besides the byte stream it carries the positions needed to answer ranged requests. When the
+ * size of the content is unknown (e.g. segmented streams) {@code total} is negative and the content
+ * is always served in full.</p>
+ *
+ * <p>Content read from a local file also carries the file, so that it can be handed to the socket
+ * without going through {@code data}.</p>
+ *
+ * @param data audio bytes, starting at {@code start}
+ * @param start position of the first emitted byte within the full content
+ * @param length number of bytes emitted, or a negative value when unknown
+ * @param total size of the full content in bytes, or a negative value when unknown
+ * @param partial whether only a range of the content is emitted
+ * @param file local file holding the full content, or null when the content is not file-backed
+ */
+public record AudioContent(Multi<Buffer> data, long start, long length, long total, boolean partial, Path file) {
+
+    /** Marker used for unknown lengths. */
+    public static final long UNKNOWN_LENGTH = -1;
+
+    /**
+     * Creates a payload that covers the whole content.
+     *
+     * @param data audio bytes
+     * @param total size of the content in bytes, or {@link #UNKNOWN_LENGTH}
+     * @return the full content
+     */
+    public static AudioContent full(Multi<Buffer> data, long total) {
+        return new AudioContent(data, 0, total, total, false, null);
+    }
+
+    /**
+     * Creates a payload that covers a resolved range of the content.
+     *
+     * @param data audio bytes of the range
+     * @param range resolved range being emitted
+     * @param total size of the full content in bytes
+     * @return the partial content
+     */
+    public static AudioContent partial(Multi<Buffer> data, ByteRange range, long total) {
+        return new AudioContent(data, range.first(), range.length(), total, true, null);
+    }
+
+    /**
+     * Position of the last emitted byte within the full content.
+     *
+     * @return the inclusive end position
+     */
+    public long end() {
+        return start + length - 1;
+    }
+
+    /**
+     * Returns a copy of this payload emitting a different stream, e.g. after decryption.
+     * The copy is no longer file-backed, as the new stream may not match the file.
+     *
+     * @param data replacement audio bytes
+     * @return the same positions over the new stream
+     */
+    public AudioContent withData(Multi<Buffer> data) {
+        return new AudioContent(data, start, length, total, partial, null);
+    }
+
+    /**
+     * Returns a copy of this payload backed by a local file.
+     *
+     * @param file local file holding the full content
+     * @return the same positions and stream, backed by the file
+     */
+    public AudioContent withFile(Path file) {
+        return new AudioContent(data, start, length, total, partial, file);
+    }
+}
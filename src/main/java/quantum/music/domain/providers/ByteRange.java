@@ -0,0 +1,101 @@
+package quantum.music.domain.providers;
+
+/**
+ * Single byte range requested by a client through the HTTP {@code Range} header.
+ *
+ * <p>Either bound may be {@code null}: an open-ended range ({@code bytes=500-}) has no {@code last}
+ * value and a suffix range ({@code bytes=-500}) has no {@code first} value, in which case {@code last}
+ * holds the number of trailing bytes requested. Once {@link #resolve(long) resolved} against the
+ * size of the content both bounds are concrete, zero-based and inclusive.</p>
+ *
+ * @param first first byte position, or {@code null} for a suffix range
+ * @param last last byte position (or suffix length), or {@code null} for an open-ended range
+ */
+public record ByteRange(Long first, Long last) {
+
+    private static final String UNIT_PREFIX = "bytes=";
+
+    /**
+     * Parses a {@code Range} header value.
+     *
+     * <p>Only single ranges expressed in bytes are supported; multi-range requests, unknown units and
+     * malformed values yield {@code null} so that callers fall back to serving the full content.</p>
+     *
+     * @param header raw header value, may be {@code null}
+     * @return the parsed range or {@code null} when absent or unsupported
+     */
+    public static ByteRange parse(String header) {
+        if (header == null || header.isBlank()) {
+            return null;
+        }
+        String value = header.trim();
+        if (!value.startsWith(UNIT_PREFIX) || value.indexOf(',') >= 0) {
+            return null;
+        }
+        String[] bounds = value.substring(UNIT_PREFIX.length()).split("-", 2);
+        if (bounds.length != 2) {
+            return null;
+        }
+        try {
+            Long first = bounds[0].isBlank() ? null : Long.parseLong(bounds[0].trim());
+            Long last = bounds[1].isBlank() ? null : Long.parseLong(bounds[1].trim());
+            if (first == null && last == null) {
+                return null;
+            }
+            if ((first != null && first < 0) || (last != null && last < 0)) {
+                return null;
+            }
+            if (first != null && last != null && last < first) {
+                return null;
+            }
+            return new ByteRange(first, last);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Tells whether at least one byte of the range falls inside content of the given size.
+     *
+     * @param total size of the content in bytes
+     * @return {@code true} when the range can be served
+     */
+    public boolean isSatisfiable(long total) {
+        if (first == null) {
+            return last > 0 && total > 0;
+        }
+        return first < total;
+    }
+
+    /**
+     * Resolves the range against the size of the content, clamping the end to the last byte.
+     *
+     * @param total size of the content in bytes; the range must be {@link #isSatisfiable(long) satisfiable}
+     * @return a range with concrete, inclusive bounds
+     */
+    public ByteRange resolve(long total) {
+        if (first == null) {
+            return new ByteRange(Math.max(0, total - last), total - 1);
+        }
+        long end = last == null || last >= total ? total - 1 : last;
+        return new ByteRange(first, end);
+    }
+
+    /**
+     * Number of bytes covered by a resolved range.
+     *
+     * @return the inclusive length of the range
+     */
+    public long length() {
+        return last - first + 1;
+    }
+
+    /**
+     * Formats the range as a {@code Range} header value suitable for upstream requests.
+     *
+     * @return the header value, e.g. {@code bytes=0-1023}
+     */
+    public String toHeaderValue() {
+        return UNIT_PREFIX + (first == null ? "" : first) + "-" + (last == null ? "" : last);
+    }
+}
@@ -120,6 +120,18 @@ public abstract class Mapper {
             .build();
     }
 
+    /**
+     * Produces a detailed album DTO with its tracks embedded, sparing clients a second request.
+     * @param baseUrl canonical API base URL used for composing nested links.
+     * @param trackList domain aggregate containing the complete album and its tracks.
+     * @return a DTO for album detail endpoints, including the track listing.
+     */
+    protected ApiAlbum detail(String baseUrl, TrackList trackList) {
+        return ApiAlbum.builder(detail(baseUrl, trackList.album()))
+            .trackList(link(baseUrl, trackList))
+            .build();
+    }
+
     /**
      * Builds the DTO representation for the tracks collection inside an album.
      * @param baseUrl canonical API base URL used for composing track links.
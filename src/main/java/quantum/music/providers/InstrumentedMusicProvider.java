@@ -0,0 +1,126 @@
+package quantum.music.providers;
+
+import io.micrometer.core.instrument.Tags;
+import io.smallrye.mutiny.Uni;
+import quantum.music.domain.PagedResponse;
+import quantum.music.domain.ProviderHealth;
+import quantum.music.domain.providers.*;
+import quantum.music.service.OperationMetrics;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * {@link MusicProvider} decorator recording the latency, outcome and concurrency of every operation.
+ *
+ * <p>Operations are timed as {@code qmusic.provider.operation}, tagged with the provider id and the
+ * operation name. Every method is forwarded explicitly, so the optimized overrides of the delegate,
+ * e.g. batch lookups, are kept. Streams are timed until their content is ready to be served; the
+ * serving itself is measured by the stream metrics.</p>
+ */
+public class InstrumentedMusicProvider implements MusicProvider {
+
+    /** Name of the operation timer. */
+    public static final String METRIC = "qmusic.provider.operation";
+
+    private final MusicProvider delegate;
+    private final OperationMetrics metrics;
+
+    /**
+     * @param delegate the instrumented provider
+     * @param metrics records the operations
+     */
+    public InstrumentedMusicProvider(MusicProvider delegate, OperationMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String getProviderId() {
+        return delegate.getProviderId();
+    }
+
+    @Override
+    public String getProviderName() {
+        return delegate.getProviderName();
+    }
+
+    @Override
+    public List<String> getCapabilities() {
+        return delegate.getCapabilities();
+    }
+
+    @Override
+    public ProviderHealth getHealth() {
+        return delegate.getHealth();
+    }
+
+    @Override
+    public Uni<PagedResponse<Album>> search(String q, int offset, int limit) {
+        return time("search", () -> delegate.search(q, offset, limit));
+    }
+
+    @Override
+    public Uni<PagedResponse<Album>> search(String q, String cursor, int limit) {
+        return time("search", () -> delegate.search(q, cursor, limit));
+    }
+
+    @Override
+    public Uni<Artist> getArtistById(String artistId) {
+        return time("getArtistById", () -> delegate.getArtistById(artistId));
+    }
+
+    @Override
+    public Uni<PagedResponse<Album>> getAlbumsByArtistId(String artistId, int offset, int limit) {
+        return time("getAlbumsByArtistId", () -> delegate.getAlbumsByArtistId(artistId, offset, limit));
+    }
+
+    @Override
+    public Uni<PagedResponse<Album>> getAlbumsByArtistId(String artistId, String cursor, int limit) {
+        return time("getAlbumsByArtistId", () -> delegate.getAlbumsByArtistId(artistId, cursor, limit));
+    }
+
+    @Override
+    public Uni<Album> getAlbumById(String albumId) {
+        return time("getAlbumById", () -> delegate.getAlbumById(albumId));
+    }
+
+    @Override
+    public Uni<TrackList> getTracksByAlbumId(String albumId) {
+        return time("getTracksByAlbumId", () -> delegate.getTracksByAlbumId(albumId));
+    }
+
+    @Override
+    public Uni<TrackList> getAlbumWithTracks(String albumId) {
+        return time("getAlbumWithTracks", () -> delegate.getAlbumWithTracks(albumId));
+    }
+
+    @Override
+    public Uni<TrackDetail> getTrackById(String trackId) {
+        return time("getTrackById", () -> delegate.getTrackById(trackId));
+    }
+
+    @Override
+    public Uni<List<Album>> getAlbumsByIds(List<String> albumIds) {
+        return time("getAlbumsByIds", () -> delegate.getAlbumsByIds(albumIds));
+    }
+
+    @Override
+    public Uni<List<Artist>> getArtistsByIds(List<String> artistIds) {
+        return time("getArtistsByIds", () -> delegate.getArtistsByIds(artistIds));
+    }
+
+    @Override
+    public Uni<List<TrackDetail>> getTracksByIds(List<String> trackIds) {
+        return time("getTracksByIds", () -> delegate.getTracksByIds(trackIds));
+    }
+
+    @Override
+    public Uni<AudioContent> streamTrackById(String trackId, String codec, String quality, String presentation, ByteRange range) {
+        return time("streamTrackById", () -> delegate.streamTrackById(trackId, codec, quality, presentation, range));
+    }
+
+    private <T> Uni<T> time(String operation, Supplier<Uni<T>> call) {
+        return metrics.time(METRIC, Tags.of("provider", delegate.getProviderId(), "operation", operation), call);
+    }
+}
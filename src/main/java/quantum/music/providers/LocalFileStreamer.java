@@ -0,0 +1,99 @@
+package quantum.music.providers;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.file.OpenOptions;
+import io.vertx.mutiny.core.Vertx;
+import io.vertx.mutiny.core.buffer.Buffer;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import org.jboss.logging.Logger;
+import quantum.music.domain.providers.AudioContent;
+import quantum.music.domain.providers.ByteRange;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Streams audio files stored on the local filesystem.
+ *
+ * <p>Shared by providers that serve files from disk (local library, stream cache). Honors a single
+ * requested byte range by positioning the read offset and length of the opened file.</p>
+ *
+ * <p>The returned content is backed by the file, which is only opened once its data is subscribed.
+ * Endpoints able to send the file region directly to the socket never open it.</p>
+ */
+@ApplicationScoped
+public class LocalFileStreamer {
+
+    private static final Logger LOG = Logger.getLogger(LocalFileStreamer.class);
+
+    @Inject
+    Vertx vertx;
+
+    /**
+     * Opens a file and streams it, optionally limited to a byte range.
+     *
+     * @param file path of the audio file
+     * @param range requested byte range, or null for the whole file
+     * @return audio content backed by the file
+     * @throws NotFoundException when the file does not exist or cannot be read
+     * @throws WebApplicationException with status 416 when the range starts beyond the end of the file
+     */
+    public Uni<AudioContent> stream(Path file, ByteRange range) {
+        if (!Files.exists(file) || !Files.isRegularFile(file) || !Files.isReadable(file)) {
+            return Uni.createFrom().failure(new NotFoundException("Track file not found"));
+        }
+        long total;
+        try {
+            total = Files.size(file);
+        } catch (IOException e) {
+            return Uni.createFrom().failure(new NotFoundException("Track file not found", e));
+        }
+        ByteRange resolved;
+        try {
+            resolved = resolveRange(range, total);
+        } catch (WebApplicationException e) {
+            return Uni.createFrom().failure(e);
+        }
+        if (resolved == null) {
+            return Uni.createFrom().item(AudioContent.full(read(file, null), total).withFile(file));
+        }
+        LOG.debugf("Local file range requested: file=%s, range=%d-%d/%d", file, resolved.first(), resolved.last(), total);
+        return Uni.createFrom().item(AudioContent.partial(read(file, resolved), resolved, total).withFile(file));
+    }
+
+    /**
+     * Opens the file on subscription and reads it, limited to the resolved range if any.
+     */
+    private Multi<Buffer> read(Path file, ByteRange resolved) {
+        return vertx.fileSystem()
+                .open(file.toString(), new OpenOptions().setRead(true))
+                .onItem().transformToMulti(asyncFile -> {
+                    if (resolved != null) {
+                        asyncFile.setReadPos(resolved.first()).setReadLength(resolved.length());
+                    }
+                    return asyncFile.toMulti();
+                });
+    }
+
+    /**
+     * Resolves a requested byte range against the file size, returning null when no range was requested.
+     * Fails with 416 (Range Not Satisfiable) when the range starts beyond the end of the file.
+     */
+    private ByteRange resolveRange(ByteRange range, long total) {
+        if (range == null) {
+            return null;
+        }
+        if (!range.isSatisfiable(total)) {
+            throw new WebApplicationException(Response.status(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header("Content-Range", STR."bytes */\{total}")
+                    .build());
+        }
+        return range.resolve(total);
+    }
+}
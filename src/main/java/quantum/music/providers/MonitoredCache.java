@@ -0,0 +1,21 @@
+package quantum.music.providers;
+
+import quantum.music.domain.CacheStats;
+
+import java.util.List;
+
+/**
+ * Contract for provider caches whose effectiveness is exposed to operators.
+ * <p>
+ * Implementations are discovered as CDI beans and reported through the cache statistics endpoint.
+ * </p>
+ */
+public interface MonitoredCache {
+
+    /**
+     * Returns the current statistics of the caches held by this bean.
+     *
+     * @return a snapshot of the counters of each cache
+     */
+    List<CacheStats> stats();
+}
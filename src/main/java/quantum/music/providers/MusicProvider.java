@@ -2,11 +2,16 @@ package quantum.music.providers;
 
 import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
-import io.vertx.mutiny.core.buffer.Buffer;
+import jakarta.ws.rs.WebApplicationException;
 import quantum.music.domain.providers.*;
 import quantum.music.domain.PagedResponse;
+import quantum.music.domain.ProviderHealth;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 
 /**
  * MusicProvider defines the contract for music data providers.
@@ -20,6 +25,11 @@ import java.util.List;
  */
 public interface MusicProvider {
 
+    /**
+     * Maximum number of single lookups in flight for one batch lookup.
+     */
+    int BATCH_CONCURRENCY = 8;
+
     /**
      * Returns the unique identifier for this provider.
      *
@@ -41,6 +51,19 @@ public interface MusicProvider {
      */
     List<String> getCapabilities();
 
+    /**
+     * Returns the current health of this provider.
+     * <p>
+     * By default a provider is always up; providers depending on a remote service report the state
+     * of the circuit guarding it.
+     * </p>
+     *
+     * @return the provider health
+     */
+    default ProviderHealth getHealth() {
+        return ProviderHealth.up(getProviderId());
+    }
+
     /**
      * Searches for albums matching the given query string.
      *
@@ -51,6 +74,23 @@ public interface MusicProvider {
      */
     Uni<PagedResponse<Album>> search(String q, int offset, int limit);
 
+    /**
+     * Searches for albums matching the given query string, paging by cursor.
+     * <p>
+     * By default the cursor holds the offset of the next page; providers able to seek
+     * in their result set override this with keyset cursors.
+     * </p>
+     *
+     * @param q      the search query
+     * @param cursor opaque cursor returned with the previous page, empty for the first page
+     * @param limit  the maximum number of results to return
+     * @return a Uni emitting a paged response of albums with the cursor of the next page
+     */
+    default Uni<PagedResponse<Album>> search(String q, String cursor, int limit) {
+        int offset = PageCursor.offset(cursor);
+        return search(q, offset, limit).onItem().transform(page -> withOffsetCursor(page, offset));
+    }
+
     /**
      * Retrieves an artist by their unique identifier.
      *
@@ -69,6 +109,23 @@ public interface MusicProvider {
      */
     Uni<PagedResponse<Album>> getAlbumsByArtistId(String artistId, int offset, int limit);
 
+    /**
+     * Retrieves albums for a given artist, paging by cursor.
+     * <p>
+     * By default the cursor holds the offset of the next page; providers able to seek
+     * in their result set override this with keyset cursors.
+     * </p>
+     *
+     * @param artistId the artist's unique ID
+     * @param cursor   opaque cursor returned with the previous page, empty for the first page
+     * @param limit    the maximum number of results to return
+     * @return a Uni emitting a paged response of albums with the cursor of the next page
+     */
+    default Uni<PagedResponse<Album>> getAlbumsByArtistId(String artistId, String cursor, int limit) {
+        int offset = PageCursor.offset(cursor);
+        return getAlbumsByArtistId(artistId, offset, limit).onItem().transform(page -> withOffsetCursor(page, offset));
+    }
+
     /**
      * Retrieves an album by its unique identifier.
      *
@@ -85,6 +142,22 @@ public interface MusicProvider {
      */
     Uni<TrackList> getTracksByAlbumId(String albumId);
 
+    /**
+     * Retrieves an album together with its tracks.
+     * <p>
+     * By default the album and its tracks are fetched concurrently; providers storing the tracks
+     * with the album override it to read both at once.
+     * </p>
+     *
+     * @param albumId the album's unique ID
+     * @return a Uni emitting the complete album and its tracks
+     */
+    default Uni<TrackList> getAlbumWithTracks(String albumId) {
+        return Uni.combine().all().unis(getAlbumById(albumId), getTracksByAlbumId(albumId))
+            .asTuple()
+            .onItem().transform(result -> new TrackList(result.getItem1(), result.getItem2().tracks()));
+    }
+
     /**
      * Retrieves detailed information for a specific track.
      *
@@ -93,14 +166,96 @@ public interface MusicProvider {
      */
     Uni<TrackDetail> getTrackById(String trackId);
 
+    /**
+     * Retrieves several albums at once.
+     * <p>
+     * By default the albums are looked up one by one, at most {@link #BATCH_CONCURRENCY} at a time;
+     * providers able to fetch many items in one query override it.
+     * </p>
+     *
+     * @param albumIds the albums' unique IDs
+     * @return a Uni emitting the albums found, in the order of the IDs; unknown IDs are left out
+     */
+    default Uni<List<Album>> getAlbumsByIds(List<String> albumIds) {
+        return lookupAll(albumIds, this::getAlbumById);
+    }
+
+    /**
+     * Retrieves several artists at once.
+     *
+     * @param artistIds the artists' unique IDs
+     * @return a Uni emitting the artists found, in the order of the IDs; unknown IDs are left out
+     * @see #getAlbumsByIds
+     */
+    default Uni<List<Artist>> getArtistsByIds(List<String> artistIds) {
+        return lookupAll(artistIds, this::getArtistById);
+    }
+
+    /**
+     * Retrieves the details of several tracks at once.
+     *
+     * @param trackIds the tracks' unique IDs
+     * @return a Uni emitting the track details found, in the order of the IDs; unknown IDs are left out
+     * @see #getAlbumsByIds
+     */
+    default Uni<List<TrackDetail>> getTracksByIds(List<String> trackIds) {
+        return lookupAll(trackIds, this::getTrackById);
+    }
+
     /**
      * Streams the audio data for a specific track.
+     * <p>
+     * When a byte range is given and the provider can seek within the track, only that range is emitted
+     * and the returned content is flagged as partial. Providers that cannot seek ignore the range and
+     * return the full content.
+     * </p>
      *
      * @param trackId      the track's unique ID
      * @param codec        the desired audio codec (e.g., "mp3", "flac")
      * @param quality      the desired audio quality (e.g., "high", "medium", "low")
      * @param presentation the presentation type (e.g., "full", "preview")
-     * @return a Multi emitting Buffer chunks of the audio stream
+     * @param range        the requested byte range, or null for the whole track
+     * @return a Uni emitting the audio content with its Buffer chunks and range metadata
+     */
+    Uni<AudioContent> streamTrackById(String trackId, String codec, String quality, String presentation, ByteRange range);
+
+    /**
+     * Tells whether a lookup failed because the requested ID is unknown or malformed, as opposed to the
+     * provider being unavailable.
+     * <p>
+     * Providers report unknown IDs as a 404 and malformed ones as a 400 or an {@link IllegalArgumentException};
+     * REST clients raise a plain {@link WebApplicationException} carrying the upstream status rather than
+     * its {@code NotFoundException} or {@code BadRequestException} subtypes.
+     * </p>
+     *
+     * @param failure the lookup failure
+     * @return true when the ID should be reported as not found
      */
-    Multi<Buffer> streamTrackById(String trackId, String codec, String quality, String presentation);
+    static boolean isUnknownId(Throwable failure) {
+        if (failure instanceof IllegalArgumentException) {
+            return true;
+        }
+        if (failure instanceof WebApplicationException e && e.getResponse() != null) {
+            int status = e.getResponse().getStatus();
+            return status == 404 || status == 400;
+        }
+        return false;
+    }
+
+    /** Looks items up one by one with bounded concurrency, skipping unknown and malformed IDs. */
+    private static <T> Uni<List<T>> lookupAll(List<String> ids, Function<String, Uni<T>> lookup) {
+        List<String> distinct = ids.stream().distinct().toList();
+        return Multi.createFrom().iterable(distinct)
+            .onItem().transformToUni(id -> lookup.apply(id)
+                .onItem().transform(item -> Map.entry(id, item))
+                .onFailure(MusicProvider::isUnknownId).recoverWithNull())
+            .merge(BATCH_CONCURRENCY)
+            .collect().in(HashMap<String, T>::new, (found, entry) -> found.put(entry.getKey(), entry.getValue()))
+            .onItem().transform(found -> distinct.stream().map(found::get).filter(Objects::nonNull).toList());
+    }
+
+    /** Points an offset-paged response at the page following it. */
+    private static <T> PagedResponse<T> withOffsetCursor(PagedResponse<T> page, int offset) {
+        return page.withNext(page.hasMore() && !page.items().isEmpty() ? PageCursor.ofOffset(offset + page.items().size()) : null);
+    }
 }
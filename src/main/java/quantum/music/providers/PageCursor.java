@@ -0,0 +1,76 @@
+package quantum.music.providers;
+
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonObject;
+import jakarta.ws.rs.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque pagination cursors handed to API clients.
+ *
+ * <p>A cursor is the URL-safe Base64 encoding of a small JSON object whose content is private to the
+ * provider that issued it: a position in the result set for offset-based upstreams, or the sort key
+ * and id of the last item for keyset paging. An empty cursor denotes the first page.</p>
+ */
+public final class PageCursor {
+
+    private static final String OFFSET = "o";
+
+    private PageCursor() {
+    }
+
+    /**
+     * Encodes a cursor state.
+     *
+     * @param state provider-specific cursor state
+     * @return the opaque cursor
+     */
+    public static String encode(JsonObject state) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(state.encode().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor issued by {@link #encode}.
+     *
+     * @param cursor opaque cursor
+     * @return the cursor state, empty for the first page
+     * @throws BadRequestException when the cursor is malformed
+     */
+    public static JsonObject decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return new JsonObject();
+        }
+        try {
+            return new JsonObject(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException | DecodeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Creates a cursor pointing at a position in an offset-paged result set.
+     *
+     * @param offset zero-based position of the next page
+     * @return the opaque cursor
+     */
+    public static String ofOffset(int offset) {
+        return encode(new JsonObject().put(OFFSET, offset));
+    }
+
+    /**
+     * Reads the position of an offset cursor.
+     *
+     * @param cursor opaque cursor, empty for the first page
+     * @return zero-based position of the page
+     * @throws BadRequestException when the cursor is malformed
+     */
+    public static int offset(String cursor) {
+        Integer offset = decode(cursor).getInteger(OFFSET, 0);
+        if (offset < 0) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        return offset;
+    }
+}
@@ -0,0 +1,149 @@
+package quantum.music.providers;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import quantum.music.domain.CacheStats;
+import quantum.music.domain.PagedResponse;
+import quantum.music.domain.providers.Album;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of search result pages, shared by all providers.
+ *
+ * <p>Pages are keyed by provider, normalized query and page position, so queries differing only in
+ * case, whitespace or diacritics share an entry. Concurrent misses for the same key share a single
+ * upstream search; failed searches are not cached. Providers whose catalog can change drop their
+ * entries with {@link #invalidate(String)}, which also keeps searches already in flight from being
+ * cached: each provider has a generation, bumped by every invalidation, and a page loaded while the
+ * generation changed is handed to its callers but not kept.</p>
+ */
+@ApplicationScoped
+public class SearchCache implements MonitoredCache {
+
+    private static final Logger LOG = Logger.getLogger(SearchCache.class);
+
+    @ConfigProperty(name = "search.cache.ttl", defaultValue = "PT2M")
+    Duration ttl;
+
+    @ConfigProperty(name = "search.cache.max-size", defaultValue = "2000")
+    long maxSize;
+
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private AsyncCache<SearchKey, PagedResponse<Album>> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+            .expireAfterWrite(ttl)
+            .maximumSize(maxSize)
+            .recordStats()
+            .buildAsync();
+    }
+
+    /**
+     * Returns the cached page of an offset-paged search, searching on a miss.
+     *
+     * @param providerId id of the searched provider
+     * @param q search query
+     * @param offset zero-based item offset
+     * @param limit maximum number of items to return
+     * @param search runs the search upstream
+     * @return a Uni emitting the page of albums
+     */
+    public Uni<PagedResponse<Album>> get(String providerId, String q, int offset, int limit,
+                                         Supplier<Uni<PagedResponse<Album>>> search) {
+        return get(new SearchKey(providerId, normalize(q), Integer.toString(offset), limit), search);
+    }
+
+    /**
+     * Returns the cached page of a cursor-paged search, searching on a miss.
+     *
+     * @param providerId id of the searched provider
+     * @param q search query
+     * @param cursor opaque cursor of the page, empty for the first page
+     * @param limit maximum number of items to return
+     * @param search runs the search upstream
+     * @return a Uni emitting the page of albums, with its next cursor
+     */
+    public Uni<PagedResponse<Album>> get(String providerId, String q, String cursor, int limit,
+                                         Supplier<Uni<PagedResponse<Album>>> search) {
+        return get(new SearchKey(providerId, normalize(q), STR."cursor:\{cursor == null ? "" : cursor}", limit), search);
+    }
+
+    /**
+     * Drops every cached page of a provider, e.g. after its catalog changed.
+     *
+     * @param providerId id of the provider
+     */
+    public void invalidate(String providerId) {
+        generation(providerId).incrementAndGet();
+        if (cache.asMap().keySet().removeIf(key -> key.providerId().equals(providerId))) {
+            LOG.debugf("Search cache invalidated for provider %s", providerId);
+        }
+    }
+
+    @Override
+    public List<CacheStats> stats() {
+        var stats = cache.synchronous().stats();
+        long entries = cache.synchronous().estimatedSize();
+        return List.of(new CacheStats("search", stats.hitCount(), stats.missCount(), entries, entries, 0));
+    }
+
+    /**
+     * Normalizes a query for use as a cache key: diacritics removed, lower case, whitespace collapsed.
+     *
+     * @param q search query
+     * @return the normalized query, empty for a null query
+     */
+    static String normalize(String q) {
+        if (q == null) {
+            return "";
+        }
+        return Normalizer.normalize(q, Normalizer.Form.NFD)
+            .replaceAll("\\p{M}", "")
+            .toLowerCase(Locale.ROOT)
+            .replaceAll("\\s+", " ")
+            .strip();
+    }
+
+    private Uni<PagedResponse<Album>> get(SearchKey key, Supplier<Uni<PagedResponse<Album>>> search) {
+        return Uni.createFrom().completionStage(() -> {
+            AtomicLong generation = generation(key.providerId());
+            long[] started = {-1};
+            CompletableFuture<PagedResponse<Album>> page = cache.get(key, (ignored, executor) -> {
+                started[0] = generation.get();
+                return search.get().subscribeAsCompletionStage();
+            });
+            if (started[0] < 0) {
+                return page;
+            }
+            // Checked once the page is in the cache, so that a search completing at once is dropped too
+            return page.whenComplete((result, failure) -> {
+                if (generation.get() != started[0]) {
+                    cache.asMap().remove(key, page);
+                }
+            });
+        });
+    }
+
+    private AtomicLong generation(String providerId) {
+        return generations.computeIfAbsent(providerId, ignored -> new AtomicLong());
+    }
+
+    private record SearchKey(String providerId, String query, String page, int limit) {
+    }
+}
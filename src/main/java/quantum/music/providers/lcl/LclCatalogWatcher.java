@@ -0,0 +1,67 @@
+package quantum.music.providers.lcl;
+
+import io.quarkus.arc.profile.UnlessBuildProfile;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.subscription.Cancellable;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import quantum.music.providers.SearchCache;
+import quantum.music.repository.AlbumRepository;
+
+/**
+ * Watches the local albums collection and drops the cached local search results whenever it changes.
+ *
+ * <p>Relies on MongoDB change streams, which need a replica set. On a standalone server the watch
+ * fails at startup and cached results are only refreshed when they expire.</p>
+ */
+@ApplicationScoped
+@UnlessBuildProfile("test")
+public class LclCatalogWatcher {
+
+    private static final Logger LOG = Logger.getLogger(LclCatalogWatcher.class);
+
+    @Inject
+    AlbumRepository repository;
+
+    @Inject
+    SearchCache searchCache;
+
+    @Inject
+    LclMusicProvider provider;
+
+    @ConfigProperty(name = "lcl.search.cache.watch", defaultValue = "true")
+    boolean watch;
+
+    private Cancellable subscription;
+
+    /**
+     * Starts watching the albums collection.
+     *
+     * @param event the startup event
+     */
+    void onStart(@Observes StartupEvent event) {
+        if (!watch) {
+            return;
+        }
+        subscription = repository.mongoCollection().watch()
+            .subscribe().with(
+                change -> {
+                    LOG.debugf("Albums collection changed (%s), invalidating local search results", change.getOperationType());
+                    searchCache.invalidate(provider.getProviderId());
+                },
+                failure -> LOG.warnf("Cannot watch the albums collection, local search results expire by TTL only: %s",
+                    failure.getMessage())
+            );
+    }
+
+    @PreDestroy
+    void stop() {
+        if (subscription != null) {
+            subscription.cancel();
+        }
+    }
+}
@@ -1,13 +1,12 @@
 package quantum.music.providers.lcl;
 
-import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
-import io.vertx.mutiny.core.buffer.Buffer;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import quantum.music.domain.PagedResponse;
 import quantum.music.domain.providers.*;
 import quantum.music.providers.MusicProvider;
+import quantum.music.providers.SearchCache;
 import quantum.music.providers.lcl.services.LclAlbumService;
 import quantum.music.providers.lcl.services.LclArtistService;
 import quantum.music.providers.lcl.services.LclSearchService;
@@ -34,6 +33,9 @@ public class LclMusicProvider implements MusicProvider {
     @Inject
     private LclArtistService artistService;
 
+    @Inject
+    private SearchCache searchCache;
+
     @Override
     public String getProviderId() {
         return "lcl";
@@ -51,7 +53,12 @@ public class LclMusicProvider implements MusicProvider {
 
     @Override
     public Uni<PagedResponse<Album>> search(String q, int offset, int limit) {
-        return searchService.search(q, offset, limit);
+        return searchCache.get(getProviderId(), q, offset, limit, () -> searchService.search(q, offset, limit));
+    }
+
+    @Override
+    public Uni<PagedResponse<Album>> search(String q, String cursor, int limit) {
+        return searchCache.get(getProviderId(), q, cursor, limit, () -> searchService.search(q, cursor, limit));
     }
 
     @Override
@@ -59,29 +66,55 @@ public class LclMusicProvider implements MusicProvider {
         return albumService.getAlbumsByArtistId(artistId, offset, limit);
     }
 
+    @Override
+    public Uni<PagedResponse<Album>> getAlbumsByArtistId(String artistId, String cursor, int limit) {
+        return albumService.getAlbumsByArtistId(artistId, cursor, limit);
+    }
+
     @Override
     public Uni<Album> getAlbumById(String albumId) {
         return albumService.getAlbumById(albumId);
     }
 
+    @Override
+    public Uni<List<Album>> getAlbumsByIds(List<String> albumIds) {
+        return albumService.getAlbumsByIds(albumIds);
+    }
+
     @Override
     public Uni<TrackList> getTracksByAlbumId(String albumId) {
         return albumService.getTracksByAlbumId(albumId);
     }
 
+    @Override
+    public Uni<TrackList> getAlbumWithTracks(String albumId) {
+        // tracks are embedded in the album document, which is mapped in full
+        return albumService.getTracksByAlbumId(albumId);
+    }
+
     @Override
     public Uni<TrackDetail> getTrackById(String trackId) {
        return trackService.getTrackById(trackId);
     }
 
+    @Override
+    public Uni<List<TrackDetail>> getTracksByIds(List<String> trackIds) {
+        return trackService.getTracksByIds(trackIds);
+    }
+
     @Override
     public Uni<Artist> getArtistById(String artistId) {
         return artistService.getArtistById(artistId);
     }
 
     @Override
-    public Multi<Buffer> streamTrackById(String trackId, String codec, String quality, String presentation) {
-        return trackService.streamTrackById(trackId, codec, quality, presentation);
+    public Uni<List<Artist>> getArtistsByIds(List<String> artistIds) {
+        return artistService.getArtistsByIds(artistIds);
+    }
+
+    @Override
+    public Uni<AudioContent> streamTrackById(String trackId, String codec, String quality, String presentation, ByteRange range) {
+        return trackService.streamTrackById(trackId, codec, quality, presentation, range);
     }
 
 
@@ -1,5 +1,8 @@
 package quantum.music.providers.lcl.services;
 
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import io.quarkus.mongodb.FindOptions;
 import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -16,6 +19,9 @@ import quantum.music.domain.providers.Track;
 import quantum.music.domain.providers.TrackList;
 import quantum.music.repository.AlbumRepository;
 
+import java.util.List;
+import java.util.Objects;
+
 /**
  * Service for local album lookups and mappings.
  *
@@ -41,16 +47,41 @@ public class LclAlbumService extends LclProviderService {
         LOG.debugf("Fetching local albums for artistId=%s, offset=%d, limit=%d", artistId, offset, limit);
         ObjectId id = new ObjectId(parsedId(artistId));
         int page = pageIndex(offset, limit);
-        return Uni.combine().all().unis(
-                repository.find("artistId", id).page(page, limit).list(),
-                repository.count("artistId", id)
-            )
-            .asTuple()
-            .onItem().transform(tuple -> new PagedResponse<>(
-                        mapList(tuple.getItem1(), this::map),
+        return repository.page(Filters.eq("artist_id", id), page * limit, limit, exactTotal)
+            .onItem().transform(result -> new PagedResponse<>(
+                        mapList(result.items(), this::map),
                         offset,
                         limit,
-                        tuple.getItem2().intValue()
+                        result.total(),
+                        result.hasMore()
+        ));
+    }
+
+    /**
+     * Retrieves local albums for an artist, paging by cursor.
+     * <p>
+     * Albums are ordered by title, then id; each page starts after the title and id of the last
+     * album of the previous one instead of skipping it.
+     * </p>
+     *
+     * @param artistId provider-facing artist id
+     * @param cursor opaque cursor of the page, empty for the first page
+     * @param limit maximum number of items to return
+     * @return paged list of albums for the artist, with the cursor of the next page
+     */
+    public Uni<PagedResponse<Album>> getAlbumsByArtistId(String artistId, String cursor, int limit) {
+        KeysetCursor position = keysetCursor(cursor);
+        LOG.debugf("Fetching local albums for artistId=%s, position=%d, limit=%d", artistId, position.position(), limit);
+        ObjectId id = new ObjectId(parsedId(artistId));
+        return repository.pageAfter(Filters.eq("artist_id", id), "title", null, false,
+                position.afterKey(), position.afterId(), limit, exactTotal)
+            .onItem().transform(result -> new PagedResponse<>(
+                        mapList(result.items(), this::map),
+                        position.position(),
+                        limit,
+                        result.total(),
+                        result.hasMore(),
+                        nextCursor(position.position(), result)
         ));
     }
 
@@ -68,6 +99,25 @@ public class LclAlbumService extends LclProviderService {
             .onItem().transform(this::map);
     }
 
+    /**
+     * Retrieves several local albums with a single {@code $in} query.
+     * Embedded tracks are not fetched.
+     *
+     * @param albumIds provider-facing album ids
+     * @return the albums found, in the order of the ids; unknown or malformed ids are left out
+     */
+    public Uni<List<Album>> getAlbumsByIds(List<String> albumIds) {
+        List<ObjectId> ids = objectIds(albumIds);
+        LOG.debugf("Fetching %d local albums by id", ids.size());
+        if (ids.isEmpty()) {
+            return Uni.createFrom().item(List.of());
+        }
+        return repository.mongoCollection()
+            .find(Filters.in("_id", ids), new FindOptions().projection(Projections.exclude("tracks")))
+            .collect().asMap(album -> album.id)
+            .onItem().transform(found -> ids.stream().map(found::get).filter(Objects::nonNull).map(this::map).toList());
+    }
+
     /**
      * Retrieves tracks for a local album by provider-facing id.
      *
@@ -98,6 +148,7 @@ public class LclAlbumService extends LclProviderService {
             .type("ALBUM")
             .cover(album.cover)
             .tags(sourceTags(album.source))
+            .upc(album.upc)
             .build();
     }
 
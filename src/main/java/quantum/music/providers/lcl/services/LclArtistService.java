@@ -1,5 +1,6 @@
 package quantum.music.providers.lcl.services;
 
+import com.mongodb.client.model.Filters;
 import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -9,6 +10,9 @@ import org.jboss.logging.Logger;
 import quantum.music.domain.providers.Artist;
 import quantum.music.repository.ArtistRepository;
 
+import java.util.List;
+import java.util.Objects;
+
 /**
  * Service for local artist lookups.
  *
@@ -36,4 +40,25 @@ public class LclArtistService extends LclProviderService {
             .onItem().transform(artist -> Artist.builder().id(formatId(artist.id)).name(artist.name).build());
     }
 
+    /**
+     * Retrieves several local artists with a single {@code $in} query.
+     *
+     * @param artistIds provider-facing artist ids
+     * @return the artists found, in the order of the ids; unknown or malformed ids are left out
+     */
+    public Uni<List<Artist>> getArtistsByIds(List<String> artistIds) {
+        List<ObjectId> ids = objectIds(artistIds);
+        LOG.debugf("Fetching %d local artists by id", ids.size());
+        if (ids.isEmpty()) {
+            return Uni.createFrom().item(List.of());
+        }
+        return repository.mongoCollection()
+            .find(Filters.in("_id", ids))
+            .collect().asMap(artist -> artist.id)
+            .onItem().transform(found -> ids.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .map(artist -> Artist.builder().id(formatId(artist.id)).name(artist.name).build())
+                .toList());
+    }
 }
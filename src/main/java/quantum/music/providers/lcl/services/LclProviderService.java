@@ -1,7 +1,17 @@
 package quantum.music.providers.lcl.services;
 
+import io.vertx.core.json.JsonObject;
+import jakarta.ws.rs.BadRequestException;
+import org.bson.BsonDouble;
+import org.bson.BsonNull;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.types.ObjectId;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import quantum.music.domain.local.QSource;
 import quantum.music.providers.AbstractProviderService;
+import quantum.music.providers.PageCursor;
+import quantum.music.repository.AlbumRepository.KeysetPage;
 
 import java.util.List;
 
@@ -12,11 +22,78 @@ import java.util.List;
  */
 public abstract class LclProviderService extends AbstractProviderService {
 
+    /**
+     * Whether paged queries count every match, or estimate the total from one extra item.
+     */
+    @ConfigProperty(name = "lcl.paging.exact-total", defaultValue = "true")
+    boolean exactTotal;
+
     @Override
     public String getProviderPrefix() {
         return "lcl";
     }
 
+    /**
+     * Decodes a keyset cursor issued by {@link #nextCursor}.
+     *
+     * @param cursor opaque cursor, empty for the first page
+     * @return the position after which the page starts
+     * @throws BadRequestException when the cursor is malformed
+     */
+    protected KeysetCursor keysetCursor(String cursor) {
+        JsonObject state = PageCursor.decode(cursor);
+        try {
+            String id = state.getString("id");
+            if (id == null) {
+                return new KeysetCursor(0, null, null);
+            }
+            Object key = state.getValue("k");
+            BsonValue sortKey = key instanceof Number number ? new BsonDouble(number.doubleValue())
+                : key instanceof String text ? new BsonString(text)
+                : BsonNull.VALUE;
+            return new KeysetCursor(state.getInteger("p", 0), sortKey, new ObjectId(id));
+        } catch (ClassCastException | IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Builds the cursor of the page following a keyset page.
+     *
+     * @param position zero-based position of the keyset page in the result set
+     * @param page the keyset page
+     * @return opaque cursor of the next page, or null on the last page
+     */
+    protected String nextCursor(int position, KeysetPage page) {
+        if (!page.hasMore() || page.lastId() == null) {
+            return null;
+        }
+        BsonValue key = page.lastKey();
+        Object sortKey = key == null || key.isNull() ? null
+            : key.isNumber() ? key.asNumber().doubleValue()
+            : key.isString() ? key.asString().getValue()
+            : key.toString();
+        return PageCursor.encode(new JsonObject()
+            .put("p", position + page.items().size())
+            .put("k", sortKey)
+            .put("id", page.lastId().toHexString()));
+    }
+
+    /**
+     * Parses provider-facing ids into document ids, leaving out malformed ones.
+     *
+     * @param ids provider-facing ids
+     * @return the distinct document ids, in the order of the given ids
+     */
+    protected List<ObjectId> objectIds(List<String> ids) {
+        return ids.stream()
+            .map(this::parsedId)
+            .filter(ObjectId::isValid)
+            .map(ObjectId::new)
+            .distinct()
+            .toList();
+    }
+
     /**
      * Builds tag values from source format and quality.
      *
@@ -39,4 +116,14 @@ public abstract class LclProviderService extends AbstractProviderService {
         return List.of(source.format, source.quality);
     }
 
+    /**
+     * Position decoded from a keyset cursor.
+     *
+     * @param position zero-based position of the page in the result set
+     * @param afterKey sort key of the last item of the previous page
+     * @param afterId id of the last item of the previous page, or null for the first page
+     */
+    protected record KeysetCursor(int position, BsonValue afterKey, ObjectId afterId) {
+    }
+
 }
@@ -1,16 +1,17 @@
 package quantum.music.providers.lcl.services;
 
-import io.quarkus.panache.common.Parameters;
+import com.mongodb.client.model.Filters;
 import io.smallrye.mutiny.Uni;
-import io.smallrye.mutiny.tuples.Tuple2;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.jboss.logging.Logger;
+import org.bson.Document;
 import quantum.music.domain.PagedResponse;
 import quantum.music.domain.local.QAlbum;
 import quantum.music.domain.providers.Album;
 import quantum.music.domain.providers.Artist;
 import quantum.music.repository.AlbumRepository;
+import quantum.music.repository.AlbumRepository.AlbumPage;
 
 import java.util.List;
 
@@ -25,7 +26,6 @@ import java.util.List;
 public class LclSearchService extends LclProviderService {
 
     private static final Logger LOG = Logger.getLogger(LclSearchService.class);
-    private static final String QUERY_TEMPLATE = "{ $text: { $search: :search } }";
 
     @Inject
     AlbumRepository repository;
@@ -45,37 +45,68 @@ public class LclSearchService extends LclProviderService {
         }
         int page = pageIndex(offset, limit);
         LOG.debugf("LCL search started: query='%s', offset=%d, limit=%d, page=%d", q, offset, limit, page);
-        Parameters parameters = Parameters.with("search", q);
-        return Uni.combine().all().unis(
-                repository.find(QUERY_TEMPLATE, parameters).page(page, limit).list(),
-                repository.count(QUERY_TEMPLATE, parameters)
-            )
-            .asTuple()
-            .onItem().invoke(tuple -> LOG.debugf("LCL search fetched: items=%d, total=%d", tuple.getItem1().size(), tuple.getItem2()))
-            .onItem().transform(tuple -> map(offset, limit, tuple));
+        return repository.page(Filters.text(q), page * limit, limit, exactTotal)
+            .onItem().invoke(result -> LOG.debugf("LCL search fetched: items=%d, total=%d", result.items().size(), result.total()))
+            .onItem().transform(result -> map(offset, limit, result));
+    }
+
+    /**
+     * Executes a text search over local albums, paging by cursor.
+     * <p>
+     * Albums are ordered by descending text score, then id; each page starts after the score
+     * and id of the last album of the previous one instead of skipping it.
+     * </p>
+     *
+     * @param q search query text (must be non-blank to perform a search)
+     * @param cursor opaque cursor of the page, empty for the first page
+     * @param limit maximum number of items to return
+     * @return paged list of albums matching the query, with the cursor of the next page
+     */
+    public Uni<PagedResponse<Album>> search(String q, String cursor, int limit) {
+        KeysetCursor position = keysetCursor(cursor);
+        if (q == null || q.isBlank()) {
+            LOG.debugf("LCL search skipped: blank query (cursor=%s, limit=%d)", cursor, limit);
+            return Uni.createFrom().item(new PagedResponse<>(List.of(), position.position(), limit, 0));
+        }
+        LOG.debugf("LCL search started: query='%s', position=%d, limit=%d", q, position.position(), limit);
+        return repository.pageAfter(Filters.text(q), "score", new Document("$meta", "textScore"), true,
+                position.afterKey(), position.afterId(), limit, exactTotal)
+            .onItem().invoke(result -> LOG.debugf("LCL search fetched: items=%d, total=%d", result.items().size(), result.total()))
+            .onItem().transform(result -> new PagedResponse<>(
+                mapList(result.items(), this::map),
+                position.position(),
+                limit,
+                result.total(),
+                result.hasMore(),
+                nextCursor(position.position(), result)));
     }
 
     /** Maps persistence entities to provider albums and wraps them in a paged response. */
-    private PagedResponse<Album> map(int offset, int limit, Tuple2<List<QAlbum>, Long> tuple) {
-        int totalCount = tuple.getItem2().intValue();
-        LOG.debugf("LCL search mapped: items=%d, total=%d", tuple.getItem1().size(), totalCount);
+    private PagedResponse<Album> map(int offset, int limit, AlbumPage result) {
+        LOG.debugf("LCL search mapped: items=%d, total=%d", result.items().size(), result.total());
         return new PagedResponse<>(
-                mapList(tuple.getItem1(), album -> Album.builder()
-                    .id(formatId(album.id))
-                    .title(album.title)
-                    .artist(
-                        Artist.builder()
-                            .id(formatId(album.artistId))
-                            .name(album.artist)
-                        .build()
-                    )
-                    .release(album.release)
-                    .copyright(album.copyright)
-                    .type("ALBUM")
-                    .cover(album.cover)
-                    .tags(sourceTags(album.source))
-                .build()),
+                mapList(result.items(), this::map),
                 offset,
-                limit, totalCount);
+                limit, result.total(), result.hasMore());
+    }
+
+    /** Maps a local album entity into a provider album DTO. */
+    private Album map(QAlbum album) {
+        return Album.builder()
+            .id(formatId(album.id))
+            .title(album.title)
+            .artist(
+                Artist.builder()
+                    .id(formatId(album.artistId))
+                    .name(album.artist)
+                .build()
+            )
+            .release(album.release)
+            .copyright(album.copyright)
+            .type("ALBUM")
+            .cover(album.cover)
+            .tags(sourceTags(album.source))
+            .upc(album.upc)
+            .build();
     }
 }
@@ -1,37 +1,37 @@
 package quantum.music.providers.lcl.services;
 
-import io.smallrye.mutiny.Multi;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import io.quarkus.mongodb.FindOptions;
 import io.smallrye.mutiny.Uni;
-import io.vertx.core.file.OpenOptions;
-import io.vertx.mutiny.core.file.AsyncFile;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.NotFoundException;
+import org.bson.conversions.Bson;
 import org.bson.types.ObjectId;
 import org.jboss.logging.Logger;
 import quantum.music.domain.local.QAlbum;
 import quantum.music.domain.local.QSource;
 import quantum.music.domain.local.QTrack;
 import quantum.music.domain.providers.*;
+import quantum.music.providers.LocalFileStreamer;
 import quantum.music.repository.AlbumRepository;
 
-import io.vertx.mutiny.core.buffer.Buffer;
 
-import io.vertx.mutiny.core.Vertx;
-
-
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Collections;
-
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service responsible for fetching a single track from local albums.
  *
- * <p>Performs a lookup by nested track id and maps album/track data into
+ * <p>Performs a lookup by nested track id, projecting the album down to the
+ * fields needed and the single matching track, and maps album/track data into
  * provider DTOs. The response includes minimal album info and track
  * metadata derived from the album source (codec and quality).</p>
  */
@@ -40,8 +40,11 @@ public class LclTrackService extends LclProviderService {
 
     private static final Logger LOG = Logger.getLogger(LclTrackService.class);
 
+    /** Album fields used to build a track detail. */
+    private static final Bson ALBUM_FIELDS = Projections.include("title", "artist", "artist_id", "cover", "release", "source");
+
     @Inject
-    Vertx vertx;
+    LocalFileStreamer fileStreamer;
 
     @Inject
     AlbumRepository repository;
@@ -56,7 +59,7 @@ public class LclTrackService extends LclProviderService {
     public Uni<TrackDetail> getTrackById(String trackId) {
         ObjectId id = new ObjectId(parsedId(trackId));
         LOG.debugf("LCL track lookup started: trackId=%s", trackId);
-        return repository.find("{ 'tracks._id': ?1 }", id).firstResult()
+        return findTrack(id, ALBUM_FIELDS)
                 .onItem().ifNull().failWith(() -> new NotFoundException(STR."Track not found: \{trackId}"))
                 .onItem().transform(album -> {
                     LOG.debugf("LCL track album hit: trackId=%s, albumId=%s", trackId, formatId(album.id));
@@ -69,10 +72,44 @@ public class LclTrackService extends LclProviderService {
                 });
     }
 
-    public Multi<Buffer> streamTrackById(String trackId, String codec, String quality, String presentation) {
+    /**
+     * Retrieves several tracks with a single query for the albums holding them.
+     *
+     * @param trackIds provider-facing track ids
+     * @return the track details found, in the order of the ids; unknown or malformed ids are left out
+     */
+    public Uni<List<TrackDetail>> getTracksByIds(List<String> trackIds) {
+        List<ObjectId> ids = objectIds(trackIds);
+        LOG.debugf("LCL batch track lookup started: %d tracks", ids.size());
+        if (ids.isEmpty()) {
+            return Uni.createFrom().item(List.of());
+        }
+        Set<ObjectId> wanted = new HashSet<>(ids);
+        Bson projection = Projections.fields(ALBUM_FIELDS, Projections.include("tracks"));
+        return repository.mongoCollection()
+                .find(Filters.in("tracks._id", ids), new FindOptions().projection(projection))
+                .collect().in(HashMap<ObjectId, TrackDetail>::new, (found, album) ->
+                    Optional.ofNullable(album.tracks).orElse(Collections.emptyList()).stream()
+                        .filter(track -> wanted.contains(track._id))
+                        .forEach(track -> found.put(track._id, map(album, track, album.source))))
+                .onItem().transform(found -> ids.stream().map(found::get).filter(Objects::nonNull).toList());
+    }
+
+    /**
+     * Streams the audio file of a local track, optionally limited to a byte range.
+     *
+     * @param trackId provider-facing track id
+     * @param codec requested codec (unused, files are served as stored)
+     * @param quality requested quality (unused, files are served as stored)
+     * @param presentation requested presentation (unused)
+     * @param range requested byte range, or null for the whole file
+     * @return audio content read from the track file
+     * @throws NotFoundException when the track or its file does not exist
+     */
+    public Uni<AudioContent> streamTrackById(String trackId, String codec, String quality, String presentation, ByteRange range) {
         ObjectId id = new ObjectId(parsedId(trackId));
         LOG.infof("LCL track stream lookup started: trackId=%s", trackId);
-        return repository.find("{ 'tracks._id': ?1 }", id).firstResult()
+        return findTrack(id, Projections.include("_id"))
                 .onItem().ifNull().failWith(() -> new NotFoundException(STR."Track not found: \{trackId}"))
                 .onItem().transform(album -> {
                     LOG.debugf("LCL track album hit: trackId=%s, albumId=%s", trackId, formatId(album.id));
@@ -83,20 +120,30 @@ public class LclTrackService extends LclProviderService {
                             .map(track -> track.filePath)
                             .filter(filePath -> !filePath.isBlank())
                             .orElseThrow(() -> new NotFoundException(STR."Track not found: \{trackId}"));
-                }).onItem().transformToMulti(this::streamFile);
+                }).onItem().transformToUni(filePath -> streamFile(filePath, range));
+    }
+
+    /**
+     * Finds the album holding a track, with the given album fields and only the matching track.
+     * The track is selected server side with {@code $elemMatch}, so other tracks of large albums
+     * are neither transferred nor decoded.
+     *
+     * @param trackId track document id
+     * @param albumFields projection of the album fields to return
+     * @return the projected album, or null when no album holds the track
+     */
+    private Uni<QAlbum> findTrack(ObjectId trackId, Bson albumFields) {
+        Bson projection = Projections.fields(albumFields, Projections.elemMatch("tracks", Filters.eq("_id", trackId)));
+        return repository.mongoCollection()
+                .find(Filters.eq("tracks._id", trackId), new FindOptions().projection(projection).limit(1))
+                .toUni();
     }
 
-    private Multi<Buffer> streamFile(String filePath) {
+    private Uni<AudioContent> streamFile(String filePath, ByteRange range) {
         if (filePath == null || filePath.isBlank()) {
             throw new NotFoundException("Track file not found");
         }
-        Path file = Paths.get(filePath);
-        if (!Files.exists(file) || !Files.isRegularFile(file) || !Files.isReadable(file)) {
-            throw new NotFoundException("Track file not found");
-        }
-        return vertx.fileSystem()
-                .open(file.toString(), new OpenOptions().setRead(true))
-                .onItem().transformToMulti(AsyncFile::toMulti);
+        return fileStreamer.stream(Paths.get(filePath), range);
     }
 
     /** Maps local album/track entities into a provider track detail DTO. */
@@ -1,16 +1,18 @@
 package quantum.music.providers.tdl;
 
-import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
-import io.vertx.mutiny.core.buffer.Buffer;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
+import quantum.music.client.CircuitBreaker;
+import quantum.music.client.CircuitBreakerApiClient;
 import quantum.music.domain.PagedResponse;
+import quantum.music.domain.ProviderHealth;
 import quantum.music.domain.providers.*;
 import quantum.music.providers.MusicProvider;
-import quantum.music.providers.tdl.services.TdlArtistService;
+import quantum.music.providers.SearchCache;
+import quantum.music.providers.tdl.cache.TdlMetadataCache;
 import quantum.music.providers.tdl.services.TdlTrackService;
 import quantum.music.providers.tdl.services.TldAlbumService;
 import quantum.music.providers.tdl.services.TldSearchService;
@@ -35,7 +37,13 @@ public class TdlMusicProvider implements MusicProvider {
     private TdlTrackService trackService;
 
     @Inject
-    private TdlArtistService artistService;
+    private TdlMetadataCache metadataCache;
+
+    @Inject
+    private SearchCache searchCache;
+
+    @Inject
+    private CircuitBreakerApiClient circuitBreakerClient;
 
     @Override
     public String getProviderId() {
@@ -52,9 +60,21 @@ public class TdlMusicProvider implements MusicProvider {
         return List.of("list", "play", "import", "download");
     }
 
+    @Override
+    public ProviderHealth getHealth() {
+        CircuitBreaker breaker = circuitBreakerClient.breaker();
+        CircuitBreaker.State state = breaker.state();
+        ProviderHealth.Status status = switch (state) {
+            case CLOSED -> ProviderHealth.Status.UP;
+            case HALF_OPEN -> ProviderHealth.Status.DEGRADED;
+            case OPEN -> ProviderHealth.Status.DOWN;
+        };
+        return new ProviderHealth(getProviderId(), status, state.name(), breaker.failureRate(), breaker.retryAfter());
+    }
+
     @Override
     public Uni<PagedResponse<Album>> search(String q, int offset, int limit) {
-        return searchService.search(q, offset, limit);
+        return searchCache.get(getProviderId(), q, offset, limit, () -> searchService.search(q, offset, limit));
     }
 
     @Override
@@ -64,27 +84,26 @@ public class TdlMusicProvider implements MusicProvider {
 
     @Override
     public Uni<Album> getAlbumById(String albumId) {
-        return albumService.getAlbumById(albumId);
+        return metadataCache.getAlbumById(albumId);
     }
 
     @Override
     public Uni<TrackList> getTracksByAlbumId(String albumId) {
-        return albumService.getTracksByAlbumId(albumId);
+        return metadataCache.getTracksByAlbumId(albumId);
     }
 
     @Override
     public Uni<TrackDetail> getTrackById(String trackId) {
-        return trackService.getTrackById(trackId);
+        return metadataCache.getTrackById(trackId);
     }
 
     @Override
     public Uni<Artist> getArtistById(String artistId) {
-        return artistService.getArtistById(artistId);
+        return metadataCache.getArtistById(artistId);
     }
 
     @Override
-    public Multi<Buffer> streamTrackById(String trackId, String codec, String quality, String presentation) {
-        return trackService.content(trackId, codec, quality, presentation)
-                .onItem().transformToMulti( stream -> trackService.streamFile(stream));
+    public Uni<AudioContent> streamTrackById(String trackId, String codec, String quality, String presentation, ByteRange range) {
+        return trackService.stream(trackId, codec, quality, presentation, range);
     }
 }
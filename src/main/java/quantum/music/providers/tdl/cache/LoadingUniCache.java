@@ -0,0 +1,117 @@
+package quantum.music.providers.tdl.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.smallrye.mutiny.Uni;
+import quantum.music.client.CircuitBreaker;
+import quantum.music.domain.CacheStats;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Caffeine cache of values loaded through a reactive loader, keyed by provider-facing id.
+ *
+ * <p>Entries are refreshed in the background once {@code refreshAfter} has elapsed: the stale value keeps
+ * being served while the reload is in flight, and it is only dropped when {@code ttl} expires without a
+ * successful reload. Failed loads are not cached. Loads, background reloads included, are subscribed on
+ * the given executor, so that they run on a Vert.x context rather than on the common fork-join pool.</p>
+ *
+ * <p>Entries dropped on expiry or eviction are kept aside for {@code staleTtl}: when a load fails because
+ * the upstream is unavailable, the last known value is served instead of the failure.</p>
+ *
+ * @param <V> type of the cached values
+ */
+final class LoadingUniCache<V> {
+
+    private final String name;
+    private final AsyncLoadingCache<String, V> cache;
+    private final Cache<String, V> stale;
+
+    /**
+     * @param name unique cache name, used in statistics
+     * @param ttl maximum age of an entry
+     * @param refreshAfter age after which a read triggers a background reload
+     * @param staleTtl time a dropped entry can still be served while the upstream is unavailable
+     * @param maxWeight maximum total weight of the entries
+     * @param weigher weight of a single value
+     * @param executor runs the background reloads and maintenance, e.g. on a Vert.x context
+     * @param loader loads the value for an id
+     */
+    LoadingUniCache(String name, Duration ttl, Duration refreshAfter, Duration staleTtl, long maxWeight,
+                    ToIntFunction<V> weigher, Executor executor, Function<String, Uni<V>> loader) {
+        this(name, ttl, refreshAfter, staleTtl, maxWeight, weigher, executor, Ticker.systemTicker(), loader);
+    }
+
+    /**
+     * @param name unique cache name, used in statistics
+     * @param ttl maximum age of an entry
+     * @param refreshAfter age after which a read triggers a background reload
+     * @param staleTtl time a dropped entry can still be served while the upstream is unavailable
+     * @param maxWeight maximum total weight of the entries
+     * @param weigher weight of a single value
+     * @param executor runs the background reloads and maintenance
+     * @param ticker source of time of the entry ages
+     * @param loader loads the value for an id
+     */
+    LoadingUniCache(String name, Duration ttl, Duration refreshAfter, Duration staleTtl, long maxWeight,
+                    ToIntFunction<V> weigher, Executor executor, Ticker ticker, Function<String, Uni<V>> loader) {
+        this.name = name;
+        this.stale = Caffeine.newBuilder()
+            .expireAfterWrite(staleTtl)
+            .maximumWeight(maxWeight)
+            .<String, V>weigher((key, value) -> Math.max(1, weigher.applyAsInt(value)))
+            .executor(executor)
+            .ticker(ticker)
+            .build();
+        this.cache = Caffeine.newBuilder()
+            .expireAfterWrite(ttl)
+            .refreshAfterWrite(refreshAfter)
+            .maximumWeight(maxWeight)
+            .<String, V>weigher((key, value) -> Math.max(1, weigher.applyAsInt(value)))
+            .<String, V>removalListener((key, value, cause) -> {
+                if (cause.wasEvicted() && key != null && value != null) {
+                    stale.put(key, value);
+                }
+            })
+            .executor(executor)
+            .ticker(ticker)
+            .recordStats()
+            .buildAsync((key, loadExecutor) -> loader.apply(key)
+                .runSubscriptionOn(loadExecutor)
+                .onItem().invoke(() -> stale.invalidate(key))
+                .subscribeAsCompletionStage());
+    }
+
+    /**
+     * Returns the cached value for an id, loading it on a miss. When the load fails because the upstream
+     * is unavailable, the last known value is served if there is one.
+     *
+     * @param key provider-facing id
+     * @return a Uni emitting the value
+     */
+    Uni<V> get(String key) {
+        return Uni.createFrom().completionStage(() -> cache.get(key))
+            .onFailure(CircuitBreaker::isUpstreamFailure).recoverWithUni(failure -> {
+                V value = stale.getIfPresent(key);
+                return value != null ? Uni.createFrom().item(value) : Uni.createFrom().failure(failure);
+            });
+    }
+
+    /**
+     * Returns a snapshot of the cache counters.
+     *
+     * @return the statistics of this cache, with the total weight as size
+     */
+    CacheStats stats() {
+        var stats = cache.synchronous().stats();
+        long weight = cache.synchronous().policy().eviction()
+            .map(eviction -> eviction.weightedSize().orElse(0))
+            .orElse(0L);
+        return new CacheStats(name, stats.hitCount(), stats.missCount(), cache.synchronous().estimatedSize(), weight, 0);
+    }
+}
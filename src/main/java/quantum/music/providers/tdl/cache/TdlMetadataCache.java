@@ -0,0 +1,147 @@
+package quantum.music.providers.tdl.cache;
+
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Vertx;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import quantum.music.domain.CacheStats;
+import quantum.music.domain.providers.Album;
+import quantum.music.domain.providers.Artist;
+import quantum.music.domain.providers.TrackDetail;
+import quantum.music.domain.providers.TrackList;
+import quantum.music.providers.MonitoredCache;
+import quantum.music.providers.tdl.services.TdlArtistService;
+import quantum.music.providers.tdl.services.TdlTrackService;
+import quantum.music.providers.tdl.services.TldAlbumService;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Caching decorator for TDL catalog lookups.
+ *
+ * <p>Catalog metadata rarely changes, so albums, album track lists, artists and tracks are kept in
+ * per-entity Caffeine caches with their own TTL, background refresh interval and maximum weight.
+ * Requests for a hot entity are answered from memory while it is refreshed upstream in the background.
+ * Expired entries are kept for {@code tdl.cache.stale-ttl} and served while the upstream is down.</p>
+ */
+@ApplicationScoped
+public class TdlMetadataCache implements MonitoredCache {
+
+    @Inject
+    Vertx vertx;
+
+    @Inject
+    TldAlbumService albumService;
+
+    @Inject
+    TdlArtistService artistService;
+
+    @Inject
+    TdlTrackService trackService;
+
+    @ConfigProperty(name = "tdl.cache.albums.ttl", defaultValue = "PT24H")
+    Duration albumsTtl;
+
+    @ConfigProperty(name = "tdl.cache.albums.refresh-after", defaultValue = "PT1H")
+    Duration albumsRefreshAfter;
+
+    @ConfigProperty(name = "tdl.cache.albums.max-weight", defaultValue = "10000")
+    long albumsMaxWeight;
+
+    @ConfigProperty(name = "tdl.cache.album-tracks.ttl", defaultValue = "PT24H")
+    Duration albumTracksTtl;
+
+    @ConfigProperty(name = "tdl.cache.album-tracks.refresh-after", defaultValue = "PT1H")
+    Duration albumTracksRefreshAfter;
+
+    @ConfigProperty(name = "tdl.cache.album-tracks.max-weight", defaultValue = "100000")
+    long albumTracksMaxWeight;
+
+    @ConfigProperty(name = "tdl.cache.artists.ttl", defaultValue = "PT24H")
+    Duration artistsTtl;
+
+    @ConfigProperty(name = "tdl.cache.artists.refresh-after", defaultValue = "PT6H")
+    Duration artistsRefreshAfter;
+
+    @ConfigProperty(name = "tdl.cache.artists.max-weight", defaultValue = "5000")
+    long artistsMaxWeight;
+
+    @ConfigProperty(name = "tdl.cache.tracks.ttl", defaultValue = "PT24H")
+    Duration tracksTtl;
+
+    @ConfigProperty(name = "tdl.cache.tracks.refresh-after", defaultValue = "PT1H")
+    Duration tracksRefreshAfter;
+
+    @ConfigProperty(name = "tdl.cache.tracks.max-weight", defaultValue = "50000")
+    long tracksMaxWeight;
+
+    @ConfigProperty(name = "tdl.cache.stale-ttl", defaultValue = "P7D")
+    Duration staleTtl;
+
+    private LoadingUniCache<Album> albums;
+    private LoadingUniCache<TrackList> albumTracks;
+    private LoadingUniCache<Artist> artists;
+    private LoadingUniCache<TrackDetail> tracks;
+
+    @PostConstruct
+    void init() {
+        Executor executor = task -> vertx.getOrCreateContext().runOnContext(ignored -> task.run());
+        albums = new LoadingUniCache<>("tdl-albums", albumsTtl, albumsRefreshAfter, staleTtl, albumsMaxWeight,
+            album -> 1, executor, albumService::getAlbumById);
+        albumTracks = new LoadingUniCache<>("tdl-album-tracks", albumTracksTtl, albumTracksRefreshAfter, staleTtl, albumTracksMaxWeight,
+            trackList -> trackList.tracks().size() + 1, executor, albumService::getTracksByAlbumId);
+        artists = new LoadingUniCache<>("tdl-artists", artistsTtl, artistsRefreshAfter, staleTtl, artistsMaxWeight,
+            artist -> 1, executor, artistService::getArtistById);
+        tracks = new LoadingUniCache<>("tdl-tracks", tracksTtl, tracksRefreshAfter, staleTtl, tracksMaxWeight,
+            trackDetail -> 1, executor, trackService::getTrackById);
+    }
+
+    /**
+     * Get album details by ID.
+     *
+     * @param albumId Album ID
+     * @return Album details, cached
+     */
+    public Uni<Album> getAlbumById(String albumId) {
+        return albums.get(albumId);
+    }
+
+    /**
+     * Get the tracks of an album by ID.
+     *
+     * @param albumId Album ID
+     * @return Album with its tracks, cached
+     */
+    public Uni<TrackList> getTracksByAlbumId(String albumId) {
+        return albumTracks.get(albumId);
+    }
+
+    /**
+     * Get artist details by ID.
+     *
+     * @param artistId Artist ID
+     * @return Artist details, cached
+     */
+    public Uni<Artist> getArtistById(String artistId) {
+        return artists.get(artistId);
+    }
+
+    /**
+     * Get track details by ID.
+     *
+     * @param trackId Track ID
+     * @return Track details, cached
+     */
+    public Uni<TrackDetail> getTrackById(String trackId) {
+        return tracks.get(trackId);
+    }
+
+    @Override
+    public List<CacheStats> stats() {
+        return List.of(albums.stats(), albumTracks.stats(), artists.stats(), tracks.stats());
+    }
+}
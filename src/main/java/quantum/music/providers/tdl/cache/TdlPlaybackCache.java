@@ -0,0 +1,155 @@
+package quantum.music.providers.tdl.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import quantum.music.domain.CacheStats;
+import quantum.music.providers.MonitoredCache;
+import quantum.music.providers.tdl.stream.Playback;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Short-lived cache of resolved track playbacks, keyed by track id, quality and presentation.
+ *
+ * <p>Keeps the parsed manifest and decrypted keys so that seeks, retries and concurrent listeners of
+ * the same track skip the playback info request, the manifest parsing and the key decryption. Entries
+ * never outlive the signed stream URLs they hold: when a URL carries an expiry, the entry expires a
+ * safety margin before it.</p>
+ */
+@ApplicationScoped
+public class TdlPlaybackCache implements MonitoredCache {
+
+    private static final Logger LOG = Logger.getLogger(TdlPlaybackCache.class);
+
+    /** Time left on a signed URL below which it is no longer handed out. */
+    private static final Duration EXPIRY_MARGIN = Duration.ofSeconds(30);
+    /** Expiry parameters of signed CDN URLs, in epoch seconds. */
+    private static final Pattern URL_EXPIRY = Pattern.compile("[?&~=](?:Expires|expires|exp)=(\\d+)");
+
+    @ConfigProperty(name = "tdl.cache.playback.ttl", defaultValue = "PT5M")
+    Duration ttl;
+
+    @ConfigProperty(name = "tdl.cache.playback.max-size", defaultValue = "1000")
+    long maxSize;
+
+    private AsyncCache<String, Playback> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+            .expireAfter(new Expiry<String, Playback>() {
+                @Override
+                public long expireAfterCreate(String key, Playback playback, long currentTime) {
+                    return lifetime(playback, Instant.now()).toNanos();
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, Playback playback, long currentTime, long currentDuration) {
+                    return lifetime(playback, Instant.now()).toNanos();
+                }
+
+                @Override
+                public long expireAfterRead(String key, Playback playback, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .maximumSize(maxSize)
+            .recordStats()
+            .buildAsync();
+    }
+
+    /**
+     * Returns the cached playback of a track, resolving it on a miss. Concurrent misses for the same
+     * track share a single resolution; failed resolutions are not cached.
+     *
+     * @param trackId provider-facing track id
+     * @param quality requested quality
+     * @param presentation requested presentation
+     * @param resolver resolves the playback upstream
+     * @return a Uni emitting the playback
+     */
+    public Uni<Playback> get(String trackId, String quality, String presentation, Supplier<Uni<Playback>> resolver) {
+        return Uni.createFrom().completionStage(() -> cache.get(key(trackId, quality, presentation),
+            (key, executor) -> resolver.get().subscribeAsCompletionStage()));
+    }
+
+    /**
+     * Drops the cached playback of a track, e.g. after its stream URL was rejected.
+     *
+     * @param trackId provider-facing track id
+     * @param quality requested quality
+     * @param presentation requested presentation
+     */
+    public void invalidate(String trackId, String quality, String presentation) {
+        cache.synchronous().invalidate(key(trackId, quality, presentation));
+    }
+
+    @Override
+    public List<CacheStats> stats() {
+        var stats = cache.synchronous().stats();
+        long entries = cache.synchronous().estimatedSize();
+        return List.of(new CacheStats("tdl-playback", stats.hitCount(), stats.missCount(), entries, entries, 0));
+    }
+
+    /**
+     * Configured TTL, shortened to the earliest expiry of the signed URLs minus a safety margin.
+     *
+     * @param playback the cached playback
+     * @param now current time
+     * @return the time the playback can be cached, zero when its URLs expire within the margin
+     */
+    Duration lifetime(Playback playback, Instant now) {
+        OptionalLong expiresAt = urlExpiry(playback.mediaInfo().urls());
+        if (expiresAt.isEmpty()) {
+            return ttl;
+        }
+        Duration untilExpiry = Duration.between(now, Instant.ofEpochSecond(expiresAt.getAsLong()))
+            .minus(EXPIRY_MARGIN);
+        if (untilExpiry.isNegative()) {
+            LOG.debugf("Playback URLs expire too soon to be cached: %s", Instant.ofEpochSecond(expiresAt.getAsLong()));
+            return Duration.ZERO;
+        }
+        return untilExpiry.compareTo(ttl) < 0 ? untilExpiry : ttl;
+    }
+
+    /**
+     * Earliest expiry carried by signed URLs, as an {@code Expires}, {@code expires} or {@code exp}
+     * parameter of the query string or of an edge token.
+     *
+     * @param urls stream URLs
+     * @return the earliest expiry in epoch seconds, empty when no URL carries one
+     */
+    static OptionalLong urlExpiry(String[] urls) {
+        OptionalLong earliest = OptionalLong.empty();
+        for (String url : urls) {
+            Matcher matcher = URL_EXPIRY.matcher(url);
+            while (matcher.find()) {
+                try {
+                    long expiresAt = Long.parseLong(matcher.group(1));
+                    if (earliest.isEmpty() || expiresAt < earliest.getAsLong()) {
+                        earliest = OptionalLong.of(expiresAt);
+                    }
+                } catch (NumberFormatException e) {
+                    LOG.debugf("Ignoring unparseable URL expiry: %s", matcher.group(1));
+                }
+            }
+        }
+        return earliest;
+    }
+
+    private String key(String trackId, String quality, String presentation) {
+        return STR."\{trackId}|\{quality}|\{presentation}";
+    }
+}
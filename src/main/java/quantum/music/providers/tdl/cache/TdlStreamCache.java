@@ -0,0 +1,306 @@
+package quantum.music.providers.tdl.cache;
+
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.file.CopyOptions;
+import io.vertx.core.file.OpenOptions;
+import io.vertx.mutiny.core.Vertx;
+import io.vertx.mutiny.core.buffer.Buffer;
+import io.vertx.mutiny.core.file.AsyncFile;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import quantum.music.domain.CacheStats;
+import quantum.music.providers.MonitoredCache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Bounded on-disk cache of decrypted TDL track streams.
+ *
+ * <p>Entries are keyed by track id, quality and presentation. The cache is filled by tee-ing the first
+ * complete stream of a track to a temporary file, which is published only once the stream ends
+ * successfully with every byte on disk. A write failure, or a disk too slow to keep up with the stream,
+ * abandons the entry without affecting the stream. When the total size exceeds the configured limit, the
+ * least recently used tracks are deleted.</p>
+ */
+@ApplicationScoped
+public class TdlStreamCache implements MonitoredCache {
+
+    private static final Logger LOG = Logger.getLogger(TdlStreamCache.class);
+    private static final String PART_SUFFIX = ".part";
+
+    @Inject
+    Vertx vertx;
+
+    @ConfigProperty(name = "tdl.stream.cache.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "tdl.stream.cache.directory", defaultValue = "${java.io.tmpdir}/qmusic/streams")
+    String directory;
+
+    @ConfigProperty(name = "tdl.stream.cache.max-size", defaultValue = "2147483648")
+    long maxSize;
+
+    @ConfigProperty(name = "tdl.stream.cache.write-queue-max-size", defaultValue = "4194304")
+    int writeQueueMaxSize;
+
+    /** File name to file size, in access order (eldest first). */
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong bytesServed = new AtomicLong();
+    private long size;
+
+    /**
+     * Creates the cache directory and indexes the tracks cached by a previous run.
+     *
+     * @param event the startup event
+     */
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled) {
+            LOG.info("TDL stream cache disabled");
+            return;
+        }
+        Path root = root();
+        try {
+            Files.createDirectories(root);
+            try (Stream<Path> files = Files.list(root)) {
+                files.filter(Files::isRegularFile)
+                    .sorted(Comparator.comparingLong(this::lastModified))
+                    .forEach(this::index);
+            }
+        } catch (IOException e) {
+            LOG.errorf(e, "Error initializing TDL stream cache at %s, disabling it", root);
+            enabled = false;
+            return;
+        }
+        synchronized (this) {
+            evict();
+        }
+        LOG.infof("TDL stream cache ready: directory=%s, entries=%d, size=%d", root, entries.size(), size);
+    }
+
+    /**
+     * Looks up a cached track stream.
+     *
+     * @param trackId provider-facing track id
+     * @param quality requested quality
+     * @param presentation requested presentation
+     * @return the cached file, if any
+     */
+    public synchronized Optional<Path> lookup(String trackId, String quality, String presentation) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        String name = fileName(trackId, quality, presentation);
+        if (entries.get(name) == null) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        hits.incrementAndGet();
+        return Optional.of(root().resolve(name));
+    }
+
+    /**
+     * Drops an entry whose file could not be read.
+     *
+     * @param trackId provider-facing track id
+     * @param quality requested quality
+     * @param presentation requested presentation
+     */
+    public synchronized void invalidate(String trackId, String quality, String presentation) {
+        Long removed = entries.remove(fileName(trackId, quality, presentation));
+        if (removed != null) {
+            size -= removed;
+        }
+    }
+
+    /**
+     * Wraps a stream served from the cache so that the bytes sent are accounted for.
+     *
+     * @param data stream read from a cached file
+     * @return the same stream
+     */
+    public Multi<Buffer> served(Multi<Buffer> data) {
+        return data.onItem().invoke(buffer -> bytesServed.addAndGet(buffer.length()));
+    }
+
+    /**
+     * Tees a complete track stream into the cache while it is sent to the client. The entry is
+     * published only when the stream completes; failed or cancelled streams leave no entry behind.
+     *
+     * @param trackId provider-facing track id
+     * @param quality requested quality
+     * @param presentation requested presentation
+     * @param source decrypted stream of the whole track
+     * @return the stream to send to the client
+     */
+    public Multi<Buffer> fill(String trackId, String quality, String presentation, Multi<Buffer> source) {
+        if (!enabled) {
+            return source;
+        }
+        String name = fileName(trackId, quality, presentation);
+        Path part = root().resolve(STR."\{name}.\{UUID.randomUUID()}\{PART_SUFFIX}");
+        return vertx.fileSystem()
+            .open(part.toString(), new OpenOptions().setWrite(true).setCreateNew(true))
+            .onItem().transform(Optional::of)
+            .onFailure().invoke(e -> LOG.warnf(e, "Unable to cache TDL stream: %s", name))
+            .onFailure().recoverWithItem(Optional.empty())
+            .onItem().transformToMulti(file -> file.map(f -> tee(source, f, part, name)).orElse(source));
+    }
+
+    @Override
+    public synchronized List<CacheStats> stats() {
+        return List.of(new CacheStats("tdl-streams", hits.get(), misses.get(), entries.size(), size, bytesServed.get()));
+    }
+
+    private Multi<Buffer> tee(Multi<Buffer> source, AsyncFile file, Path part, String name) {
+        Fill fill = new Fill();
+        file.setWriteQueueMaxSize(writeQueueMaxSize);
+        return source
+            .onItem().invoke(buffer -> write(fill, file, buffer, name))
+            .onCompletion().invoke(() -> commit(fill, file, part, name))
+            .onFailure().invoke(() -> discard(file, part))
+            .onCancellation().invoke(() -> discard(file, part));
+    }
+
+    /**
+     * Queues a chunk for writing. Caching is abandoned once a write fails, or when the disk falls so far
+     * behind that the write queue is full, rather than holding the rest of the track in memory.
+     */
+    private void write(Fill fill, AsyncFile file, Buffer buffer, String name) {
+        if (fill.failed) {
+            return;
+        }
+        if (file.writeQueueFull()) {
+            LOG.debugf("Disk too slow to cache TDL stream, skipping: %s", name);
+            fill.failed = true;
+            return;
+        }
+        int length = buffer.length();
+        fill.queued += length;
+        file.write(buffer).subscribe().with(
+            ignored -> fill.written.addAndGet(length),
+            e -> {
+                LOG.warnf(e, "Unable to write cached TDL stream: %s", name);
+                fill.failed = true;
+            });
+    }
+
+    /**
+     * Publishes a complete stream once its pending writes are flushed, provided every chunk was written
+     * and the file holds exactly the bytes streamed; anything else leaves no entry behind.
+     */
+    private void commit(Fill fill, AsyncFile file, Path part, String name) {
+        if (fill.failed) {
+            discard(file, part);
+            return;
+        }
+        long length = fill.queued;
+        file.close()
+            .chain(() -> vertx.fileSystem().props(part.toString()))
+            .chain(props -> {
+                if (fill.failed || fill.written.get() != length || props.size() != length) {
+                    return Uni.createFrom().failure(new IOException(
+                        STR."Incomplete cached TDL stream: \{props.size()} of \{length} bytes written"));
+                }
+                return vertx.fileSystem().move(part.toString(), root().resolve(name).toString(),
+                    new CopyOptions().setReplaceExisting(true));
+            })
+            .subscribe().with(
+                ignored -> register(name, length),
+                e -> {
+                    LOG.warnf(e, "Unable to publish cached TDL stream: %s", name);
+                    vertx.fileSystem().deleteAndForget(part.toString());
+                });
+    }
+
+    private void discard(AsyncFile file, Path part) {
+        file.close()
+            .onFailure().recoverWithNull()
+            .chain(() -> vertx.fileSystem().delete(part.toString()))
+            .subscribe().with(
+                ignored -> LOG.debugf("Discarded incomplete cached TDL stream: %s", part),
+                e -> LOG.debugf(e, "Unable to delete incomplete cached TDL stream: %s", part));
+    }
+
+    private synchronized void register(String name, long length) {
+        Long previous = entries.put(name, length);
+        size += length - (previous == null ? 0 : previous);
+        LOG.debugf("Cached TDL stream: %s (%d bytes)", name, length);
+        evict();
+    }
+
+    /** Deletes least recently used entries until the cache fits its size limit. */
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+        while (size > maxSize && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            eldest.remove();
+            size -= entry.getValue();
+            LOG.debugf("Evicting cached TDL stream: %s", entry.getKey());
+            vertx.fileSystem().deleteAndForget(root().resolve(entry.getKey()).toString());
+        }
+    }
+
+    private void index(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            if (name.endsWith(PART_SUFFIX)) {
+                Files.deleteIfExists(file);
+                return;
+            }
+            long length = Files.size(file);
+            synchronized (this) {
+                entries.put(name, length);
+                size += length;
+            }
+        } catch (IOException e) {
+            LOG.warnf(e, "Skipping unreadable cached TDL stream: %s", file);
+        }
+    }
+
+    private long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private Path root() {
+        return Paths.get(directory);
+    }
+
+    private String fileName(String trackId, String quality, String presentation) {
+        return STR."\{trackId}_\{quality}_\{presentation}".replaceAll("[^A-Za-z0-9_-]", "-");
+    }
+
+    /**
+     * Progress of the write of one stream to its temporary file.
+     */
+    private static final class Fill {
+
+        /** Bytes handed to the file, only touched by the stream. */
+        private long queued;
+        /** Bytes the file acknowledged as written. */
+        private final AtomicLong written = new AtomicLong();
+        private volatile boolean failed;
+    }
+}
@@ -1,26 +1,23 @@
 package quantum.music.providers.tdl.manifest;
 
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
 import io.vertx.core.json.JsonObject;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.ws.rs.WebApplicationException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import quantum.music.domain.tdl.MediaInfo;
 
 import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
-import javax.xml.XMLConstants;
-import javax.xml.namespace.NamespaceContext;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathFactory;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import static io.quarkus.arc.ComponentsProvider.LOG;
 
@@ -30,6 +27,29 @@ public class ManifestParser {
     private static final String MIME_TYPE_TIDAL_BTS = "application/vnd.tidal.bts";
     private static final String MIME_TYPE_DASH_XML = "application/dash+xml";
     private static final String ENCRYPTION_NONE = "NONE";
+    private static final String MPD_NAMESPACE = "urn:mpeg:dash:schema:mpd:2011";
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
+
+    @ConfigProperty(name = "tdl.manifest.offload-threshold", defaultValue = "65536")
+    int offloadThreshold;
+
+    /**
+     * Parses a manifest, moving the work to a worker thread when a DASH manifest is large enough
+     * to hold up the event loop.
+     *
+     * @param manifestMimeType MIME type of the manifest
+     * @param manifest Base64 encoded manifest
+     * @return A Uni emitting the parsed media information
+     */
+    public Uni<MediaInfo> parseAsync(String manifestMimeType, String manifest) {
+        if (MIME_TYPE_DASH_XML.equals(manifestMimeType) && manifest != null && manifest.length() > offloadThreshold) {
+            LOG.debugf("Parsing large DASH manifest on a worker thread: %d chars", manifest.length());
+            return Uni.createFrom().item(() -> parse(manifestMimeType, manifest))
+                .runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
+        }
+        return Uni.createFrom().item(() -> parse(manifestMimeType, manifest));
+    }
 
     public MediaInfo parse(String manifestMimeType, String manifest) {
         return switch (manifestMimeType) {
@@ -48,114 +68,165 @@ public class ManifestParser {
         );
     }
 
+    /**
+     * Expands the segment URLs of the first Representation in a single streaming pass over the
+     * decoded manifest, without building a DOM.
+     */
     private MediaInfo parseDashManifest(String manifestB64) {
-        String manifestXml = new String(Base64.getDecoder().decode(manifestB64), StandardCharsets.UTF_8);
-        LOG.debugf("Parsed DASH manifest XML: %s", manifestXml);
-
+        InputStream manifestXml = Base64.getDecoder()
+            .wrap(new ByteArrayInputStream(manifestB64.getBytes(StandardCharsets.ISO_8859_1)));
+        XMLStreamReader reader = null;
         try {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            factory.setNamespaceAware(true);
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            Document document = builder.parse(new ByteArrayInputStream(manifestXml.getBytes(StandardCharsets.UTF_8)));
-
-            XPath xPath = XPathFactory.newInstance().newXPath();
-            xPath.setNamespaceContext(new NamespaceContext() {
-                @Override
-                public String getNamespaceURI(String prefix) {
-                    return "mpd".equals(prefix) ? "urn:mpeg:dash:schema:mpd:2011" : XMLConstants.NULL_NS_URI;
+            reader = XML_INPUT_FACTORY.createXMLStreamReader(manifestXml, StandardCharsets.UTF_8.name());
+            DashRepresentation representation = readRepresentation(reader);
+            LOG.debugf("Parsed DASH manifest: %d segment URLs", representation.segmentUrls().size());
+            return new MediaInfo(representation.segmentUrls().toArray(new String[0]), ENCRYPTION_NONE, null);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to parse DASH XML manifest", e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    LOG.debugf("Failed to close DASH manifest reader: %s", e.getMessage());
                 }
+            }
+        }
+    }
 
-                @Override
-                public String getPrefix(String namespaceURI) {
-                    return null;
+    private DashRepresentation readRepresentation(XMLStreamReader reader) throws XMLStreamException {
+        DashRepresentation representation = null;
+        boolean inTimeline = false;
+        int segmentNumber = 0;
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT && isMpdElement(reader)) {
+                switch (reader.getLocalName()) {
+                    case "Representation" -> {
+                        if (representation != null) {
+                            return representation.validate();
+                        }
+                    }
+                    case "SegmentTimeline" -> inTimeline = false;
+                    default -> { }
                 }
-
-                @Override
-                public java.util.Iterator<String> getPrefixes(String namespaceURI) {
-                    return java.util.Collections.emptyIterator();
+                continue;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT || !isMpdElement(reader)) {
+                continue;
+            }
+            switch (reader.getLocalName()) {
+                case "Representation" -> {
+                    if (representation == null) {
+                        representation = new DashRepresentation(attribute(reader, "id"), attribute(reader, "bandwidth"));
+                    }
                 }
-            });
-
-            Node representationNode = (Node) xPath.evaluate("//mpd:Representation", document, XPathConstants.NODE);
-            if (representationNode == null || representationNode.getNodeType() != Node.ELEMENT_NODE) {
-                throw new IllegalStateException("No Representation found in DASH manifest");
+                case "SegmentTemplate" -> {
+                    if (representation != null && representation.mediaTemplate == null) {
+                        String mediaTemplate = attribute(reader, "media");
+                        if (mediaTemplate.isBlank()) {
+                            throw new IllegalStateException("No media template found in DASH manifest");
+                        }
+                        representation.mediaTemplate = mediaTemplate;
+                        String startNumberRaw = attribute(reader, "startNumber");
+                        segmentNumber = startNumberRaw.isBlank() ? 1 : Integer.parseInt(startNumberRaw);
+                        String initializationTemplate = attribute(reader, "initialization");
+                        if (!initializationTemplate.isBlank()) {
+                            representation.segmentUrls.add(representation.expand(initializationTemplate, null));
+                        }
+                    }
+                }
+                case "SegmentTimeline" -> {
+                    if (representation != null && representation.mediaTemplate != null && !representation.timeline) {
+                        inTimeline = true;
+                        representation.timeline = true;
+                    }
+                }
+                case "S" -> {
+                    if (inTimeline) {
+                        String repeatRaw = attribute(reader, "r");
+                        int repeat = repeatRaw.isBlank() ? 0 : Integer.parseInt(repeatRaw);
+                        int numSegments = repeat >= 0 ? repeat + 1 : 1;
+                        for (int j = 0; j < numSegments; j++) {
+                            representation.segmentUrls.add(representation.expand(representation.mediaTemplate, segmentNumber));
+                            segmentNumber += 1;
+                        }
+                        representation.segments += 1;
+                    }
+                }
+                default -> { }
             }
-            Element representation = (Element) representationNode;
+        }
+        if (representation == null) {
+            throw new IllegalStateException("No Representation found in DASH manifest");
+        }
+        return representation.validate();
+    }
 
-            Node segmentTemplateNode = (Node) xPath.evaluate(".//mpd:SegmentTemplate", representation, XPathConstants.NODE);
-            if (segmentTemplateNode == null || segmentTemplateNode.getNodeType() != Node.ELEMENT_NODE) {
-                throw new IllegalStateException("No SegmentTemplate found in DASH manifest");
-            }
-            Element segmentTemplate = (Element) segmentTemplateNode;
+    private boolean isMpdElement(XMLStreamReader reader) {
+        return MPD_NAMESPACE.equals(reader.getNamespaceURI());
+    }
 
-            String mediaTemplate = segmentTemplate.getAttribute("media");
-            if (mediaTemplate.isBlank()) {
-                throw new IllegalStateException("No media template found in DASH manifest");
-            }
+    private String attribute(XMLStreamReader reader, String name) {
+        String value = reader.getAttributeValue(null, name);
+        return value == null ? "" : value;
+    }
 
-            String initializationTemplate = segmentTemplate.getAttribute("initialization");
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
 
-            String startNumberRaw = segmentTemplate.getAttribute("startNumber");
-            int startNumber = 1;
-            if (!startNumberRaw.isBlank()) {
-                startNumber = Integer.parseInt(startNumberRaw);
-            }
+    /**
+     * State collected for the first Representation while streaming through the manifest.
+     */
+    private static final class DashRepresentation {
+
+        private final String id;
+        private final String bandwidth;
+        private final List<String> segmentUrls = new ArrayList<>();
+        private String mediaTemplate;
+        private boolean timeline;
+        private int segments;
+
+        private DashRepresentation(String id, String bandwidth) {
+            this.id = id;
+            this.bandwidth = bandwidth;
+        }
 
-            NodeList timelineNodes = segmentTemplate.getElementsByTagNameNS("urn:mpeg:dash:schema:mpd:2011", "SegmentTimeline");
-            if (timelineNodes.getLength() == 0) {
+        private List<String> segmentUrls() {
+            return segmentUrls;
+        }
+
+        private DashRepresentation validate() {
+            if (mediaTemplate == null) {
+                throw new IllegalStateException("No SegmentTemplate found in DASH manifest");
+            }
+            if (!timeline) {
                 throw new IllegalStateException("No SegmentTimeline found in DASH manifest");
             }
-
-            NodeList segmentNodes = ((Element) timelineNodes.item(0))
-                .getElementsByTagNameNS("urn:mpeg:dash:schema:mpd:2011", "S");
-            if (segmentNodes.getLength() == 0) {
+            if (segments == 0) {
                 throw new IllegalStateException("No S elements found in DASH manifest SegmentTimeline");
             }
+            return this;
+        }
 
-            List<String> segmentUrls = new ArrayList<>();
-            if (!initializationTemplate.isBlank()) {
-                segmentUrls.add(expandTemplate(initializationTemplate, representation, null));
+        private String expand(String template, Integer number) {
+            String expanded = template;
+            if (!id.isBlank()) {
+                expanded = expanded.replace("$RepresentationID$", id);
             }
-            int segmentNumber = startNumber;
-
-            for (int i = 0; i < segmentNodes.getLength(); i++) {
-                Node segmentNode = segmentNodes.item(i);
-                if (segmentNode.getNodeType() != Node.ELEMENT_NODE) {
-                    continue;
-                }
-                Element segment = (Element) segmentNode;
-                String repeatRaw = segment.getAttribute("r");
-                int repeat = 0;
-                if (!repeatRaw.isBlank()) {
-                    repeat = Integer.parseInt(repeatRaw);
-                }
-
-                int numSegments = repeat >= 0 ? repeat + 1 : 1;
-                for (int j = 0; j < numSegments; j++) {
-                    String url = expandTemplate(mediaTemplate, representation, segmentNumber);
-                    segmentUrls.add(url);
-                    segmentNumber += 1;
-                }
+            if (!bandwidth.isBlank()) {
+                expanded = expanded.replace("$Bandwidth$", bandwidth);
             }
-            return new MediaInfo(segmentUrls.toArray(new String[0]), ENCRYPTION_NONE, null);
-        } catch (Exception e) {
-            throw new IllegalStateException("Failed to parse DASH XML manifest", e);
-        }
-    }
-
-    private String expandTemplate(String template, Element representation, Integer number) {
-        String expanded = template;
-        String representationId = representation.getAttribute("id");
-        String bandwidth = representation.getAttribute("bandwidth");
-        if (!representationId.isBlank()) {
-            expanded = expanded.replace("$RepresentationID$", representationId);
-        }
-        if (!bandwidth.isBlank()) {
-            expanded = expanded.replace("$Bandwidth$", bandwidth);
-        }
-        if (number != null) {
-            expanded = expanded.replace("$Number$", Integer.toString(number));
+            if (number != null) {
+                expanded = expanded.replace("$Number$", Integer.toString(number));
+            }
+            return expanded;
         }
-        return expanded;
     }
 }
@@ -5,8 +5,7 @@ import io.smallrye.mutiny.tuples.Tuple2;
 import io.vertx.core.json.JsonObject;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import org.eclipse.microprofile.rest.client.inject.RestClient;
-import quantum.music.client.ApiClient;
+import quantum.music.client.SingleFlightApiClient;
 import quantum.music.domain.providers.Artist;
 import quantum.music.service.TokenService;
 
@@ -14,8 +13,7 @@ import quantum.music.service.TokenService;
 public class TdlArtistService extends TldAbstractService {
 
     @Inject
-    @RestClient
-    private ApiClient client;
+    private SingleFlightApiClient client;
 
     @Inject
     TokenService tokenService;
@@ -1,29 +1,35 @@
 package quantum.music.providers.tdl.services;
 
-import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.RequestOptions;
 import io.vertx.core.json.JsonObject;
 import io.vertx.mutiny.core.Vertx;
-import io.vertx.mutiny.core.buffer.Buffer;
 import io.vertx.mutiny.core.http.HttpClient;
 import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.WebApplicationException;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
-import org.eclipse.microprofile.rest.client.inject.RestClient;
-import quantum.music.client.ApiClient;
+import quantum.music.client.SingleFlightApiClient;
+import quantum.music.client.UpstreamLimiters;
 import quantum.music.domain.providers.*;
 import quantum.music.domain.tdl.MediaInfo;
+import quantum.music.providers.LocalFileStreamer;
+import quantum.music.providers.tdl.cache.TdlPlaybackCache;
+import quantum.music.providers.tdl.cache.TdlStreamCache;
+import quantum.music.service.StreamMetrics;
 import quantum.music.service.TokenService;
 import quantum.music.providers.tdl.stream.FileStreamer;
+import quantum.music.providers.tdl.stream.Playback;
+import quantum.music.providers.tdl.stream.StreamMeters;
 import quantum.music.providers.tdl.stream.crypto.DecryptingFileStreamer;
 import quantum.music.providers.tdl.stream.http.BasicFileStreamer;
 import quantum.music.providers.tdl.stream.http.MultiUrlFileStreamer;
 import quantum.music.providers.tdl.manifest.ManifestParser;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.stream.Stream;
 
@@ -37,8 +43,7 @@ public class TdlTrackService extends TldAbstractService  {
     public static final String OLD_AES = "OLD_AES";
 
     @Inject
-    @RestClient
-    private ApiClient apiClient;
+    private SingleFlightApiClient apiClient;
 
     @Inject
     TokenService tokenService;
@@ -49,10 +54,34 @@ public class TdlTrackService extends TldAbstractService  {
     @Inject
     ManifestParser manifestParser;
 
+    @Inject
+    TdlStreamCache streamCache;
+
+    @Inject
+    TdlPlaybackCache playbackCache;
+
+    @Inject
+    LocalFileStreamer fileStreamer;
+
+    @Inject
+    UpstreamLimiters limiters;
+
+    @Inject
+    StreamMetrics streamMetrics;
+
     private HttpClient httpClient;
     @ConfigProperty(name = "tdl.master.key")
     private String masterKey;
 
+    @ConfigProperty(name = "tdl.stream.segment.prefetch", defaultValue = "4")
+    int segmentPrefetch;
+
+    @ConfigProperty(name = "tdl.stream.segment.max-buffered-bytes", defaultValue = "8388608")
+    long segmentMaxBufferedBytes;
+
+    @ConfigProperty(name = "tdl.stream.subscribe-timeout", defaultValue = "PT30S")
+    Duration subscribeTimeout;
+
 
     @PostConstruct
     void init() {
@@ -120,36 +149,145 @@ public class TdlTrackService extends TldAbstractService  {
         String q = quality.replaceAll("HIRES", "HI_RES");
         return tokenService.withToken(() -> apiClient.media(parsedId(track), q, MEDIA_TYPE_STREAM, presentation)
                 .onItem().ifNull().failWith(() -> new NotFoundException(STR."Track not found: \{track}"))
-                .onItem().transform(json -> {
+                .onItem().transformToUni(json -> {
                     LOG.debugf("Retrieving content for track: %s", parsedId(track));
                     String manifestMimeType = json.getString("manifestMimeType");
-                    return manifestParser.parse(manifestMimeType, json.getString("manifest"));
+                    return manifestParser.parseAsync(manifestMimeType, json.getString("manifest"));
                 })
                 .onFailure().invoke(e -> LOG.errorf(e, "Error getting content for track: %s", track)));
     }
 
+    /**
+     * Streams a track, serving it from the on-disk stream cache when available.
+     * <p>
+     * On a cache miss the track is resolved and fetched upstream; streams covering the whole track
+     * are tee'd into the cache so that later plays, including ranged ones, are read from disk.
+     * </p>
+     *
+     * @param trackId provider-facing track id
+     * @param codec requested codec
+     * @param quality requested quality
+     * @param presentation requested presentation
+     * @param range requested byte range, or null for the whole track
+     * @return A Uni emitting the track content with its range metadata
+     */
+    public Uni<AudioContent> stream(String trackId, String codec, String quality, String presentation, ByteRange range) {
+        return streamCache.lookup(trackId, quality, presentation)
+            .map(file -> fileStreamer.stream(file, range)
+                .onItem().transform(cached -> cached.withData(streamCache.served(cached.data())))
+                .onFailure(NotFoundException.class).recoverWithUni(() -> {
+                    LOG.debugf("Cached stream vanished for track: %s", trackId);
+                    streamCache.invalidate(trackId, quality, presentation);
+                    return streamUpstream(trackId, codec, quality, presentation, range);
+                }))
+            .orElseGet(() -> streamUpstream(trackId, codec, quality, presentation, range));
+    }
+
+    /**
+     * Streams a track from upstream, dropping its cached playback when upstream rejects the URLs,
+     * whether when opening the stream or, for segmented streams, while fetching its data.
+     */
+    private Uni<AudioContent> streamUpstream(String trackId, String codec, String quality, String presentation, ByteRange range) {
+        Runnable invalidate = () -> playbackCache.invalidate(trackId, quality, presentation);
+        return playback(trackId, codec, quality, presentation)
+            .onItem().transformToUni(playback -> streamFile(playback, range, streamMetrics.upstream("tdl", quality)))
+            .onFailure(TdlTrackService::isPlaybackRejected).invoke(invalidate)
+            .onItem().transform(content -> content.withData(content.data()
+                .onFailure(TdlTrackService::isPlaybackRejected).invoke(invalidate)))
+            .onItem().transform(content -> isWholeTrack(content)
+                ? content.withData(streamCache.fill(trackId, quality, presentation, content.data()))
+                : content);
+    }
+
+    /**
+     * Resolves the playback of a track, reusing the manifest and keys resolved by a recent stream
+     * of the same track, quality and presentation.
+     */
+    private Uni<Playback> playback(String trackId, String codec, String quality, String presentation) {
+        return playbackCache.get(trackId, quality, presentation, () -> content(trackId, codec, quality, presentation)
+            .onItem().transform(mediaInfo -> new Playback(mediaInfo, OLD_AES.equals(mediaInfo.encryption())
+                ? DecryptingFileStreamer.decryptSecurityToken(mediaInfo.keyId(), masterKey)
+                : null)));
+    }
+
+    /**
+     * Tells whether upstream refused the URLs of a playback, e.g. because their signature expired.
+     * Local rejections (saturated stream pool) and range errors leave the playback valid.
+     */
+    static boolean isPlaybackRejected(Throwable failure) {
+        if (!(failure instanceof WebApplicationException e) || e.getResponse() == null) {
+            return false;
+        }
+        return switch (e.getResponse().getStatus()) {
+            case 401, 403, 404, 410 -> true;
+            default -> false;
+        };
+    }
+
+    private boolean isWholeTrack(AudioContent content) {
+        return content.start() == 0 && (!content.partial() || content.length() == content.total());
+    }
+
     /**
      * Proxies a file from a given URL.
+     * <p>
+     * Single-file streams forward the requested byte range upstream so that seeking does not
+     * download the whole file; encrypted ones resume decryption at the served offset.
+     * Segmented streams are served in full.
+     * </p>
+     * <p>
+     * Each upstream stream holds a permit of the stream pool until its data terminates. The pool counts
+     * streams, not connections: a segmented stream holds a single permit while it fetches up to
+     * {@code tdl.stream.segment.prefetch} segments at once.
+     * </p>
      *
-     * @param mediaInfo Media information containing the URL and encryption type
-     * @return A Multi emitting the file's content as Buffer
+     * @param playback Media information containing the URL and encryption type, with its decryption keys
+     * @param range Requested byte range, or null for the whole file
+     * @param meters Meters recording the upstream response times, segment fetches and decryption
+     * @return A Uni emitting the file's content as Buffer chunks with its range metadata
      */
-    public Multi<Buffer> streamFile(MediaInfo mediaInfo) {
+    public Uni<AudioContent> streamFile(Playback playback, ByteRange range, StreamMeters meters) {
+        MediaInfo mediaInfo = playback.mediaInfo();
         String encryption = mediaInfo.encryption();
-        FileStreamer base;
         if (mediaInfo.urls().length > 1) {
-            base = new MultiUrlFileStreamer(httpClient, List.of(mediaInfo.urls()));
-        } else {
-            base = new BasicFileStreamer(httpClient, new RequestOptions()
-                .setMethod(HttpMethod.GET)
-                .setAbsoluteURI(mediaInfo.urls()[0]));
+            FileStreamer base = new MultiUrlFileStreamer(httpClient, List.of(mediaInfo.urls()),
+                segmentPrefetch, segmentMaxBufferedBytes, meters);
+            FileStreamer decrypted = decrypt(base, playback, meters);
+            return Uni.createFrom().item(AudioContent.full(limiters.stream().stream(decrypted::stream), AudioContent.UNKNOWN_LENGTH));
         }
-        FileStreamer streamer = switch (encryption) {
+        BasicFileStreamer base = new BasicFileStreamer(httpClient, new RequestOptions()
+            .setMethod(HttpMethod.GET)
+            .setAbsoluteURI(mediaInfo.urls()[0]), meters);
+        return switch (encryption) {
+            case NONE -> open(base, range);
+            case OLD_AES -> open(base, range)
+                .onItem().transform(content -> content.withData(
+                    new DecryptingFileStreamer(content::data, playback.keys(), content.start(), meters).stream()));
+            default -> Uni.createFrom().failure(new IllegalStateException("Unexpected value: " + encryption));
+        };
+    }
+
+    /**
+     * Opens a single-file stream once a permit of the stream pool is available, holding the permit
+     * until the data terminates. The time to the response headers is the latency sample. Data not
+     * subscribed within the subscribe timeout, e.g. because the client disconnected after the headers,
+     * releases the permit and closes the upstream response.
+     */
+    private Uni<AudioContent> open(BasicFileStreamer base, ByteRange range) {
+        return limiters.stream().acquire().onItem().transformToUni(permit -> base.open(range)
+            .onItem().invoke(content -> permit.sample())
+            .onFailure().invoke(permit::release)
+            .onCancellation().invoke(() -> permit.release(null))
+            .onItem().transform(content -> content.withData(permit.guard(content.data(), subscribeTimeout))));
+    }
+
+    private FileStreamer decrypt(FileStreamer base, Playback playback, StreamMeters meters) {
+        String encryption = playback.mediaInfo().encryption();
+        return switch (encryption) {
             case NONE -> base;
-            case OLD_AES -> new DecryptingFileStreamer(base, mediaInfo.keyId(), masterKey);
+            case OLD_AES -> new DecryptingFileStreamer(base, playback.keys(), 0, meters);
             default -> throw new IllegalStateException("Unexpected value: " + encryption);
         };
-        return streamer.stream();
     }
 
 }
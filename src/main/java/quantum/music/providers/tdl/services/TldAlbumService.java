@@ -5,9 +5,8 @@ import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.jboss.logging.Logger;
-import quantum.music.client.ApiClient;
+import quantum.music.client.SingleFlightApiClient;
 import quantum.music.domain.PagedResponse;
 import quantum.music.domain.providers.Album;
 import quantum.music.domain.providers.Artist;
@@ -24,8 +23,7 @@ public class TldAlbumService extends TldAbstractService {
     private static final Logger LOG = Logger.getLogger(TldAlbumService.class);
 
     @Inject
-    @RestClient
-    private ApiClient client;
+    private SingleFlightApiClient client;
 
     @Inject
     TokenService tokenService;
@@ -59,7 +57,7 @@ public class TldAlbumService extends TldAbstractService {
         });
     }
 
-    private PagedResponse<Album> mapToPagedResponse(JsonObject json, int offset, int limit) {
+    PagedResponse<Album> mapToPagedResponse(JsonObject json, int offset, int limit) {
         JsonArray items = json.getJsonArray("items");
         List<Album> albums = items.stream()
                 .map(JsonObject.class::cast)
@@ -84,10 +82,11 @@ public class TldAlbumService extends TldAbstractService {
             //.type(json.getString("type"))
             .cover(formatImageUrl(json.getString("cover"), COVER_RESOLUTION))
             .tags(getTags(json))
+            .upc(json.getString("upc"))
         .build();
     }
 
-    private TrackList mapAlbumWithTracks(JsonObject json) {
+    TrackList mapAlbumWithTracks(JsonObject json) {
         JsonArray items = json.getJsonArray("items");
         JsonObject albumJson = items.getJsonObject(0).getJsonObject("album");
         JsonObject artistJson = items.getJsonObject(0).getJsonObject("artist");
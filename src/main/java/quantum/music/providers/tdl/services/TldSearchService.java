@@ -5,9 +5,8 @@ import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.jboss.logging.Logger;
-import quantum.music.client.ApiClient;
+import quantum.music.client.SingleFlightApiClient;
 import quantum.music.domain.PagedResponse;
 import quantum.music.domain.providers.Album;
 import quantum.music.domain.providers.Artist;
@@ -25,8 +24,7 @@ public class TldSearchService extends TldAbstractService {
     private static final String SEARCH_TYPE_ALBUMS = "ALBUMS";
 
     @Inject
-    @RestClient
-    private ApiClient client;
+    private SingleFlightApiClient client;
 
     @Inject
     TokenService tokenService;
@@ -41,7 +39,7 @@ public class TldSearchService extends TldAbstractService {
             .onFailure().invoke(e -> LOG.errorf(e, "Error searching for query: %s", q)));
     }
 
-    private PagedResponse<Album> mapAlbumPage(JsonObject json) {
+    PagedResponse<Album> mapAlbumPage(JsonObject json) {
         JsonObject albumsJson = json.getJsonObject("albums");
         int offset = albumsJson.getInteger("offset");
         int limit = albumsJson.getInteger("limit");
@@ -70,6 +68,7 @@ public class TldSearchService extends TldAbstractService {
             .type(json.getString("type"))
             .cover(formatImageUrl(json.getString("cover"), COVER_RESOLUTION))
             .tags(getTags(json))
+            .upc(json.getString("upc"))
             .build();
     }
 
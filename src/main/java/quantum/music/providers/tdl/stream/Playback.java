@@ -0,0 +1,13 @@
+package quantum.music.providers.tdl.stream;
+
+import quantum.music.domain.tdl.MediaInfo;
+import quantum.music.providers.tdl.stream.crypto.DecryptionKeys;
+
+/**
+ * Resolved playback of a track: where to fetch its content and how to decrypt it.
+ *
+ * @param mediaInfo parsed manifest with the stream URLs and encryption type
+ * @param keys decryption keys extracted from the security token, or null for unencrypted streams
+ */
+public record Playback(MediaInfo mediaInfo, DecryptionKeys keys) {
+}
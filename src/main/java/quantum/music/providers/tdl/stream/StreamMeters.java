@@ -0,0 +1,60 @@
+package quantum.music.providers.tdl.stream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters of the upstream side of one stream, already tagged with its provider and quality.
+ *
+ * <p>Streamers report what they observe through these methods; a streamer built without meters uses
+ * {@link #NONE}, which records nothing.</p>
+ *
+ * @param connect time from sending an upstream request to its response headers
+ * @param segment time to fetch a whole segment of a segmented stream
+ * @param decrypt time spent decrypting chunks
+ * @param decrypted number of bytes decrypted
+ */
+public record StreamMeters(Timer connect, Timer segment, Timer decrypt, Counter decrypted) {
+
+    /** Meters recording nothing. */
+    public static final StreamMeters NONE = new StreamMeters(null, null, null, null);
+
+    /**
+     * Records the time an upstream request took to get its response headers.
+     *
+     * @param nanos elapsed time in nanoseconds
+     */
+    public void connected(long nanos) {
+        if (connect != null) {
+            connect.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Records the time a segment took to be fetched entirely.
+     *
+     * @param nanos elapsed time in nanoseconds
+     */
+    public void segmentFetched(long nanos) {
+        if (segment != null) {
+            segment.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Records the decryption of a chunk.
+     *
+     * @param bytes size of the chunk
+     * @param nanos time spent decrypting it, in nanoseconds
+     */
+    public void decrypted(int bytes, long nanos) {
+        if (decrypt != null) {
+            decrypt.record(nanos, TimeUnit.NANOSECONDS);
+        }
+        if (decrypted != null) {
+            decrypted.increment(bytes);
+        }
+    }
+}
@@ -1,31 +1,92 @@
 package quantum.music.providers.tdl.stream.crypto;
 
+import io.netty.buffer.ByteBuf;
 import io.smallrye.mutiny.Multi;
 import io.vertx.mutiny.core.buffer.Buffer;
 import quantum.music.providers.tdl.stream.FileStreamer;
+import quantum.music.providers.tdl.stream.StreamMeters;
 
 import javax.crypto.Cipher;
+import javax.crypto.ShortBufferException;
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
 import java.util.Base64;
 
 import static io.quarkus.arc.ComponentsProvider.LOG;
 
 public class DecryptingFileStreamer implements FileStreamer {
 
+    private static final int AES_BLOCK_SIZE = 16;
+
     private final FileStreamer delegate;
     private final String keyId;
     private final String masterKey;
+    private final DecryptionKeys keys;
+    private final long offset;
+    private final StreamMeters meters;
 
     public DecryptingFileStreamer(FileStreamer delegate, String keyId, String masterKey) {
+        this(delegate, keyId, masterKey, 0);
+    }
+
+    /**
+     * Creates a streamer whose delegate emits the encrypted file starting at the given byte offset,
+     * e.g. the body of a ranged upstream request. AES-CTR allows random access, so the counter is
+     * positioned at the block containing the offset instead of decrypting the preceding bytes.
+     *
+     * @param delegate streamer emitting the encrypted bytes from {@code offset} onwards
+     * @param keyId encrypted security token of the track
+     * @param masterKey base64-encoded master key
+     * @param offset position of the first emitted byte within the encrypted file
+     */
+    public DecryptingFileStreamer(FileStreamer delegate, String keyId, String masterKey, long offset) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must not be negative.");
+        }
         this.delegate = delegate;
         this.keyId = keyId;
         this.masterKey = masterKey;
+        this.keys = null;
+        this.offset = offset;
+        this.meters = StreamMeters.NONE;
+    }
+
+    /**
+     * Creates a streamer using keys already extracted from the security token, e.g. cached ones.
+     *
+     * @param delegate streamer emitting the encrypted bytes from {@code offset} onwards
+     * @param keys decryption key and nonce of the track
+     * @param offset position of the first emitted byte within the encrypted file
+     */
+    public DecryptingFileStreamer(FileStreamer delegate, DecryptionKeys keys, long offset) {
+        this(delegate, keys, offset, StreamMeters.NONE);
+    }
+
+    /**
+     * Creates a streamer using keys already extracted from the security token, recording the time spent
+     * decrypting and the number of bytes decrypted.
+     *
+     * @param delegate streamer emitting the encrypted bytes from {@code offset} onwards
+     * @param keys decryption key and nonce of the track
+     * @param offset position of the first emitted byte within the encrypted file
+     * @param meters meters of the stream
+     */
+    public DecryptingFileStreamer(FileStreamer delegate, DecryptionKeys keys, long offset, StreamMeters meters) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must not be negative.");
+        }
+        this.delegate = delegate;
+        this.keyId = null;
+        this.masterKey = null;
+        this.keys = keys;
+        this.offset = offset;
+        this.meters = meters;
     }
 
     @Override
     public Multi<Buffer> stream() {
-        DecryptionKeys dk = decryptSecurityToken(keyId, masterKey);
+        DecryptionKeys dk = keys != null ? keys : decryptSecurityToken(keyId, masterKey);
         if (dk.nonce().length != 8) {
             return Multi.createFrom().failure(new IllegalArgumentException("Nonce must be 8 bytes long."));
         }
@@ -33,7 +94,7 @@ public class DecryptingFileStreamer implements FileStreamer {
         return Multi.createFrom().emitter(emitter -> {
             final Cipher cipher;
             try {
-                cipher = initCipher(dk.key(), dk.nonce());
+                cipher = initCipher(dk.key(), dk.nonce(), offset);
             } catch (RuntimeException e) {
                 emitter.fail(e);
                 return;
@@ -45,9 +106,11 @@ public class DecryptingFileStreamer implements FileStreamer {
                         return;
                     }
                     try {
-                        byte[] decryptedBytes = cipher.update(buffer.getBytes());
-                        if (decryptedBytes != null && decryptedBytes.length > 0) {
-                            emitter.emit(Buffer.buffer(decryptedBytes));
+                        long start = System.nanoTime();
+                        Buffer decrypted = decrypt(cipher, buffer);
+                        meters.decrypted(buffer.length(), System.nanoTime() - start);
+                        if (decrypted != null && decrypted.length() > 0) {
+                            emitter.emit(decrypted);
                         }
                     } catch (Exception e) {
                         if (!emitter.isCancelled()) {
@@ -82,17 +145,58 @@ public class DecryptingFileStreamer implements FileStreamer {
         });
     }
 
-    private Cipher initCipher(byte[] key, byte[] nonce) {
+    /**
+     * Decrypts a chunk in place: the chunk belongs to this stream once emitted by the delegate, and AES-CTR
+     * output has the size of its input, so the keystream is applied over the chunk's own memory and the
+     * same buffer is emitted. Nothing is allocated per chunk, whatever the number of concurrent streams.
+     * Chunks without a single writable backing region, such as composite buffers, are decrypted into a
+     * new buffer instead.
+     *
+     * @param cipher cipher positioned at the first byte of the chunk
+     * @param buffer encrypted chunk
+     * @return the decrypted chunk, or null when the cipher produced nothing
+     */
+    private static Buffer decrypt(Cipher cipher, Buffer buffer) throws ShortBufferException {
+        ByteBuf data = buffer.getDelegate().getByteBuf();
+        if (data.nioBufferCount() != 1 || data.isReadOnly()) {
+            byte[] decrypted = cipher.update(buffer.getBytes());
+            return decrypted == null ? null : Buffer.buffer(decrypted);
+        }
+        ByteBuffer input = data.nioBuffer();
+        ByteBuffer output = input.duplicate();
+        int produced = cipher.update(input, output);
+        if (produced != data.readableBytes()) {
+            throw new IllegalStateException(STR."Cipher produced \{produced} bytes for a chunk of \{data.readableBytes()}");
+        }
+        return buffer;
+    }
+
+    /**
+     * Initializes an AES-CTR cipher positioned at the given byte offset.
+     * The counter block is the 8-byte nonce followed by the big-endian index of the block holding
+     * the offset; the bytes preceding the offset within that block are consumed and discarded.
+     */
+    private Cipher initCipher(byte[] key, byte[] nonce, long offset) {
         try {
-            byte[] extendedNonce = new byte[16];
-            System.arraycopy(nonce, 0, extendedNonce, 0, 8);
+            long blockIndex = offset / AES_BLOCK_SIZE;
+            int skip = (int) (offset % AES_BLOCK_SIZE);
+
+            byte[] counterBlock = new byte[AES_BLOCK_SIZE];
+            System.arraycopy(nonce, 0, counterBlock, 0, 8);
+            for (int i = AES_BLOCK_SIZE - 1; i >= 8; i--) {
+                counterBlock[i] = (byte) blockIndex;
+                blockIndex >>>= 8;
+            }
 
             SecretKeySpec keySpec = new SecretKeySpec(key, "AES");
-            IvParameterSpec ivSpec = new IvParameterSpec(extendedNonce);
+            IvParameterSpec ivSpec = new IvParameterSpec(counterBlock);
             Cipher cipher = Cipher.getInstance("AES/CTR/NoPadding");
             cipher.init(Cipher.DECRYPT_MODE, keySpec, ivSpec);
+            if (skip > 0) {
+                cipher.update(new byte[skip]);
+            }
 
-            LOG.debugf("Decrypting stream with AES-CTR");
+            LOG.debugf("Decrypting stream with AES-CTR from offset %d", offset);
             return cipher;
         } catch (Exception e) {
             LOG.errorf(e, "Error initializing AES-CTR cipher");
@@ -108,7 +212,7 @@ public class DecryptingFileStreamer implements FileStreamer {
      * @param masterKey The base64-encoded master key
      * @return The decryption keys containing the key and nonce
      */
-    private DecryptionKeys decryptSecurityToken(String securityToken, String masterKey) {
+    public static DecryptionKeys decryptSecurityToken(String securityToken, String masterKey) {
         try {
             byte[] masterKeyBytes = Base64.getDecoder().decode(masterKey);
             byte[] securityTokenBytes = Base64.getDecoder().decode(securityToken);
@@ -1,35 +1,118 @@
 package quantum.music.providers.tdl.stream.http;
 
 import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
 import io.vertx.core.http.RequestOptions;
 import io.vertx.mutiny.core.buffer.Buffer;
 import io.vertx.mutiny.core.http.HttpClient;
+import io.vertx.mutiny.core.http.HttpClientResponse;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import quantum.music.domain.providers.AudioContent;
+import quantum.music.domain.providers.ByteRange;
 import quantum.music.providers.tdl.stream.FileStreamer;
+import quantum.music.providers.tdl.stream.StreamMeters;
 
 public class BasicFileStreamer implements FileStreamer {
 
     private final HttpClient httpClient;
     private final RequestOptions options;
+    private final StreamMeters meters;
 
     public BasicFileStreamer(HttpClient httpClient, RequestOptions options) {
+        this(httpClient, options, StreamMeters.NONE);
+    }
+
+    /**
+     * @param httpClient client used to send the request
+     * @param options the request to send
+     * @param meters meters recording the time to the response headers
+     */
+    public BasicFileStreamer(HttpClient httpClient, RequestOptions options, StreamMeters meters) {
         this.httpClient = httpClient;
         this.options = options;
+        this.meters = meters;
     }
 
     @Override
     public Multi<Buffer> stream() {
-        return Multi.createFrom().emitter(emitter -> httpClient.request(options)
-            .onItem().transformToUni(req -> req.send())
-            .subscribe().with(resp -> {
-                if (resp.statusCode() != 200) {
-                    emitter.fail(new WebApplicationException("Failed: " + resp.statusCode(), resp.statusCode()));
-                    return;
+        return open(null).onItem().transformToMulti(AudioContent::data);
+    }
+
+    /**
+     * Sends the request, optionally asking the upstream server for a byte range, and resolves as soon
+     * as the response headers arrive. The body is paused until the returned content is subscribed;
+     * cancelling it closes the upstream request.
+     *
+     * @param range byte range to request upstream, or null for the whole file
+     * @return the content with the positions reported by the upstream server
+     */
+    public Uni<AudioContent> open(ByteRange range) {
+        RequestOptions request = new RequestOptions(options);
+        if (range != null) {
+            request.putHeader("Range", range.toHeaderValue());
+        }
+        Uni<HttpClientResponse> response = Uni.createFrom().deferred(() -> {
+            long start = System.nanoTime();
+            return httpClient.request(request)
+                .onItem().transformToUni(req -> req.send())
+                .onItem().invoke(() -> meters.connected(System.nanoTime() - start));
+        });
+        return response
+            .onItem().transform(resp -> {
+                switch (resp.statusCode()) {
+                    case 200 -> {
+                        resp.pause();
+                        return AudioContent.full(body(resp), contentLength(resp));
+                    }
+                    case 206 -> {
+                        resp.pause();
+                        return partial(resp);
+                    }
+                    case 416 -> throw new WebApplicationException(Response.status(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+                        .header("Content-Range", resp.getHeader("Content-Range"))
+                        .build());
+                    default -> throw new WebApplicationException("Failed: " + resp.statusCode(), resp.statusCode());
                 }
-                resp.handler(emitter::emit);
-                resp.endHandler(emitter::complete);
-                resp.exceptionHandler(emitter::fail);
-            }, emitter::fail));
+            });
     }
-}
 
+    /**
+     * Body of a response. Cancelling it resets the request, so that the connection is not left with an
+     * unread body.
+     */
+    private Multi<Buffer> body(HttpClientResponse resp) {
+        return resp.toMulti().onCancellation().invoke(() -> resp.request().reset());
+    }
+
+    private long contentLength(HttpClientResponse resp) {
+        String length = resp.getHeader("Content-Length");
+        if (length == null || length.isBlank()) {
+            return AudioContent.UNKNOWN_LENGTH;
+        }
+        try {
+            return Long.parseLong(length.trim());
+        } catch (NumberFormatException e) {
+            return AudioContent.UNKNOWN_LENGTH;
+        }
+    }
+
+    /** Builds partial content from a "bytes first-last/total" Content-Range header. */
+    private AudioContent partial(HttpClientResponse resp) {
+        String contentRange = resp.getHeader("Content-Range");
+        if (contentRange == null || !contentRange.startsWith("bytes ")) {
+            throw new WebApplicationException("Invalid Content-Range from upstream: " + contentRange, 502);
+        }
+        try {
+            String[] rangeAndTotal = contentRange.substring("bytes ".length()).split("/", 2);
+            String[] bounds = rangeAndTotal[0].split("-", 2);
+            long total = rangeAndTotal.length < 2 || "*".equals(rangeAndTotal[1].trim())
+                ? AudioContent.UNKNOWN_LENGTH
+                : Long.parseLong(rangeAndTotal[1].trim());
+            ByteRange range = new ByteRange(Long.parseLong(bounds[0].trim()), Long.parseLong(bounds[1].trim()));
+            return AudioContent.partial(body(resp), range, total);
+        } catch (RuntimeException e) {
+            throw new WebApplicationException("Invalid Content-Range from upstream: " + contentRange, 502);
+        }
+    }
+}
@@ -1,22 +1,62 @@
 package quantum.music.providers.tdl.stream.http;
 
 import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.subscription.Cancellable;
+import io.smallrye.mutiny.subscription.MultiEmitter;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.RequestOptions;
 import io.vertx.mutiny.core.buffer.Buffer;
 import io.vertx.mutiny.core.http.HttpClient;
 import quantum.music.providers.tdl.stream.FileStreamer;
+import quantum.music.providers.tdl.stream.StreamMeters;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 
 public class MultiUrlFileStreamer implements FileStreamer {
 
     private final HttpClient httpClient;
     private final List<String> urls;
+    private final int prefetch;
+    private final long maxBufferedBytes;
+    private final StreamMeters meters;
 
     public MultiUrlFileStreamer(HttpClient httpClient, List<String> urls) {
+        this(httpClient, urls, 1, Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates a streamer that keeps up to {@code prefetch} segment requests in flight while still
+     * emitting the segments in order.
+     *
+     * @param httpClient client used to fetch the segments
+     * @param urls segment URLs, in playback order
+     * @param prefetch maximum number of concurrent segment requests; 1 streams the segments one at a time
+     * @param maxBufferedBytes no new segment request is started while fetched segments waiting to be
+     *                         emitted hold more than this many bytes
+     */
+    public MultiUrlFileStreamer(HttpClient httpClient, List<String> urls, int prefetch, long maxBufferedBytes) {
+        this(httpClient, urls, prefetch, maxBufferedBytes, StreamMeters.NONE);
+    }
+
+    /**
+     * Creates a prefetching streamer recording the response time of each segment request and the
+     * time to fetch each whole segment.
+     *
+     * @param httpClient client used to fetch the segments
+     * @param urls segment URLs, in playback order
+     * @param prefetch maximum number of concurrent segment requests
+     * @param maxBufferedBytes limit on the bytes of fetched segments waiting to be emitted
+     * @param meters meters of the stream
+     */
+    public MultiUrlFileStreamer(HttpClient httpClient, List<String> urls, int prefetch, long maxBufferedBytes,
+                                StreamMeters meters) {
         this.httpClient = httpClient;
         this.urls = urls;
+        this.prefetch = Math.max(1, prefetch);
+        this.maxBufferedBytes = maxBufferedBytes;
+        this.meters = meters;
     }
 
     @Override
@@ -25,11 +65,160 @@ public class MultiUrlFileStreamer implements FileStreamer {
             return Multi.createFrom().empty();
         }
 
-        return Multi.createFrom().iterable(urls)
-            .onItem().transformToMultiAndConcatenate(url -> new BasicFileStreamer(
-                httpClient,
-                new RequestOptions().setMethod(HttpMethod.GET).setAbsoluteURI(url)
-            ).stream());
+        if (prefetch == 1) {
+            return Multi.createFrom().iterable(urls)
+                .onItem().transformToMultiAndConcatenate(this::segment);
+        }
+
+        return Multi.createFrom().deferred(() -> {
+            SegmentWindow window = new SegmentWindow();
+            return Multi.createFrom().range(0, urls.size())
+                .onItem().transformToMultiAndConcatenate(index -> window.next())
+                .onTermination().invoke(window::cancel);
+        });
     }
-}
 
+    /** Streams a segment, recording the time from its request to its last byte. */
+    private Multi<Buffer> segment(String url) {
+        BasicFileStreamer streamer = new BasicFileStreamer(
+            httpClient,
+            new RequestOptions().setMethod(HttpMethod.GET).setAbsoluteURI(url),
+            meters
+        );
+        return Multi.createFrom().deferred(() -> {
+            long start = System.nanoTime();
+            return streamer.stream()
+                .onCompletion().invoke(() -> meters.segmentFetched(System.nanoTime() - start));
+        });
+    }
+
+    /**
+     * Sliding window of segment fetches. The head segment is streamed through as its bytes arrive, so the
+     * first bytes of the stream wait for a single response; the segments after it are read into memory so
+     * that they can complete before the head. Segments are handed out strictly in order.
+     */
+    private final class SegmentWindow {
+
+        private final Deque<Segment> pending = new ArrayDeque<>();
+        private Segment head;
+        private int nextIndex;
+        private int inFlight;
+        private long bufferedBytes;
+        private boolean cancelled;
+
+        /** Streams the next segment in order, topping up the window of in-flight requests. */
+        Multi<Buffer> next() {
+            return Multi.createFrom().emitter(emitter -> {
+                synchronized (this) {
+                    fill();
+                    head = pending.poll();
+                    if (head == null) {
+                        emitter.fail(new IllegalStateException("No segment left to stream"));
+                        return;
+                    }
+                    head.attach(emitter);
+                    fill();
+                }
+            });
+        }
+
+        /** Stops starting new requests once the stream terminates and cancels the requests in flight. */
+        synchronized void cancel() {
+            cancelled = true;
+            if (head != null) {
+                head.cancel();
+            }
+            pending.forEach(Segment::cancel);
+            pending.clear();
+            bufferedBytes = 0;
+        }
+
+        private void fill() {
+            while (!cancelled
+                && nextIndex < urls.size()
+                && inFlight < prefetch
+                && (pending.isEmpty() || bufferedBytes < maxBufferedBytes)) {
+                Segment segment = new Segment();
+                inFlight++;
+                pending.add(segment);
+                segment.fetch = segment(urls.get(nextIndex++))
+                    .subscribe().with(segment::received, segment::failed, segment::completed);
+            }
+        }
+
+        /**
+         * A segment being fetched. Its bytes are kept until it becomes the head, then forwarded as they arrive.
+         */
+        private final class Segment {
+
+            private final Deque<Buffer> chunks = new ArrayDeque<>();
+            private Cancellable fetch;
+            private MultiEmitter<? super Buffer> emitter;
+            private boolean done;
+            private Throwable failure;
+
+            /** Makes this segment the head: emits the bytes already fetched, then forwards the rest. */
+            void attach(MultiEmitter<? super Buffer> emitter) {
+                Buffer chunk;
+                while ((chunk = chunks.poll()) != null) {
+                    bufferedBytes -= chunk.length();
+                    emitter.emit(chunk);
+                }
+                if (!done) {
+                    this.emitter = emitter;
+                } else if (failure != null) {
+                    emitter.fail(failure);
+                } else {
+                    emitter.complete();
+                }
+            }
+
+            void cancel() {
+                if (!done && fetch != null) {
+                    fetch.cancel();
+                }
+                chunks.clear();
+            }
+
+            void received(Buffer chunk) {
+                synchronized (SegmentWindow.this) {
+                    if (cancelled) {
+                        return;
+                    }
+                    if (emitter != null) {
+                        emitter.emit(chunk);
+                    } else {
+                        chunks.add(chunk);
+                        bufferedBytes += chunk.length();
+                    }
+                }
+            }
+
+            void failed(Throwable failure) {
+                synchronized (SegmentWindow.this) {
+                    terminated();
+                    this.failure = failure;
+                    if (emitter != null) {
+                        emitter.fail(failure);
+                    }
+                    fill();
+                }
+            }
+
+            void completed() {
+                synchronized (SegmentWindow.this) {
+                    terminated();
+                    if (emitter != null) {
+                        emitter.complete();
+                    }
+                    fill();
+                }
+            }
+
+            private void terminated() {
+                done = true;
+                inFlight--;
+            }
+        }
+    }
+}
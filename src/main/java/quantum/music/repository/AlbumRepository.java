@@ -1,13 +1,296 @@
 package quantum.music.repository;
 
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Facet;
+import com.mongodb.client.model.Field;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import io.quarkus.mongodb.FindOptions;
 import io.quarkus.mongodb.panache.reactive.ReactivePanacheMongoRepository;
+import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
 import quantum.music.domain.local.QAlbum;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Reactive repository for {@link quantum.music.domain.local.QAlbum} documents.
  * Provides CRUD access to the local albums collection via Panache.
  */
 @ApplicationScoped
 public class AlbumRepository implements ReactivePanacheMongoRepository<QAlbum> {
-}
\ No newline at end of file
+
+    /**
+     * Largest page computed by a {@code $facet} stage: its output is a single document, limited to 16 MB.
+     */
+    static final int MAX_FACET_LIMIT = 100;
+
+    /** Paged albums are listed, never played: their embedded tracks are left out. */
+    private static final Bson WITHOUT_TRACKS = Projections.exclude("tracks");
+
+    /**
+     * Fetches a page of albums matching a filter in a single round trip.
+     * <p>
+     * With an exact total, the page and the count are computed by one {@code $facet} aggregation,
+     * so the filter (e.g. a {@code $text} search) is only evaluated once. Pages that are unbounded or
+     * larger than {@link #MAX_FACET_LIMIT} could overflow the facet document and are fetched and
+     * counted by two queries instead. Without an exact total, the total is estimated by fetching one
+     * extra album: it covers the albums up to the end of the page, plus one when more albums follow.
+     * Embedded tracks are not fetched.
+     * </p>
+     *
+     * @param filter album filter; a {@code $text} filter is allowed
+     * @param skip number of matching albums to skip
+     * @param limit maximum number of albums to return; zero or less returns all remaining albums
+     * @param exactTotal whether to count all matching albums
+     * @return the albums of the page with the total and whether more albums follow
+     */
+    public Uni<AlbumPage> page(Bson filter, int skip, int limit, boolean exactTotal) {
+        if (!exactTotal) {
+            FindOptions options = new FindOptions().skip(skip).projection(WITHOUT_TRACKS);
+            if (limit > 0) {
+                options.limit(limit + 1);
+            }
+            return mongoCollection().find(filter, options).collect().asList()
+                .onItem().transform(albums -> estimatedPage(albums, skip, limit));
+        }
+        if (limit <= 0 || limit > MAX_FACET_LIMIT) {
+            FindOptions options = new FindOptions().skip(skip).projection(WITHOUT_TRACKS);
+            if (limit > 0) {
+                options.limit(limit);
+            }
+            return Uni.combine().all().unis(
+                    mongoCollection().find(filter, options).collect().asList(),
+                    mongoCollection().countDocuments(filter))
+                .asTuple()
+                .onItem().transform(result -> countedPage(result.getItem1(), skip, result.getItem2().intValue()));
+        }
+        List<Bson> pipeline = List.of(
+            Aggregates.match(filter),
+            Aggregates.facet(
+                new Facet("items", itemStages(skip, limit)),
+                new Facet("total", Aggregates.count("count"))
+            )
+        );
+        return mongoCollection().aggregate(pipeline, FacetPage.class).toUni()
+            .onItem().transform(page -> countedPage(
+                page == null || page.items == null ? List.of() : page.items,
+                skip,
+                page == null || page.total == null || page.total.isEmpty() ? 0 : page.total.get(0).count));
+    }
+
+    /**
+     * Stages of the items facet of a page: the albums of the page, without their tracks.
+     *
+     * @param skip number of matching albums to skip
+     * @param limit maximum number of albums to return, at most {@link #MAX_FACET_LIMIT}
+     * @return the stages
+     */
+    static List<Bson> itemStages(int skip, int limit) {
+        return List.of(Aggregates.skip(skip), Aggregates.limit(limit), Aggregates.project(WITHOUT_TRACKS));
+    }
+
+    /**
+     * Builds a page from albums fetched with one extra album beyond the limit.
+     *
+     * @param albums albums fetched, up to {@code limit + 1}
+     * @param skip number of matching albums skipped
+     * @param limit maximum number of albums of the page; zero or less when all remaining albums were fetched
+     * @return the page, with a total estimated from the albums fetched
+     */
+    static AlbumPage estimatedPage(List<QAlbum> albums, int skip, int limit) {
+        boolean hasMore = limit > 0 && albums.size() > limit;
+        List<QAlbum> items = hasMore ? albums.subList(0, limit) : albums;
+        return new AlbumPage(items, skip + items.size() + (hasMore ? 1 : 0), hasMore);
+    }
+
+    /**
+     * Builds a page from its albums and the number of matching albums.
+     *
+     * @param items albums of the page
+     * @param skip number of matching albums skipped
+     * @param total number of matching albums
+     * @return the page
+     */
+    static AlbumPage countedPage(List<QAlbum> items, int skip, int total) {
+        return new AlbumPage(items, total, skip + items.size() < total);
+    }
+
+    /**
+     * Fetches the albums following a keyset position, in (sort key, id) order.
+     * <p>
+     * Instead of skipping the albums of previous pages, the albums are filtered on the sort key and
+     * id of the last album already returned, so the cost of a page does not grow with its depth.
+     * The sort key is either an album field or a field computed by {@code sortKeyExpression},
+     * e.g. the text search score. With an exact total, the page is computed by a {@code $facet} stage
+     * and holds at most {@link #MAX_FACET_LIMIT} albums; the next ones are reached by the returned
+     * position. Embedded tracks are not fetched.
+     * </p>
+     *
+     * @param filter album filter; a {@code $text} filter is allowed
+     * @param sortKey name of the field to sort by
+     * @param sortKeyExpression expression computing {@code sortKey}, or null to sort by a stored field
+     * @param descending whether to sort by descending key; ids are always ascending
+     * @param afterKey sort key of the last album returned, null when it had none; ignored when {@code afterId} is null
+     * @param afterId id of the last album returned, or null for the first page
+     * @param limit maximum number of albums to return
+     * @param exactTotal whether to count all matching albums; otherwise the total is negative
+     * @return the albums of the page with the position of its last album
+     */
+    public Uni<KeysetPage> pageAfter(Bson filter, String sortKey, Bson sortKeyExpression, boolean descending,
+                                     BsonValue afterKey, ObjectId afterId, int limit, boolean exactTotal) {
+        int size = exactTotal ? Math.clamp(limit, 1, MAX_FACET_LIMIT) : Math.max(1, limit);
+        List<Bson> pageStages = new ArrayList<>();
+        if (afterId != null) {
+            pageStages.add(Aggregates.match(keysetFilter(sortKey, descending, afterKey, afterId)));
+        }
+        pageStages.add(Aggregates.sort(Sorts.orderBy(
+            descending ? Sorts.descending(sortKey) : Sorts.ascending(sortKey),
+            Sorts.ascending("_id"))));
+        pageStages.add(Aggregates.limit(size + 1));
+        pageStages.add(Aggregates.project(WITHOUT_TRACKS));
+        pageStages.add(Aggregates.project(new Document("_id", 0).append("album", "$$ROOT").append("key", "$" + sortKey)));
+
+        List<Bson> pipeline = new ArrayList<>(List.of(Aggregates.match(filter)));
+        if (sortKeyExpression != null) {
+            pipeline.add(Aggregates.addFields(new Field<>(sortKey, sortKeyExpression)));
+        }
+        if (!exactTotal) {
+            pipeline.addAll(pageStages);
+            return mongoCollection().aggregate(pipeline, KeyedAlbum.class).collect().asList()
+                .onItem().transform(albums -> keysetPage(albums, size, -1));
+        }
+        pipeline.add(Aggregates.facet(
+            new Facet("items", pageStages),
+            new Facet("total", Aggregates.count("count"))
+        ));
+        return mongoCollection().aggregate(pipeline, KeysetFacetPage.class).toUni()
+            .onItem().transform(page -> keysetPage(
+                page == null || page.items == null ? List.of() : page.items,
+                size,
+                page == null || page.total == null || page.total.isEmpty() ? 0 : page.total.get(0).count));
+    }
+
+    /**
+     * Filter matching the albums that follow a keyset position in (sort key, id) order.
+     * <p>
+     * Albums whose sort key is null or missing sort before all others in ascending order and after
+     * them in descending order; comparison operators never match them, so they are handled apart.
+     * </p>
+     *
+     * @param sortKey name of the field sorted by
+     * @param descending whether the sort key is descending
+     * @param afterKey sort key of the last album returned; null or {@code BsonNull} when it had none
+     * @param afterId id of the last album returned
+     * @return the filter
+     */
+    static Bson keysetFilter(String sortKey, boolean descending, BsonValue afterKey, ObjectId afterId) {
+        if (afterKey == null || afterKey.isNull()) {
+            Bson sameKey = Filters.and(Filters.eq(sortKey, null), Filters.gt("_id", afterId));
+            return descending ? sameKey : Filters.or(Filters.ne(sortKey, null), sameKey);
+        }
+        Bson sameKey = Filters.and(Filters.eq(sortKey, afterKey), Filters.gt("_id", afterId));
+        return descending
+            ? Filters.or(Filters.lt(sortKey, afterKey), sameKey, Filters.eq(sortKey, null))
+            : Filters.or(Filters.gt(sortKey, afterKey), sameKey);
+    }
+
+    private KeysetPage keysetPage(List<KeyedAlbum> albums, int limit, int total) {
+        boolean hasMore = albums.size() > limit;
+        List<KeyedAlbum> page = hasMore ? albums.subList(0, limit) : albums;
+        KeyedAlbum last = page.isEmpty() ? null : page.get(page.size() - 1);
+        return new KeysetPage(
+            page.stream().map(keyed -> keyed.album).toList(),
+            last == null ? null : last.key,
+            last == null ? null : last.album.id,
+            total,
+            hasMore);
+    }
+
+    /**
+     * A page of albums.
+     *
+     * @param items albums of the page
+     * @param total number of matching albums, exact or estimated
+     * @param hasMore whether more albums follow the page
+     */
+    public record AlbumPage(List<QAlbum> items, int total, boolean hasMore) {
+    }
+
+    /**
+     * A page of albums fetched by keyset.
+     *
+     * @param items albums of the page
+     * @param lastKey sort key of the last album, or null when the page is empty
+     * @param lastId id of the last album, or null when the page is empty
+     * @param total number of matching albums, or a negative value when not counted
+     * @param hasMore whether more albums follow the page
+     */
+    public record KeysetPage(List<QAlbum> items, BsonValue lastKey, ObjectId lastId, int total, boolean hasMore) {
+    }
+
+    /**
+     * Album with the sort key it was paged by.
+     */
+    public static class KeyedAlbum {
+
+        /**
+         * The album document.
+         */
+        public QAlbum album;
+
+        /**
+         * Value of the sort key for the album.
+         */
+        public BsonValue key;
+    }
+
+    /**
+     * Document produced by the keyset paging {@code $facet} stage.
+     */
+    public static class KeysetFacetPage {
+
+        /**
+         * Albums of the requested page with their sort keys.
+         */
+        public List<KeyedAlbum> items;
+
+        /**
+         * Single-element list holding the number of matching albums; empty when nothing matches.
+         */
+        public List<FacetCount> total;
+    }
+
+    /**
+     * Document produced by the paging {@code $facet} stage.
+     */
+    public static class FacetPage {
+
+        /**
+         * Albums of the requested page.
+         */
+        public List<QAlbum> items;
+
+        /**
+         * Single-element list holding the number of matching albums; empty when nothing matches.
+         */
+        public List<FacetCount> total;
+    }
+
+    /**
+     * Output of the {@code $count} stage.
+     */
+    public static class FacetCount {
+
+        /**
+         * Number of counted documents.
+         */
+        public int count;
+    }
+}
@@ -0,0 +1,74 @@
+package quantum.music.repository;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.Tags;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.bson.BsonValue;
+import quantum.music.service.OperationMetrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MongoDB command listener recording the latency, outcome and concurrency of every command sent by
+ * the repositories.
+ *
+ * <p>Quarkus registers command listener beans with the MongoDB client, so every query of the local
+ * library is timed as {@code qmusic.mongo.command}, tagged with the command (find, aggregate, ...)
+ * and the collection, without touching the repositories themselves.</p>
+ */
+@ApplicationScoped
+public class MongoCommandMetrics implements CommandListener {
+
+    /** Name of the command timer. */
+    static final String METRIC = "qmusic.mongo.command";
+
+    @Inject
+    OperationMetrics metrics;
+
+    private final Map<Integer, Tags> running = new ConcurrentHashMap<>();
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        Tags tags = Tags.of("command", event.getCommandName(), "collection", collection(event));
+        running.put(event.getRequestId(), tags);
+        metrics.inFlight(METRIC, tags).incrementAndGet();
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        ended(event.getRequestId(), null, event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        ended(event.getRequestId(), event.getThrowable(), event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    private void ended(int requestId, Throwable failure, long nanos) {
+        Tags tags = running.remove(requestId);
+        if (tags == null) {
+            return;
+        }
+        metrics.inFlight(METRIC, tags).decrementAndGet();
+        metrics.record(METRIC, tags, failure, false, nanos);
+    }
+
+    /**
+     * Collection targeted by a command: the value of its first field for collection commands, e.g.
+     * {@code {find: "albums", ...}}, the {@code collection} field for cursor commands, "none" for
+     * database or server commands.
+     */
+    private static String collection(CommandStartedEvent event) {
+        BsonValue target = event.getCommand().get(event.getCommandName());
+        if (target == null || !target.isString()) {
+            target = event.getCommand().get("collection");
+        }
+        return target != null && target.isString() ? target.asString().getValue() : "none";
+    }
+}
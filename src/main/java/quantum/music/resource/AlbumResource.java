@@ -19,6 +19,8 @@ import quantum.music.api.*;
 import quantum.music.mappers.Mapper;
 import quantum.music.service.ProviderService;
 
+import java.util.Set;
+
 /**
  * Resource providing REST endpoints for album and track information.
  * <p>
@@ -38,6 +40,9 @@ import quantum.music.service.ProviderService;
 @Tag(name = "Albums", description = "Album information and track listings")
 public class AlbumResource extends Mapper {
 
+    private static final String EXPAND_TRACKS = "tracks";
+    private static final Set<String> EXPANSIONS = Set.of(EXPAND_TRACKS);
+
     /**
      * Service for interacting with music provider implementations.
      */
@@ -52,9 +57,14 @@ public class AlbumResource extends Mapper {
      * such as title, release date, cover art, copyright, tags, type, and a URI
      * to retrieve the album's tracks.
      * </p>
+     * <p>
+     * With {@code expand=tracks} the track listing is embedded in the response, saving the
+     * request to the tracks endpoint.
+     * </p>
      *
      * @param uriInfo The URI context information used to construct resource links
      * @param id      The unique identifier of the album to retrieve
+     * @param expand  Related resources to embed; "tracks" is supported
      * @return A Uni emitting the album information wrapped in an ApiAlbum object
      */
     @GET
@@ -82,7 +92,14 @@ public class AlbumResource extends Mapper {
     public Uni<ApiAlbum> album(
             @Context UriInfo uriInfo,
             @Parameter(description = "Album unique identifier", required = true, example = "tdl:12345")
-            @PathParam("id") String id) {
+            @PathParam("id") String id,
+            @Parameter(description = "Related resources to embed in the album", example = "tracks")
+            @QueryParam("expand") String expand) {
+        if (Expand.parse(expand, EXPANSIONS).contains(EXPAND_TRACKS)) {
+            return providerService.fromId(id)
+                    .onItem().transformToUni(musicProvider -> musicProvider.getAlbumWithTracks(id))
+                    .onItem().transform(trackList -> detail(getBaseUrl(uriInfo), trackList));
+        }
         return providerService.fromId(id)
                 .onItem().transformToUni(musicProvider -> musicProvider.getAlbumById(id))
                 .onItem().transform(album -> detail(getBaseUrl(uriInfo), album));
@@ -18,9 +18,13 @@ import quantum.music.api.ApiAlbum;
 import quantum.music.api.ApiArtist;
 import quantum.music.api.ListResponse;
 import quantum.music.api.Response;
+import quantum.music.domain.PagedResponse;
+import quantum.music.domain.providers.Album;
 import quantum.music.mappers.Mapper;
 import quantum.music.service.ProviderService;
 
+import java.util.Set;
+
 /**
  * Resource providing REST endpoints for artist and album information.
  * <p>
@@ -38,6 +42,9 @@ import quantum.music.service.ProviderService;
 @Path("/music")
 public class ArtistResource extends Mapper {
 
+    private static final String EXPAND_ALBUMS = "albums";
+    private static final Set<String> EXPANSIONS = Set.of(EXPAND_ALBUMS);
+
     /**
      * Service for interacting with music provider implementations.
      */
@@ -51,10 +58,17 @@ public class ArtistResource extends Mapper {
      * based on the artist ID. The response includes the artist's basic details
      * and a URI to retrieve their albums.
      * </p>
+     * <p>
+     * With {@code expand=albums} the first page of the artist albums is fetched concurrently
+     * and embedded in the response.
+     * </p>
      *
      * @param uriInfo The URI context information used to construct resource links
      * @param artistId The unique identifier of the artist to retrieve
+     * @param expand Related resources to embed; "albums" is supported
+     * @param limit The maximum number of embedded albums (default: 10, at most 100)
      * @return A Uni emitting the artist information wrapped in an ApiArtist object
+     * @throws BadRequestException when the limit is below 1
      */
     @GET
     @Path("/artists/{artist}")
@@ -62,8 +76,25 @@ public class ArtistResource extends Mapper {
     public Uni<ApiArtist> artist(
             @Context UriInfo uriInfo,
             @Parameter(description = "Artist unique identifier", required = true, example = "tdl:98765")
-            @PathParam("artist") String artistId
+            @PathParam("artist") String artistId,
+            @Parameter(description = "Related resources to embed in the artist", example = "albums")
+            @QueryParam("expand") String expand,
+            @Parameter(description = "Maximum number of embedded albums, at most 100", example = "10")
+            @QueryParam("limit") @DefaultValue("10") int limit
     ) {
+        if (Expand.parse(expand, EXPANSIONS).contains(EXPAND_ALBUMS)) {
+            int albumLimit = PageLimit.of(limit);
+            return providerService.fromId(artistId)
+                    .onItem().transformToUni(musicProvider -> Uni.combine().all().unis(
+                            musicProvider.getArtistById(artistId),
+                            musicProvider.getAlbumsByArtistId(artistId, 0, albumLimit)).asTuple())
+                    .onItem().transform(result -> {
+                        String baseUrl = getBaseUrl(uriInfo);
+                        return ApiArtist.builder(detail(baseUrl, result.getItem1()))
+                                .albumList(albumList(baseUrl, result.getItem2()))
+                                .build();
+                    });
+        }
         return providerService.fromId(artistId)
                 .onItem().transformToUni(musicProvider -> musicProvider.getArtistById(artistId))
                 .onItem().transform( artist -> detail(getBaseUrl(uriInfo), artist));
@@ -81,8 +112,11 @@ public class ArtistResource extends Mapper {
      * @param uriInfo The URI context information used to construct resource links
      * @param artistId The unique identifier of the artist whose albums to retrieve
      * @param offset The starting position in the result set (default: 0)
-     * @param limit The maximum number of results to return (default: 10)
+     * @param limit The maximum number of results to return (default: 10, at most 100)
+     * @param cursor Opaque cursor of the page to return; when present (empty for the first page),
+     *               albums are paged by cursor and {@code offset} is ignored
      * @return A Uni emitting an ItemsResponse containing the paginated album list
+     * @throws BadRequestException when the limit is below 1
      */
     @GET
     @Path("/artists/{artist}/albums")
@@ -96,6 +130,10 @@ public class ArtistResource extends Mapper {
             description = "Albums retrieved successfully",
             content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ListResponse.class))
         ),
+        @APIResponse(
+            responseCode = "400",
+            description = "Invalid limit"
+        ),
         @APIResponse(
             responseCode = "404",
             description = "Artist not found"
@@ -112,18 +150,26 @@ public class ArtistResource extends Mapper {
             @PathParam("artist") String artistId,
             @Parameter(description = "Starting position in the result set", example = "0")
             @QueryParam("offset") @DefaultValue("0") int offset,
-            @Parameter(description = "Maximum number of results to return", example = "10")
-            @QueryParam("limit") @DefaultValue("10") int limit
+            @Parameter(description = "Maximum number of results to return, at most 100", example = "10")
+            @QueryParam("limit") @DefaultValue("10") int limit,
+            @Parameter(description = "Cursor of the page to return, from the 'next' field of the previous page; empty for the first page")
+            @QueryParam("cursor") String cursor
     ) {
+        int pageLimit = PageLimit.of(limit);
         return providerService.fromId(artistId)
-            .onItem().transformToUni(musicProvider -> musicProvider.getAlbumsByArtistId(artistId, offset, limit))
-            .onItem().transform(page -> {
-                String baseUrl = getBaseUrl(uriInfo);
-                return Response.list(map(page.items(), album -> link(baseUrl, album)))
-                    .offset(page.offset())
-                    .limit(page.limit())
-                    .total(page.total())
-                    .build();
-            });
+            .onItem().transformToUni(musicProvider -> cursor != null
+                ? musicProvider.getAlbumsByArtistId(artistId, cursor, pageLimit)
+                : musicProvider.getAlbumsByArtistId(artistId, offset, pageLimit))
+            .onItem().transform(page -> albumList(getBaseUrl(uriInfo), page));
+    }
+
+    private ListResponse<ApiAlbum> albumList(String baseUrl, PagedResponse<Album> page) {
+        return Response.list(map(page.items(), album -> link(baseUrl, album)))
+            .offset(page.offset())
+            .limit(page.limit())
+            .total(page.total())
+            .hasMore(page.hasMore())
+            .next(page.next())
+            .build();
     }
 }
@@ -0,0 +1,129 @@
+package quantum.music.resource;
+
+import io.quarkus.security.Authenticated;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.UriInfo;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import quantum.music.api.ApiBatch;
+import quantum.music.api.ApiBatchRequest;
+import quantum.music.mappers.Mapper;
+import quantum.music.service.BatchService;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Resource resolving many albums, artists and tracks in a single request.
+ * <p>
+ * Screens showing many resources at once, such as a home screen, would otherwise call the single
+ * resource endpoints once per item. Ids may belong to different providers; each provider resolves
+ * its share concurrently, in as few queries as it allows.
+ * </p>
+ */
+@Path("/music/batch")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Batch", description = "Lookup of many albums, artists and tracks in one call")
+public class BatchResource extends Mapper {
+
+    @Inject
+    BatchService batchService;
+
+    /**
+     * Resolves the albums, artists and tracks listed in the request body.
+     *
+     * @param uriInfo The URI context information used to construct resource links
+     * @param request The ids to resolve, by resource type
+     * @return A Uni emitting the resources found and the ids that were not
+     */
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Operation(
+        summary = "Batch lookup",
+        description = "Resolves albums, artists and tracks of any provider in one call; ids not found are listed in 'missing'"
+    )
+    @APIResponses({
+        @APIResponse(
+            responseCode = "200",
+            description = "Lookup completed",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ApiBatch.class))
+        ),
+        @APIResponse(
+            responseCode = "400",
+            description = "Too many ids"
+        ),
+        @APIResponse(
+            responseCode = "500",
+            description = "Internal server error"
+        )
+    })
+    @Authenticated
+    public Uni<ApiBatch> lookup(@Context UriInfo uriInfo, ApiBatchRequest request) {
+        if (request == null) {
+            throw new BadRequestException("Missing batch request");
+        }
+        return lookup(getBaseUrl(uriInfo), request.albums(), request.artists(), request.tracks());
+    }
+
+    /**
+     * Resolves the albums, artists and tracks listed in the query, as comma-separated or repeated parameters.
+     *
+     * @param uriInfo The URI context information used to construct resource links
+     * @param albums  Album ids
+     * @param artists Artist ids
+     * @param tracks  Track ids
+     * @return A Uni emitting the resources found and the ids that were not
+     */
+    @GET
+    @Operation(
+        summary = "Batch lookup by query",
+        description = "Same as the POST variant, with the ids given as comma-separated query parameters"
+    )
+    @APIResponses({
+        @APIResponse(
+            responseCode = "200",
+            description = "Lookup completed",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ApiBatch.class))
+        ),
+        @APIResponse(
+            responseCode = "400",
+            description = "Too many ids"
+        )
+    })
+    @Authenticated
+    public Uni<ApiBatch> lookup(
+            @Context UriInfo uriInfo,
+            @Parameter(description = "Album ids", example = "tdl:12345,tdl:67890")
+            @QueryParam("albums") List<String> albums,
+            @Parameter(description = "Artist ids")
+            @QueryParam("artists") List<String> artists,
+            @Parameter(description = "Track ids")
+            @QueryParam("tracks") List<String> tracks) {
+        return lookup(getBaseUrl(uriInfo), split(albums), split(artists), split(tracks));
+    }
+
+    private Uni<ApiBatch> lookup(String baseUrl, List<String> albums, List<String> artists, List<String> tracks) {
+        return batchService.lookup(albums, artists, tracks)
+            .onItem().transform(result -> new ApiBatch(
+                map(result.albums(), album -> detail(baseUrl, album)),
+                map(result.artists(), artist -> detail(baseUrl, artist)),
+                map(result.tracks(), track -> detail(baseUrl, track)),
+                result.missing()));
+    }
+
+    private List<String> split(List<String> values) {
+        return values == null ? List.of() : values.stream()
+            .flatMap(value -> Arrays.stream(value.split(",")))
+            .map(String::strip)
+            .toList();
+    }
+}
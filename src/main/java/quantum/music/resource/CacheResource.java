@@ -0,0 +1,67 @@
+package quantum.music.resource;
+
+import io.quarkus.security.Authenticated;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import quantum.music.api.ApiCacheStats;
+import quantum.music.service.CacheService;
+
+import java.util.List;
+
+/**
+ * REST resource exposing the statistics of server-side caches.
+ * <p>
+ * Operators use it to check hit ratios and the amount of data served by each cache.
+ * </p>
+ */
+@Path("/music/caches")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Caches", description = "Server-side cache statistics")
+public class CacheResource {
+
+    @Inject
+    CacheService cacheService;
+
+    /**
+     * Retrieves the statistics of every cache.
+     *
+     * @return a list of {@link ApiCacheStats}, one per cache
+     */
+    @GET
+    @Operation(
+        summary = "List cache statistics",
+        description = "Retrieves hit ratio, size and bytes served for every server-side cache"
+    )
+    @APIResponses({
+        @APIResponse(
+            responseCode = "200",
+            description = "Statistics retrieved successfully",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ApiCacheStats.class))
+        ),
+        @APIResponse(
+            responseCode = "500",
+            description = "Internal server error"
+        )
+    })
+    @Authenticated
+    public List<ApiCacheStats> list() {
+        return cacheService.getStats().stream().map(stats -> new ApiCacheStats(
+                stats.name(),
+                stats.hits(),
+                stats.misses(),
+                stats.hitRatio(),
+                stats.entries(),
+                stats.size(),
+                stats.bytesServed()
+        )).toList();
+    }
+}
@@ -0,0 +1,40 @@
+package quantum.music.resource;
+
+import jakarta.ws.rs.BadRequestException;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Parses the {@code expand} query parameter, naming the related resources to inline in a response.
+ */
+final class Expand {
+
+    private Expand() {
+    }
+
+    /**
+     * Parses a comma-separated list of expansions.
+     *
+     * @param expand value of the parameter, may be null
+     * @param supported expansions the endpoint supports
+     * @return the requested expansions
+     * @throws BadRequestException when an expansion is not supported by the endpoint
+     */
+    static Set<String> parse(String expand, Set<String> supported) {
+        if (expand == null || expand.isBlank()) {
+            return Set.of();
+        }
+        Set<String> requested = Arrays.stream(expand.split(","))
+            .map(String::strip)
+            .filter(value -> !value.isEmpty())
+            .collect(Collectors.toSet());
+        for (String value : requested) {
+            if (!supported.contains(value)) {
+                throw new BadRequestException(STR."Unsupported expand: \{value}, expected one of \{supported}");
+            }
+        }
+        return requested;
+    }
+}
@@ -1,5 +1,6 @@
 package quantum.music.resource;
 
+import jakarta.inject.Inject;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
@@ -10,6 +11,10 @@ import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
+import quantum.music.api.ApiProviderHealth;
+import quantum.music.service.ProviderService;
+
+import java.util.List;
 
 /**
  * Resource providing health check and version information endpoints.
@@ -22,6 +27,7 @@ import jakarta.ws.rs.core.MediaType;
  * <p>
  * The health endpoint returns a simple status string, while the version endpoint
  * returns the application version configured via microprofile config properties.
+ * The provider health endpoint details the state of each music provider's upstream.
  * </p>
  */
 @Path("/")
@@ -33,6 +39,9 @@ public class HealthResource {
     @ConfigProperty(name = "app.version")
     String appVersion;
 
+    @Inject
+    ProviderService providerService;
+
     /**
      * Health check endpoint that verifies the application is running.
      * <p>
@@ -49,6 +58,40 @@ public class HealthResource {
         return "OK";
     }
 
+    /**
+     * Provider health endpoint.
+     * <p>
+     * Reports, for each music provider, whether its upstream is available. A provider is DOWN while
+     * the circuit guarding its upstream is open: requests fail fast and only cached metadata is served.
+     * The application itself stays healthy, so this endpoint always answers 200.
+     * </p>
+     *
+     * @return the health of each provider
+     */
+    @GET
+    @Path("/health/providers")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(
+        summary = "Get provider health",
+        description = "Returns the upstream availability and circuit breaker state of each music provider"
+    )
+    @APIResponses({
+        @APIResponse(
+            responseCode = "200",
+            description = "Provider health retrieved successfully",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ApiProviderHealth.class))
+        )
+    })
+    public List<ApiProviderHealth> providers() {
+        return providerService.getHealth().stream().map(health -> new ApiProviderHealth(
+                health.providerId(),
+                health.status().name(),
+                health.circuit(),
+                health.failureRate(),
+                (long) Math.ceil(health.retryAfter().toMillis() / 1000.0)
+        )).toList();
+    }
+
     /**
      * Version information endpoint.
      * <p>
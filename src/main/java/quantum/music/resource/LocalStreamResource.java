@@ -0,0 +1,78 @@
+package quantum.music.resource;
+
+import io.quarkus.resteasy.reactive.server.EndpointDisabled;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.jboss.resteasy.reactive.PathPart;
+import org.jboss.resteasy.reactive.RestResponse;
+import quantum.music.domain.providers.AudioContent;
+import quantum.music.domain.providers.ByteRange;
+import quantum.music.service.ProviderService;
+import quantum.music.service.StreamMetrics;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Zero-copy streaming of tracks from the local library.
+ * <p>
+ * Takes precedence over {@link TrackResource#stream} for local track ids: instead of reading the file
+ * through a {@code Multi<Buffer>}, the requested file region is handed to the socket with sendfile, so
+ * the audio bytes never go through the heap. Disabling {@code lcl.stream.sendfile} removes this endpoint
+ * at build time and local tracks are streamed reactively again.
+ * </p>
+ */
+@Path("/music")
+@EndpointDisabled(name = "lcl.stream.sendfile", stringValue = "false")
+public class LocalStreamResource {
+
+    @Inject
+    ProviderService providerService;
+
+    @Inject
+    StreamMetrics streamMetrics;
+
+    /**
+     * Streams a local track, or the requested byte range of it, straight from its file.
+     *
+     * @param id The unique identifier of the local track to stream
+     * @param codec The audio codec to use for streaming (files are served as stored)
+     * @param quality The quality level for the stream (files are served as stored)
+     * @param presentation The presentation mode (default: "FULL")
+     * @param range The HTTP Range header, if any (e.g., "bytes=0-1023")
+     * @return A Uni emitting the file region to send, with status 200 or 206 and the range headers
+     */
+    @GET
+    @Path("/tracks/{id: lcl:[^/]+}/stream")
+    @Produces("audio/flac")
+    @Operation(hidden = true)
+    public Uni<RestResponse<PathPart>> stream(
+            @PathParam("id") String id,
+            @QueryParam("codec") String codec,
+            @QueryParam("quality") String quality,
+            @QueryParam("presentation") @DefaultValue("FULL") String presentation,
+            @HeaderParam("Range") String range) {
+        long start = System.nanoTime();
+        ByteRange byteRange = ByteRange.parse(range);
+        return providerService.fromId(id)
+            .onItem().transformToUni(musicProvider -> musicProvider.streamTrackById(id, codec, quality, presentation, byteRange)
+                .onItem().invoke(content -> streamMetrics.sent(musicProvider.getProviderId(), quality, start, content.length())))
+            .onItem().transform(this::fileResponse);
+    }
+
+    private RestResponse<PathPart> fileResponse(AudioContent content) {
+        if (content.file() == null) {
+            throw new IllegalStateException("Local track content is not backed by a file");
+        }
+        RestResponse.ResponseBuilder<PathPart> response = RestResponse.ResponseBuilder.create(
+            content.partial() ? RestResponse.Status.PARTIAL_CONTENT : RestResponse.Status.OK,
+            new PathPart(content.file(), content.start(), content.length()));
+        Map<String, List<String>> headers = TrackResource.streamHeaders(content);
+        // Content-Length is set from the region when the file is sent
+        headers.remove("Content-Length");
+        headers.forEach((name, values) -> values.forEach(value -> response.header(name, value)));
+        return response.build();
+    }
+}
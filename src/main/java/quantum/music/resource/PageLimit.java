@@ -0,0 +1,29 @@
+package quantum.music.resource;
+
+import jakarta.ws.rs.BadRequestException;
+
+/**
+ * Validates the {@code limit} query parameter of paged responses.
+ */
+final class PageLimit {
+
+    /** Largest page served; larger limits are lowered to it. */
+    static final int MAX = 100;
+
+    private PageLimit() {
+    }
+
+    /**
+     * Checks a requested page size.
+     *
+     * @param limit value of the parameter
+     * @return the limit, lowered to {@link #MAX}
+     * @throws BadRequestException when the limit is below 1
+     */
+    static int of(int limit) {
+        if (limit < 1) {
+            throw new BadRequestException(STR."Invalid limit: \{limit}, expected at least 1");
+        }
+        return Math.min(limit, MAX);
+    }
+}
@@ -1,6 +1,7 @@
 package quantum.music.resource;
 
 import io.quarkus.security.Authenticated;
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
@@ -14,23 +15,42 @@ import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.jboss.resteasy.reactive.RestMediaType;
+import org.jboss.resteasy.reactive.RestStreamElementType;
 import quantum.music.api.ApiAlbum;
+import quantum.music.api.ApiSearchEvent;
 import quantum.music.api.ListResponse;
 import quantum.music.api.Response;
+import quantum.music.domain.PagedResponse;
+import quantum.music.domain.providers.Album;
 import quantum.music.mappers.Mapper;
+import quantum.music.providers.MusicProvider;
+import quantum.music.service.FederatedSearchService;
+import quantum.music.service.FederatedSearchService.SourceResults;
 import quantum.music.service.ProviderService;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Path("/music")
 @Produces(MediaType.APPLICATION_JSON)
 @Tag(name = "Search", description = "Search for albums across music sources")
 public class SearchResource extends Mapper {
 
+    private static final String ALL_SOURCES = "all";
+
     /**
      * Service for interacting with music provider implementations.
      */
     @Inject
     ProviderService providerService;
 
+    /**
+     * Service searching all music providers at once.
+     */
+    @Inject
+    FederatedSearchService federatedSearchService;
+
     /**
      * Searches for albums matching the specified query across music sources.
      * <p>
@@ -43,12 +63,18 @@ public class SearchResource extends Mapper {
      * The search is performed reactively using Mutiny's Uni to ensure non-blocking
      * operation and optimal resource utilization.
      * </p>
+     * <p>
+     * The {@code all} source searches every provider in parallel and merges their results,
+     * leaving out providers that fail or time out.
+     * </p>
      *
      * @param uriInfo  The URI context information used to construct resource links
-     * @param provider The source that provides the music catalog and streams (default: "tdl")
+     * @param provider The source that provides the music catalog and streams, or "all" (default: "tdl")
      * @param query    The search query string to match against album and artist names
      * @param offset   The starting position in the result set (default: 0)
      * @param limit    The maximum number of results to return (default: 10)
+     * @param cursor   Opaque cursor of the page to return; when present (empty for the first page),
+     *                 results are paged by cursor and {@code offset} is ignored
      * @return A Uni emitting an ItemsResponse containing the paginated search results
      */
     @GET
@@ -75,24 +101,128 @@ public class SearchResource extends Mapper {
     @Authenticated
     public Uni<ListResponse<ApiAlbum>> search(
             @Context UriInfo uriInfo,
-            @Parameter(description = "Source that provides the music catalog and streams", example = "tdl")
+            @Parameter(description = "Source that provides the music catalog and streams, or 'all' to search every source", example = "tdl")
             @QueryParam("source") @DefaultValue("tdl") String provider,
             @Parameter(description = "Search query string", required = true, example = "The Beatles")
             @QueryParam("q") String query,
             @Parameter(description = "Starting position in the result set", example = "0")
             @QueryParam("offset") @DefaultValue("0") int offset,
             @Parameter(description = "Maximum number of results to return", example = "10")
-            @QueryParam("limit") @DefaultValue("10") int limit
+            @QueryParam("limit") @DefaultValue("10") int limit,
+            @Parameter(description = "Cursor of the page to return, from the 'next' field of the previous page; empty for the first page")
+            @QueryParam("cursor") String cursor
     ) {
-        return providerService.getProvider(provider)
-            .onItem().transformToUni(musicProvider -> musicProvider.search(query, offset, limit))
+        Uni<PagedResponse<Album>> results = ALL_SOURCES.equals(provider)
+            ? (cursor != null ? federatedSearchService.search(query, cursor, limit) : federatedSearchService.search(query, offset, limit))
+            : providerService.getProvider(provider)
+                .onItem().transformToUni(musicProvider -> cursor != null
+                    ? musicProvider.search(query, cursor, limit)
+                    : musicProvider.search(query, offset, limit));
+        return results
             .onItem().transform(page -> {
                 String baseUrl = getBaseUrl(uriInfo);
                 return Response.list(map(page.items(), album -> link(baseUrl, album)))
                     .offset(page.offset())
                     .limit(page.limit())
                     .total(page.total())
+                    .hasMore(page.hasMore())
+                    .next(page.next())
                     .build();
                 });
     }
+
+    /**
+     * Streams the albums matching the specified query as newline-delimited JSON.
+     * <p>
+     * Each source is searched in parallel and its albums are written as soon as it answers, so the
+     * first results arrive without waiting for the slowest source. Albums already sent for another
+     * source are left out. The stream ends with a summary event holding the totals.
+     * </p>
+     *
+     * @param uriInfo  The URI context information used to construct resource links
+     * @param provider The source to search, or "all" (default: "all")
+     * @param query    The search query string to match against album and artist names
+     * @param limit    The maximum number of results to return per source (default: 10)
+     * @return A Multi emitting one event per source, followed by the summary
+     */
+    @GET
+    @Path("/search/stream")
+    @Produces(RestMediaType.APPLICATION_NDJSON)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    @Operation(
+        summary = "Stream search results",
+        description = "Streams the albums found by each source as soon as it answers, followed by a summary"
+    )
+    @APIResponses({
+        @APIResponse(
+            responseCode = "200",
+            description = "Search events, one JSON object per line",
+            content = @Content(mediaType = RestMediaType.APPLICATION_NDJSON, schema = @Schema(implementation = ApiSearchEvent.class))
+        ),
+        @APIResponse(
+            responseCode = "404",
+            description = "Unknown source"
+        )
+    })
+    @Authenticated
+    public Multi<ApiSearchEvent> streamSearch(
+            @Context UriInfo uriInfo,
+            @Parameter(description = "Source to search, or 'all' to search every source", example = "all")
+            @QueryParam("source") @DefaultValue(ALL_SOURCES) String provider,
+            @Parameter(description = "Search query string", required = true, example = "The Beatles")
+            @QueryParam("q") String query,
+            @Parameter(description = "Maximum number of results to return per source", example = "10")
+            @QueryParam("limit") @DefaultValue("10") int limit
+    ) {
+        return searchEvents(getBaseUrl(uriInfo), provider, query, limit);
+    }
+
+    /**
+     * Streams the albums matching the specified query as Server-Sent Events.
+     *
+     * @param uriInfo  The URI context information used to construct resource links
+     * @param provider The source to search, or "all" (default: "all")
+     * @param query    The search query string to match against album and artist names
+     * @param limit    The maximum number of results to return per source (default: 10)
+     * @return A Multi emitting one event per source, followed by the summary
+     * @see #streamSearch
+     */
+    @GET
+    @Path("/search/stream")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    @Operation(hidden = true)
+    @Authenticated
+    public Multi<ApiSearchEvent> streamSearchEvents(
+            @Context UriInfo uriInfo,
+            @QueryParam("source") @DefaultValue(ALL_SOURCES) String provider,
+            @QueryParam("q") String query,
+            @QueryParam("limit") @DefaultValue("10") int limit
+    ) {
+        return searchEvents(getBaseUrl(uriInfo), provider, query, limit);
+    }
+
+    private Multi<ApiSearchEvent> searchEvents(String baseUrl, String provider, String query, int limit) {
+        Uni<List<MusicProvider>> providers = ALL_SOURCES.equals(provider)
+            ? Uni.createFrom().item(providerService.getAllProviders())
+            : providerService.getProvider(provider).onItem().transform(List::of);
+        return providers.onItem().transformToMulti(sources -> Multi.createFrom().deferred(() -> {
+            List<SourceResults> answered = new ArrayList<>();
+            return federatedSearchService.stream(sources, query, limit)
+                .onItem().invoke(answered::add)
+                .onItem().transform(results -> ApiSearchEvent.albums(
+                    results.source(),
+                    map(results.page().items(), album -> link(baseUrl, album)),
+                    results.page().total(),
+                    results.page().hasMore()))
+                .onCompletion().continueWith(() -> List.of(summary(answered)));
+        }));
+    }
+
+    private ApiSearchEvent summary(List<SourceResults> answered) {
+        return ApiSearchEvent.summary(
+            answered.stream().mapToInt(results -> Math.max(0, results.page().total())).sum(),
+            answered.stream().filter(results -> !results.failed()).map(SourceResults::source).toList(),
+            answered.stream().filter(SourceResults::failed).map(SourceResults::source).toList());
+    }
 }
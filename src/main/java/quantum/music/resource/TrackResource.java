@@ -16,11 +16,18 @@ import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.jboss.resteasy.reactive.RestMulti;
 import org.jboss.resteasy.reactive.RestStreamElementType;
 import quantum.music.api.ApiTrack;
+import quantum.music.domain.providers.AudioContent;
+import quantum.music.domain.providers.ByteRange;
 import quantum.music.mappers.Mapper;
 import quantum.music.service.ProviderService;
+import quantum.music.service.StreamMetrics;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Path("/music")
 @Produces(MediaType.APPLICATION_JSON)
@@ -30,6 +37,9 @@ public class TrackResource extends Mapper {
     @Inject
     ProviderService providerService;
 
+    @Inject
+    StreamMetrics streamMetrics;
+
     /**
      * Retrieves detailed information about a specific track.
      * <p>
@@ -81,11 +91,21 @@ public class TrackResource extends Mapper {
      * The audio data is streamed reactively using Mutiny's Multi for efficient
      * transmission and low memory footprint.
      * </p>
+     * <p>
+     * A single byte range may be requested through the {@code Range} header, in which case
+     * providers able to seek answer with 206 (Partial Content) and the matching
+     * {@code Content-Range}, so players can seek without downloading the whole track.
+     * </p>
+     * <p>
+     * The served data is instrumented with {@link StreamMetrics}: time to first byte, bytes served,
+     * throughput, cancellations and stalls, by provider and quality.
+     * </p>
      *
      * @param id The unique identifier of the track to stream
      * @param codec The audio codec to use for streaming (e.g., "flac", "mp3")
      * @param quality The quality level for the stream (e.g., "HIGH", "LOW")
      * @param presentation The presentation mode (default: "FULL")
+     * @param range The HTTP Range header, if any (e.g., "bytes=0-1023")
      * @return A Multi streaming audio buffer chunks
      */
     @GET
@@ -94,7 +114,7 @@ public class TrackResource extends Mapper {
     @RestStreamElementType(MediaType.APPLICATION_OCTET_STREAM)
     @Operation(
         summary = "Stream track audio",
-        description = "Streams audio content for a specific track with support for different codecs and quality levels"
+        description = "Streams audio content for a specific track with support for different codecs, quality levels and byte ranges"
     )
     @APIResponses({
         @APIResponse(
@@ -102,10 +122,19 @@ public class TrackResource extends Mapper {
             description = "Audio stream started successfully",
             content = @Content(mediaType = "audio/flac")
         ),
+        @APIResponse(
+            responseCode = "206",
+            description = "Requested byte range of the audio stream",
+            content = @Content(mediaType = "audio/flac")
+        ),
         @APIResponse(
             responseCode = "404",
             description = "Track not found"
         ),
+        @APIResponse(
+            responseCode = "416",
+            description = "Requested range not satisfiable"
+        ),
         @APIResponse(
             responseCode = "500",
             description = "Internal server error"
@@ -119,8 +148,42 @@ public class TrackResource extends Mapper {
             @Parameter(description = "Audio quality level", example = "HIGH")
             @QueryParam("quality") String quality,
             @Parameter(description = "Presentation mode", example = "FULL")
-            @QueryParam("presentation") @DefaultValue("FULL") String presentation) {
-        return providerService.fromId(id)
-            .onItem().transformToMulti(musicProvider -> musicProvider.streamTrackById(id, codec, quality, presentation));
+            @QueryParam("presentation") @DefaultValue("FULL") String presentation,
+            @Parameter(description = "Byte range to stream", example = "bytes=0-1023")
+            @HeaderParam("Range") String range) {
+        long start = System.nanoTime();
+        ByteRange byteRange = ByteRange.parse(range);
+        return RestMulti.fromUniResponse(
+            providerService.fromId(id)
+                .onItem().transformToUni(musicProvider -> musicProvider.streamTrackById(id, codec, quality, presentation, byteRange)
+                    .onItem().transform(content -> content.withData(
+                        streamMetrics.served(musicProvider.getProviderId(), quality, start, content.data())))),
+            AudioContent::data,
+            TrackResource::streamHeaders,
+            content -> content.partial() ? 206 : 200
+        );
+    }
+
+    /**
+     * Builds the range-related response headers for an audio stream.
+     *
+     * @param content audio content returned by the provider
+     * @return headers advertising range support, length and, for partial content, the served range
+     */
+    static Map<String, List<String>> streamHeaders(AudioContent content) {
+        Map<String, List<String>> headers = new HashMap<>();
+        if (content.total() < 0 && !content.partial()) {
+            headers.put("Accept-Ranges", List.of("none"));
+            return headers;
+        }
+        headers.put("Accept-Ranges", List.of("bytes"));
+        if (content.length() >= 0) {
+            headers.put("Content-Length", List.of(Long.toString(content.length())));
+        }
+        if (content.partial()) {
+            String total = content.total() < 0 ? "*" : Long.toString(content.total());
+            headers.put("Content-Range", List.of(STR."bytes \{content.start()}-\{content.end()}/\{total}"));
+        }
+        return headers;
     }
 }
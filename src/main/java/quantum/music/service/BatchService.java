@@ -0,0 +1,111 @@
+package quantum.music.service;
+
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import quantum.music.domain.BatchResult;
+import quantum.music.domain.providers.Album;
+import quantum.music.domain.providers.Artist;
+import quantum.music.domain.providers.TrackDetail;
+import quantum.music.providers.MusicProvider;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves albums, artists and tracks of several providers in one call.
+ *
+ * <p>Requested ids are grouped by provider prefix and every group is resolved concurrently through the
+ * batch lookups of its provider, which fetch a whole group in one query where the provider allows it.</p>
+ */
+@ApplicationScoped
+public class BatchService {
+
+    private static final Logger LOG = Logger.getLogger(BatchService.class);
+
+    @Inject
+    ProviderService providerService;
+
+    @ConfigProperty(name = "batch.max-ids", defaultValue = "100")
+    int maxIds;
+
+    /**
+     * Resolves the given ids.
+     *
+     * @param albumIds ids of the albums to resolve, may be null
+     * @param artistIds ids of the artists to resolve, may be null
+     * @param trackIds ids of the tracks to resolve, may be null
+     * @return a Uni emitting the resources found, in the order of the ids, and the ids not found
+     * @throws BadRequestException when more than {@code batch.max-ids} ids are requested
+     */
+    public Uni<BatchResult> lookup(List<String> albumIds, List<String> artistIds, List<String> trackIds) {
+        List<String> albums = distinct(albumIds);
+        List<String> artists = distinct(artistIds);
+        List<String> tracks = distinct(trackIds);
+        int requested = albums.size() + artists.size() + tracks.size();
+        if (requested > maxIds) {
+            return Uni.createFrom().failure(new BadRequestException(STR."Too many ids: \{requested}, at most \{maxIds} per batch"));
+        }
+        LOG.debugf("Batch lookup: %d albums, %d artists, %d tracks", albums.size(), artists.size(), tracks.size());
+        return Uni.combine().all().unis(
+                lookup(albums, MusicProvider::getAlbumsByIds, Album::id),
+                lookup(artists, MusicProvider::getArtistsByIds, Artist::id),
+                lookup(tracks, MusicProvider::getTracksByIds, track -> track.track().id()))
+            .asTuple()
+            .onItem().transform(found -> {
+                List<String> missing = new ArrayList<>();
+                missing.addAll(missing(albums, found.getItem1(), Album::id));
+                missing.addAll(missing(artists, found.getItem2(), Artist::id));
+                missing.addAll(missing(tracks, found.getItem3(), track -> track.track().id()));
+                return new BatchResult(found.getItem1(), found.getItem2(), found.getItem3(), missing);
+            });
+    }
+
+    /**
+     * Resolves ids of one resource type, one provider group at a time but all groups concurrently,
+     * and restores the order of the ids.
+     */
+    private <T> Uni<List<T>> lookup(List<String> ids, BiFunction<MusicProvider, List<String>, Uni<List<T>>> batchLookup,
+                                    Function<T, String> idOf) {
+        if (ids.isEmpty()) {
+            return Uni.createFrom().item(List.of());
+        }
+        Map<String, List<String>> byProvider = ids.stream()
+            .collect(Collectors.groupingBy(BatchService::providerId, LinkedHashMap::new, Collectors.toList()));
+        List<Uni<List<T>>> lookups = byProvider.entrySet().stream()
+            .map(group -> providerService.getProvider(group.getKey())
+                .onItem().transformToUni(provider -> batchLookup.apply(provider, group.getValue()))
+                .onFailure(MusicProvider::isUnknownId).recoverWithItem(List.of()))
+            .toList();
+        return Uni.join().all(lookups).andFailFast()
+            .onItem().transform(groups -> {
+                Map<String, T> found = new HashMap<>();
+                groups.forEach(group -> group.forEach(item -> found.put(idOf.apply(item), item)));
+                return ids.stream().filter(found::containsKey).map(found::get).toList();
+            });
+    }
+
+    private static <T> List<String> missing(List<String> ids, List<T> found, Function<T, String> idOf) {
+        Set<String> foundIds = found.stream().map(idOf).collect(Collectors.toSet());
+        return ids.stream().filter(id -> !foundIds.contains(id)).toList();
+    }
+
+    private static List<String> distinct(List<String> ids) {
+        return ids == null ? List.of() : ids.stream().filter(id -> id != null && !id.isBlank()).distinct().toList();
+    }
+
+    private static String providerId(String resourceId) {
+        int separator = resourceId.indexOf(':');
+        return separator < 0 ? "" : resourceId.substring(0, separator);
+    }
+}
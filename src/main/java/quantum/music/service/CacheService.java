@@ -0,0 +1,34 @@
+package quantum.music.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import quantum.music.domain.CacheStats;
+import quantum.music.providers.MonitoredCache;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Service collecting the statistics of every registered {@link MonitoredCache}.
+ */
+@ApplicationScoped
+public class CacheService {
+
+    @Inject
+    @Any
+    Instance<MonitoredCache> caches;
+
+    /**
+     * Returns the statistics of all caches, sorted by name.
+     *
+     * @return the list of cache statistics
+     */
+    public List<CacheStats> getStats() {
+        return caches.stream()
+                .flatMap(cache -> cache.stats().stream())
+                .sorted(Comparator.comparing(CacheStats::name))
+                .toList();
+    }
+}
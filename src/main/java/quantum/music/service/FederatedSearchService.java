@@ -0,0 +1,220 @@
+package quantum.music.service;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import quantum.music.domain.PagedResponse;
+import quantum.music.domain.providers.Album;
+import quantum.music.providers.MusicProvider;
+import quantum.music.providers.PageCursor;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Searches every registered music provider at once.
+ *
+ * <p>The query is sent to all providers in parallel, each bounded by its own timeout. A provider that
+ * fails or does not answer in time contributes no results instead of failing the search, so callers get
+ * whatever the other providers found. Results are interleaved by rank, one from each provider in turn,
+ * and an album found by several providers is only kept the first time, matched on its UPC or on its
+ * normalized title and artist.</p>
+ *
+ * <p>Providers cannot page through merged results, so every page is cut from the first results of each
+ * provider up to its end. To bound that cost, federated pages only reach {@code search.federated.max-depth}
+ * results deep.</p>
+ *
+ * <p>Results can also be streamed as each provider answers, so the fastest provider is not held back
+ * by the slowest one.</p>
+ */
+@ApplicationScoped
+public class FederatedSearchService {
+
+    private static final Logger LOG = Logger.getLogger(FederatedSearchService.class);
+
+    @Inject
+    ProviderService providerService;
+
+    @ConfigProperty(name = "search.federated.timeout", defaultValue = "PT3S")
+    Duration timeout;
+
+    @ConfigProperty(name = "search.federated.max-depth", defaultValue = "200")
+    int maxDepth;
+
+    /**
+     * Searches all providers and returns one page of the merged results.
+     *
+     * @param q search query
+     * @param offset zero-based position of the page in the merged results
+     * @param limit maximum number of albums to return
+     * @return a Uni emitting the merged page; the total is the sum of the provider totals, before deduplication
+     * @throws BadRequestException when the offset is beyond {@code search.federated.max-depth}
+     */
+    public Uni<PagedResponse<Album>> search(String q, int offset, int limit) {
+        if (offset >= maxDepth) {
+            return Uni.createFrom().failure(new BadRequestException(
+                STR."Offset \{offset} is beyond the \{maxDepth} results reachable when searching all sources"));
+        }
+        int window = window(offset, limit, maxDepth);
+        List<MusicProvider> providers = providerService.getAllProviders();
+        List<Uni<SourceResults>> searches = providers.stream()
+            .map(provider -> search(provider, q, window))
+            .toList();
+        return Uni.join().all(searches).andFailFast()
+            .onItem().transform(results -> page(results.stream().map(SourceResults::page).toList(), offset, limit, maxDepth));
+    }
+
+    /**
+     * Searches the given providers in parallel and emits the results of each one as soon as it answers.
+     * Albums already emitted for a faster provider are left out of the results of the slower ones.
+     *
+     * @param providers providers to search
+     * @param q search query
+     * @param limit maximum number of albums to fetch from each provider
+     * @return a Multi emitting one item per provider, in the order they answer
+     */
+    public Multi<SourceResults> stream(List<MusicProvider> providers, String q, int limit) {
+        return Multi.createFrom().deferred(() -> {
+            Set<String> seen = new HashSet<>();
+            List<Multi<SourceResults>> searches = providers.stream()
+                .map(provider -> search(provider, q, limit).toMulti())
+                .toList();
+            return Multi.createBy().merging().streams(searches)
+                .onItem().transform(results -> results.withItems(distinct(results.page().items(), seen)));
+        });
+    }
+
+    /**
+     * Searches all providers, paging by cursor.
+     *
+     * @param q search query
+     * @param cursor opaque cursor of the page to return, empty for the first page
+     * @param limit maximum number of albums to return
+     * @return a Uni emitting the merged page, pointing at the next one
+     */
+    public Uni<PagedResponse<Album>> search(String q, String cursor, int limit) {
+        int offset = PageCursor.offset(cursor);
+        return search(q, offset, limit).onItem().transform(page -> page.withNext(
+            page.hasMore() && !page.items().isEmpty() ? PageCursor.ofOffset(offset + page.items().size()) : null));
+    }
+
+    /**
+     * Fetches the first {@code window} results of a provider, falling back to no results on failure or timeout.
+     */
+    private Uni<SourceResults> search(MusicProvider provider, String q, int window) {
+        return provider.search(q, 0, window)
+            .ifNoItem().after(timeout).fail()
+            .onItem().transform(page -> new SourceResults(provider.getProviderId(), page, false))
+            .onFailure().recoverWithItem(failure -> {
+                LOG.warnf("Federated search skipped provider %s: %s", provider.getProviderId(), failure.toString());
+                return new SourceResults(provider.getProviderId(), new PagedResponse<>(List.of(), 0, window, 0, false), true);
+            });
+    }
+
+    /**
+     * Number of results to fetch from each provider for a page, never beyond the maximum depth.
+     */
+    static int window(int offset, int limit, int maxDepth) {
+        return (int) Math.max(0, Math.min((long) offset + limit, maxDepth));
+    }
+
+    /**
+     * Cuts a page out of the merged provider results fetched for it.
+     * <p>
+     * More results exist when the merged results go past the page, or when a provider filled the whole
+     * window and reports more, as long as the page ends before the maximum depth. A provider returning
+     * fewer results than asked while reporting more, e.g. because of a server-side page cap, cannot
+     * contribute further results.
+     * </p>
+     */
+    static PagedResponse<Album> page(List<PagedResponse<Album>> pages, int offset, int limit, int maxDepth) {
+        int window = window(offset, limit, maxDepth);
+        List<Album> merged = merge(pages);
+        int total = pages.stream().mapToInt(PagedResponse::total).filter(count -> count > 0).sum();
+        int end = Math.min(merged.size(), window);
+        boolean hasMore = window < maxDepth && (merged.size() > window
+            || pages.stream().anyMatch(page -> page.hasMore() && page.items().size() >= window));
+        List<Album> items = offset >= end ? List.of() : merged.subList(offset, end);
+        return new PagedResponse<>(List.copyOf(items), offset, limit, total, hasMore);
+    }
+
+    /**
+     * Interleaves the results of each provider by rank, dropping albums already taken from another provider.
+     */
+    static List<Album> merge(List<PagedResponse<Album>> pages) {
+        List<Album> merged = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        int rounds = pages.stream().mapToInt(page -> page.items().size()).max().orElse(0);
+        for (int rank = 0; rank < rounds; rank++) {
+            for (PagedResponse<Album> page : pages) {
+                if (rank >= page.items().size()) {
+                    continue;
+                }
+                merged.addAll(distinct(List.of(page.items().get(rank)), seen));
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Keeps the albums whose identity keys were not seen yet, recording the keys of all of them.
+     */
+    static List<Album> distinct(List<Album> albums, Set<String> seen) {
+        List<Album> kept = new ArrayList<>(albums.size());
+        for (Album album : albums) {
+            List<String> keys = identityKeys(album);
+            if (keys.stream().noneMatch(seen::contains)) {
+                kept.add(album);
+            }
+            seen.addAll(keys);
+        }
+        return kept;
+    }
+
+    /**
+     * Keys under which an album is considered the same release: its UPC when known, and its
+     * normalized title and artist name.
+     */
+    private static List<String> identityKeys(Album album) {
+        List<String> keys = new ArrayList<>(2);
+        if (album.upc() != null && !album.upc().isBlank()) {
+            keys.add(STR."upc:\{album.upc().strip()}");
+        }
+        String artist = album.artist() == null ? "" : normalize(album.artist().name());
+        keys.add(STR."title:\{normalize(album.title())}|\{artist}");
+        return keys;
+    }
+
+    private static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return Normalizer.normalize(value, Normalizer.Form.NFD)
+            .replaceAll("\\p{M}", "")
+            .toLowerCase(Locale.ROOT)
+            .replaceAll("[^\\p{Alnum}]+", "");
+    }
+
+    /**
+     * Results of one provider in a federated search.
+     *
+     * @param source id of the provider
+     * @param page albums found by the provider
+     * @param failed whether the provider failed or timed out, in which case the page is empty
+     */
+    public record SourceResults(String source, PagedResponse<Album> page, boolean failed) {
+
+        SourceResults withItems(List<Album> items) {
+            return new SourceResults(source, new PagedResponse<>(items, page.offset(), page.limit(), page.total(), page.hasMore()), failed);
+        }
+    }
+}
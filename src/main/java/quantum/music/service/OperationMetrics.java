@@ -0,0 +1,89 @@
+package quantum.music.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Latency, outcome and concurrency of reactive operations, such as provider lookups or upstream calls.
+ *
+ * <p>Each timed operation records a histogram timer tagged with its outcome ({@code success},
+ * {@code failure} or {@code cancelled}) and the simple name of the failure type, so error rates can be
+ * broken down by exception, and a {@code .in.flight} gauge of the calls currently running.</p>
+ */
+@ApplicationScoped
+public class OperationMetrics {
+
+    @Inject
+    MeterRegistry registry;
+
+    private final Map<Key, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Times an operation from subscription to termination.
+     *
+     * @param metric name of the timer
+     * @param tags tags identifying the operation, e.g. provider and operation name
+     * @param call supplies the operation
+     * @param <T> the type of the result
+     * @return the operation, recording its latency and outcome when it terminates
+     */
+    public <T> Uni<T> time(String metric, Tags tags, Supplier<Uni<T>> call) {
+        return Uni.createFrom().deferred(() -> {
+            AtomicInteger running = inFlight(metric, tags);
+            running.incrementAndGet();
+            long start = System.nanoTime();
+            return call.get().onTermination().invoke((item, failure, cancelled) -> {
+                running.decrementAndGet();
+                record(metric, tags, failure, cancelled, System.nanoTime() - start);
+            });
+        });
+    }
+
+    /**
+     * Records the latency and outcome of an operation that was timed elsewhere.
+     *
+     * @param metric name of the timer
+     * @param tags tags identifying the operation
+     * @param failure failure of the operation, or null when it succeeded or was cancelled
+     * @param cancelled whether the operation was cancelled
+     * @param nanos latency in nanoseconds
+     */
+    public void record(String metric, Tags tags, Throwable failure, boolean cancelled, long nanos) {
+        String outcome = cancelled ? "cancelled" : failure != null ? "failure" : "success";
+        Timer.builder(metric)
+            .tags(tags)
+            .tag("outcome", outcome)
+            .tag("exception", failure == null ? "none" : failure.getClass().getSimpleName())
+            .publishPercentileHistogram()
+            .minimumExpectedValue(Duration.ofMillis(1))
+            .maximumExpectedValue(Duration.ofSeconds(30))
+            .register(registry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counter of the operations currently running, registered as a gauge on first use.
+     *
+     * @param metric name of the timer, suffixed with {@code .in.flight} for the gauge
+     * @param tags tags identifying the operation
+     * @return the counter to increment when an operation starts and decrement when it ends
+     */
+    public AtomicInteger inFlight(String metric, Tags tags) {
+        return inFlight.computeIfAbsent(new Key(metric, tags),
+            key -> registry.gauge(STR."\{metric}.in.flight", tags, new AtomicInteger()));
+    }
+
+    private record Key(String metric, Tags tags) {
+    }
+}
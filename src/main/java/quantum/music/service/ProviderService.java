@@ -3,10 +3,13 @@ package quantum.music.service;
 import io.smallrye.mutiny.Uni;
 import io.smallrye.mutiny.tuples.Tuple3;
 import jakarta.enterprise.context.ApplicationScoped;
+import quantum.music.domain.ProviderHealth;
+import quantum.music.providers.InstrumentedMusicProvider;
 import quantum.music.providers.MusicProvider;
 import quantum.music.providers.lcl.LclMusicProvider;
 import quantum.music.providers.tdl.TdlMusicProvider;
 
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,14 +28,16 @@ public class ProviderService {
     private final Map<String, MusicProvider> providers = new HashMap<>();
 
     /**
-     * Constructs the ProviderService and registers available music providers.
+     * Constructs the ProviderService and registers available music providers, each wrapped in an
+     * {@link InstrumentedMusicProvider} so that every operation is measured.
      *
      * @param tdlMusicProvider the TDL music provider instance
      * @param lclMusicProvider the LCL music provider instance
+     * @param metrics records the latency and outcome of provider operations
      */
-    public ProviderService(TdlMusicProvider tdlMusicProvider, LclMusicProvider lclMusicProvider) {
-        providers.put(tdlMusicProvider.getProviderId(), tdlMusicProvider);
-        providers.put(lclMusicProvider.getProviderId(), lclMusicProvider);
+    public ProviderService(TdlMusicProvider tdlMusicProvider, LclMusicProvider lclMusicProvider, OperationMetrics metrics) {
+        providers.put(tdlMusicProvider.getProviderId(), new InstrumentedMusicProvider(tdlMusicProvider, metrics));
+        providers.put(lclMusicProvider.getProviderId(), new InstrumentedMusicProvider(lclMusicProvider, metrics));
     }
 
     /**
@@ -69,6 +74,26 @@ public class ProviderService {
         return Uni.createFrom().item(provider);
     }
 
+    /**
+     * Retrieves all registered music providers, ordered by provider ID.
+     *
+     * @return the registered MusicProvider instances
+     */
+    public List<MusicProvider> getAllProviders() {
+        return providers.values().stream()
+                .sorted(Comparator.comparing(MusicProvider::getProviderId))
+                .toList();
+    }
+
+    /**
+     * Retrieves the current health of every registered provider, ordered by provider ID.
+     *
+     * @return the health of each provider
+     */
+    public List<ProviderHealth> getHealth() {
+        return getAllProviders().stream().map(MusicProvider::getHealth).toList();
+    }
+
     public List<Tuple3<String,String, List<String>>> getProviders() {
         return providers.values().stream()
                 .map(provider -> Tuple3.of(provider.getProviderId(), provider.getProviderName(), provider.getCapabilities()))
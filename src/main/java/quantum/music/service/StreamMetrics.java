@@ -0,0 +1,231 @@
+package quantum.music.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.smallrye.mutiny.Multi;
+import io.vertx.mutiny.core.buffer.Buffer;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import quantum.music.providers.tdl.stream.StreamMeters;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer instrumentation of audio streams, tagged by provider and quality.
+ *
+ * <p>The serving side records the time to the first byte sent to the client, the bytes served, the
+ * throughput of each stream, client cancellations and stalls. A stall is a wait longer than
+ * {@code stream.metrics.stall-threshold}, either for the client to request more data (cause
+ * {@code client}, backpressure) or for the upstream to deliver data that was requested (cause
+ * {@code upstream}). The upstream side, through {@link StreamMeters}, records the response time of
+ * upstream requests, the fetch time of each segment and the decryption time and volume.</p>
+ *
+ * <p>Latencies are published as histograms, so percentiles can be computed across nodes from the
+ * Prometheus export.</p>
+ */
+@ApplicationScoped
+public class StreamMetrics {
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "stream.metrics.stall-threshold", defaultValue = "PT1S")
+    Duration stallThreshold;
+
+    /**
+     * Meters of the upstream side of a stream.
+     *
+     * @param provider provider id
+     * @param quality requested quality
+     * @return meters tagged with the provider and quality
+     */
+    public StreamMeters upstream(String provider, String quality) {
+        Tags tags = tags(provider, quality);
+        return new StreamMeters(
+            latency("qmusic.stream.upstream.connect", "Time from an upstream request to its response headers", tags),
+            latency("qmusic.stream.segment.fetch", "Time to fetch a whole segment of a segmented stream", tags),
+            Timer.builder("qmusic.stream.decrypt")
+                .description("Time spent decrypting stream chunks")
+                .tags(tags)
+                .register(registry),
+            Counter.builder("qmusic.stream.decrypt.bytes")
+                .description("Bytes decrypted")
+                .baseUnit("bytes")
+                .tags(tags)
+                .register(registry));
+    }
+
+    /**
+     * Instruments the data of a stream served to a client.
+     *
+     * @param provider provider id
+     * @param quality requested quality
+     * @param startNanos {@link System#nanoTime()} when the request was received
+     * @param data the served data
+     * @return the same data, recording the serving metrics
+     */
+    public Multi<Buffer> served(String provider, String quality, long startNanos, Multi<Buffer> data) {
+        Tags tags = tags(provider, quality);
+        return Multi.createFrom().deferred(() -> {
+            Probe probe = new Probe(tags, startNanos);
+            return data
+                .onRequest().invoke(probe::requested)
+                .onItem().invoke(probe::item)
+                .onTermination().invoke((failure, cancelled) -> probe.terminated(cancelled));
+        });
+    }
+
+    /**
+     * Records a stream handed to the socket in one go, e.g. with sendfile, whose chunks cannot be observed.
+     * The time to the first byte is approximated by the time to the response.
+     *
+     * @param provider provider id
+     * @param quality requested quality
+     * @param startNanos {@link System#nanoTime()} when the request was received
+     * @param bytes number of bytes sent
+     */
+    public void sent(String provider, String quality, long startNanos, long bytes) {
+        Tags tags = tags(provider, quality);
+        timeToFirstByte(tags).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        if (bytes > 0) {
+            bytesServed(tags).increment(bytes);
+        }
+    }
+
+    /**
+     * Normalizes a requested quality into a tag value, so arbitrary query values cannot create new series.
+     *
+     * @param quality requested quality
+     * @return the upper-cased quality, DEFAULT when absent, OTHER when malformed
+     */
+    static String quality(String quality) {
+        if (quality == null || quality.isBlank()) {
+            return "DEFAULT";
+        }
+        String normalized = quality.strip().toUpperCase(Locale.ROOT);
+        return normalized.matches("[A-Z0-9_]{1,32}") ? normalized : "OTHER";
+    }
+
+    private Tags tags(String provider, String quality) {
+        return Tags.of("provider", provider, "quality", quality(quality));
+    }
+
+    private Timer latency(String name, String description, Tags tags) {
+        return Timer.builder(name)
+            .description(description)
+            .tags(tags)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(Duration.ofMillis(1))
+            .maximumExpectedValue(Duration.ofSeconds(30))
+            .register(registry);
+    }
+
+    private Timer timeToFirstByte(Tags tags) {
+        return latency("qmusic.stream.ttfb", "Time from the stream request to the first byte served", tags);
+    }
+
+    private Counter bytesServed(Tags tags) {
+        return Counter.builder("qmusic.stream.bytes.served")
+            .description("Bytes of audio served to clients")
+            .baseUnit("bytes")
+            .tags(tags)
+            .register(registry);
+    }
+
+    private Counter stalls(Tags tags, String cause) {
+        return Counter.builder("qmusic.stream.stalls")
+            .description("Waits longer than the stall threshold while serving a stream")
+            .tags(tags)
+            .tag("cause", cause)
+            .register(registry);
+    }
+
+    /**
+     * Observes the signals of one served stream. Meters are resolved once per stream, not per chunk.
+     */
+    private final class Probe {
+
+        private final Timer ttfb;
+        private final Counter bytes;
+        private final Counter clientStalls;
+        private final Counter upstreamStalls;
+        private final Counter cancellations;
+        private final DistributionSummary throughput;
+        private final long startNanos;
+        private final long stallNanos = stallThreshold.toNanos();
+
+        private long demand;
+        private long served;
+        private long firstItemAt;
+        /** Since when the stream waits for the upstream, 0 while there is no outstanding demand. */
+        private long waitingUpstreamSince;
+        /** Since when the stream waits for the client to request more, 0 while there is demand. */
+        private long waitingClientSince;
+
+        private Probe(Tags tags, long startNanos) {
+            this.ttfb = timeToFirstByte(tags);
+            this.bytes = bytesServed(tags);
+            this.clientStalls = stalls(tags, "client");
+            this.upstreamStalls = stalls(tags, "upstream");
+            this.cancellations = Counter.builder("qmusic.stream.cancelled")
+                .description("Streams cancelled before their end, usually by the client going away")
+                .tags(tags)
+                .register(registry);
+            this.throughput = DistributionSummary.builder("qmusic.stream.throughput")
+                .description("Average throughput of each stream from its first byte")
+                .baseUnit("bytes per second")
+                .tags(tags)
+                .register(registry);
+            this.startNanos = startNanos;
+        }
+
+        private synchronized void requested(long n) {
+            long now = System.nanoTime();
+            if (waitingClientSince != 0 && now - waitingClientSince >= stallNanos) {
+                clientStalls.increment();
+            }
+            waitingClientSince = 0;
+            if (demand == 0) {
+                waitingUpstreamSince = now;
+            }
+            demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+        }
+
+        private synchronized void item(Buffer buffer) {
+            long now = System.nanoTime();
+            if (firstItemAt == 0) {
+                firstItemAt = now;
+                ttfb.record(now - startNanos, TimeUnit.NANOSECONDS);
+            } else if (waitingUpstreamSince != 0 && now - waitingUpstreamSince >= stallNanos) {
+                upstreamStalls.increment();
+            }
+            served += buffer.length();
+            bytes.increment(buffer.length());
+            if (demand != Long.MAX_VALUE) {
+                demand--;
+            }
+            if (demand > 0) {
+                waitingUpstreamSince = now;
+            } else {
+                waitingUpstreamSince = 0;
+                waitingClientSince = now;
+            }
+        }
+
+        private synchronized void terminated(boolean cancelled) {
+            if (cancelled) {
+                cancellations.increment();
+            }
+            long elapsed = System.nanoTime() - firstItemAt;
+            if (firstItemAt != 0 && served > 0 && elapsed > 0) {
+                throughput.record(served * 1e9 / elapsed);
+            }
+        }
+    }
+}
@@ -1,42 +1,92 @@
 package quantum.music.service;
 
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
 
 import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.core.Vertx;
+import jakarta.ws.rs.WebApplicationException;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.jboss.logging.Logger;
 import quantum.music.client.OAuth2Client;
+import quantum.music.client.SingleFlight;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.function.Supplier;
 
 @ApplicationScoped
 public class TokenService {
 
+    private static final Logger LOG = Logger.getLogger(TokenService.class);
+
+    /** Margin before the reported expiry after which a token is no longer handed out. */
+    private static final Duration EXPIRY_SKEW = Duration.ofSeconds(60);
+
     @Inject
     @RestClient
     OAuth2Client oAuth2Client;
 
+    @Inject
+    Vertx vertx;
+
     @ConfigProperty(name = "tdl.client.id")
     String clientId;
 
     @ConfigProperty(name = "tdl.refresh.token")
     String refreshToken;
 
-    private String currentToken;
-    private Instant expiresAt;
+    @ConfigProperty(name = "tdl.token.refresh-ahead", defaultValue = "PT5M")
+    Duration refreshAhead;
+
+    @ConfigProperty(name = "tdl.token.refresh-on-startup", defaultValue = "true")
+    boolean refreshOnStartup;
+
+    @ConfigProperty(name = "tdl.token.refresh-retry-delay", defaultValue = "PT30S")
+    Duration refreshRetryDelay;
+
+    private final SingleFlight singleFlight = new SingleFlight();
+    private volatile AccessToken currentToken;
+    private long refreshTimer = -1;
+
+    /**
+     * Fetches the first token at startup so that the first requests do not wait for it.
+     *
+     * @param event the startup event
+     */
+    void onStart(@Observes StartupEvent event) {
+        if (refreshOnStartup) {
+            refresh().subscribe().with(
+                token -> LOG.info("OAuth2 token obtained"),
+                failure -> LOG.warnf("Could not obtain OAuth2 token at startup: %s", failure.getMessage())
+            );
+        }
+    }
+
+    @PreDestroy
+    synchronized void cancelRefresh() {
+        if (refreshTimer >= 0) {
+            vertx.cancelTimer(refreshTimer);
+            refreshTimer = -1;
+        }
+    }
 
     /**
      * Retrieves the OAuth2 token. If the token is expired or not present, it will renew it.
+     * Concurrent callers waiting for a renewal share a single request to the authorization server.
      *
      * @return A Uni containing the access token.
      */
     public Uni<String> getToken() {
-        if (currentToken == null || Instant.now().isAfter(expiresAt)) {
-            return renewToken();
+        AccessToken token = currentToken;
+        if (token == null || !token.isValid()) {
+            return refresh();
         }
-        return Uni.createFrom().item(currentToken);
+        return Uni.createFrom().item(token.value());
     }
 
     /**
@@ -45,18 +95,57 @@ public class TokenService {
      * @return The cached token or null if it has expired.
      */
     public String getCachedToken() {
-        return currentToken;
+        AccessToken token = currentToken;
+        return token == null || !token.isValid() ? null : token.value();
+    }
+
+    /**
+     * Returns the latest token obtained, without checking its expiry.
+     * <p>
+     * Used to authorize requests made through {@link #withToken}: the token it resolved is either this
+     * one or was replaced by this one since, so requests are never sent without a token just because
+     * the resolved one entered the expiry margin in between.
+     * </p>
+     *
+     * @return The latest token, or null if none was obtained yet.
+     */
+    public String getLatestToken() {
+        AccessToken token = currentToken;
+        return token == null ? null : token.value();
     }
 
     /**
      * Executes a function that requires the OAuth2 token. The function will be called with the token.
+     * When the upstream rejects the token (401), the token is refreshed once and the function retried.
      *
      * @param fn A function that takes a token and returns a Uni.
      * @param <R> The type of the result.
      * @return A Uni containing the result of the function.
      */
     public <R> Uni<R> withToken(Supplier<Uni<R>> fn) {
-        return getToken().onItem().transformToUni(token -> fn.get());
+        return getToken().onItem().transformToUni(token -> fn.get()
+            .onFailure(this::isUnauthorized).recoverWithUni(failure -> {
+                LOG.warn("Access token rejected by upstream, forcing a refresh");
+                return forceRefresh(token).onItem().transformToUni(renewed -> fn.get());
+            }));
+    }
+
+    /**
+     * Refreshes the token unless another caller already replaced the rejected one.
+     */
+    private Uni<String> forceRefresh(String rejected) {
+        AccessToken token = currentToken;
+        if (token != null && !token.value().equals(rejected) && token.isValid()) {
+            return Uni.createFrom().item(token.value());
+        }
+        return refresh();
+    }
+
+    /**
+     * Renews the token, joining the renewal already in flight if there is one.
+     */
+    private Uni<String> refresh() {
+        return singleFlight.execute("token", this::renewToken);
     }
 
     /**
@@ -72,9 +161,63 @@ public class TokenService {
                 "r_usr+w_usr"
             )
             .onItem().transform(token -> {
-                this.currentToken = token.access_token();
-                this.expiresAt = Instant.now().plusSeconds(token.expires_in() - 60);
-                return currentToken;
+                Duration lifetime = Duration.ofSeconds(token.expires_in());
+                Instant expiresAt = Instant.now().plus(lifetime);
+                this.currentToken = new AccessToken(token.access_token(), expiresAt.minus(expirySkew(lifetime)));
+                scheduleRefresh(refreshDelay(lifetime));
+                return token.access_token();
             });
     }
-}
\ No newline at end of file
+
+    /**
+     * Margin before expiry after which a token is no longer handed out, at most a quarter of the
+     * lifetime of short-lived tokens so that they are valid at all, and before their background refresh.
+     */
+    static Duration expirySkew(Duration lifetime) {
+        Duration quarter = lifetime.dividedBy(4);
+        return EXPIRY_SKEW.compareTo(quarter) > 0 ? quarter : EXPIRY_SKEW;
+    }
+
+    /**
+     * Refreshes ahead of expiry, or halfway through the lifetime of short-lived tokens.
+     */
+    private Duration refreshDelay(Duration lifetime) {
+        Duration ahead = refreshAhead.compareTo(lifetime.dividedBy(2)) > 0 ? lifetime.dividedBy(2) : refreshAhead;
+        return lifetime.minus(ahead);
+    }
+
+    /**
+     * Schedules a background refresh, replacing any refresh already scheduled. A failed refresh is
+     * retried while the current token is still valid; after that, the next request refreshes it.
+     */
+    private synchronized void scheduleRefresh(Duration delay) {
+        cancelRefresh();
+        refreshTimer = vertx.setTimer(Math.max(1, delay.toMillis()), id -> refresh().subscribe().with(
+            token -> LOG.debug("OAuth2 token refreshed in background"),
+            failure -> {
+                LOG.warnf("Background OAuth2 token refresh failed: %s", failure.getMessage());
+                AccessToken token = currentToken;
+                if (token != null && token.isValid()) {
+                    scheduleRefresh(refreshRetryDelay);
+                }
+            }
+        ));
+    }
+
+    private boolean isUnauthorized(Throwable failure) {
+        return failure instanceof WebApplicationException e
+            && e.getResponse() != null
+            && e.getResponse().getStatus() == 401;
+    }
+
+    /**
+     * @param value the access token
+     * @param validUntil end of the time the token is handed out, its expiry minus the margin
+     */
+    private record AccessToken(String value, Instant validUntil) {
+
+        boolean isValid() {
+            return Instant.now().isBefore(validUntil);
+        }
+    }
+}
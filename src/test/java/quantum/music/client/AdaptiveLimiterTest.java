@@ -0,0 +1,166 @@
+package quantum.music.client;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import io.smallrye.mutiny.subscription.MultiEmitter;
+import io.smallrye.mutiny.subscription.UniEmitter;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AdaptiveLimiter Tests")
+class AdaptiveLimiterTest {
+
+    private final List<UniEmitter<? super String>> emitters = new ArrayList<>();
+
+    private Uni<String> call() {
+        return Uni.createFrom().emitter(emitters::add);
+    }
+
+    private AdaptiveLimiter limiter(int limit, int maxQueue) {
+        return new AdaptiveLimiter("test", limit, 1, 10, maxQueue, Duration.ofMinutes(1), Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("Calls over the limit should wait for a permit")
+    void testQueue() {
+        AdaptiveLimiter limiter = limiter(1, 1);
+        AtomicReference<String> second = new AtomicReference<>();
+        limiter.execute(this::call).subscribe().with(item -> {});
+        limiter.execute(this::call).subscribe().with(second::set);
+
+        assertEquals(1, emitters.size());
+        assertEquals(1, limiter.inFlight());
+        assertEquals(1, limiter.queued());
+
+        emitters.get(0).complete("first");
+
+        assertEquals(2, emitters.size());
+        assertEquals(1, limiter.inFlight());
+        assertEquals(0, limiter.queued());
+
+        emitters.get(1).complete("second");
+
+        assertEquals("second", second.get());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    @DisplayName("Calls should be rejected with 503 when the queue is full")
+    void testReject() {
+        AdaptiveLimiter limiter = limiter(1, 0);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        limiter.execute(this::call).subscribe().with(item -> {});
+        limiter.execute(this::call).subscribe().with(item -> {}, failure::set);
+
+        WebApplicationException rejection = assertInstanceOf(WebApplicationException.class, failure.get());
+        assertEquals(503, rejection.getResponse().getStatus());
+        assertEquals(1, limiter.rejected());
+    }
+
+    @Test
+    @DisplayName("Throttled calls should shrink the limit")
+    void testBackoff() {
+        AdaptiveLimiter limiter = limiter(10, 0);
+        limiter.execute(this::call).subscribe().with(item -> {}, failure -> {});
+
+        emitters.get(0).fail(new WebApplicationException(Response.status(429).build()));
+
+        assertEquals(9, limiter.limit());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    @DisplayName("Timeouts wrapped by the REST client should shrink the limit")
+    void testWrappedTimeoutBackoff() {
+        AdaptiveLimiter limiter = limiter(10, 0);
+        limiter.execute(this::call).subscribe().with(item -> {}, failure -> {});
+
+        emitters.get(0).fail(new ProcessingException(new NoStackTraceTimeoutException("The timeout period of 5000ms has been exceeded")));
+
+        assertEquals(9, limiter.limit());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    @DisplayName("Overload should be found anywhere in the cause chain")
+    void testIsOverload() {
+        assertTrue(AdaptiveLimiter.isOverload(new ProcessingException(new TimeoutException())));
+        assertTrue(AdaptiveLimiter.isOverload(new ProcessingException(new RuntimeException(new SocketTimeoutException()))));
+        assertTrue(AdaptiveLimiter.isOverload(new RuntimeException(new WebApplicationException(503))));
+        assertFalse(AdaptiveLimiter.isOverload(new ProcessingException(new ConnectException("Connection refused"))));
+        assertFalse(AdaptiveLimiter.isOverload(new WebApplicationException(404)));
+    }
+
+    /** Stand-in for the Vert.x HTTP client timeout, which is not a {@code java.util.concurrent.TimeoutException}. */
+    private static final class NoStackTraceTimeoutException extends RuntimeException {
+        NoStackTraceTimeoutException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    @Test
+    @DisplayName("Cancelled waiters should leave the queue without taking a permit")
+    void testCancelWaiter() {
+        AdaptiveLimiter limiter = limiter(1, 1);
+        limiter.execute(this::call).subscribe().with(item -> {});
+        var waiting = limiter.execute(this::call).subscribe().with(item -> {});
+
+        waiting.cancel();
+        emitters.get(0).complete("first");
+
+        assertEquals(1, emitters.size());
+        assertEquals(0, limiter.queued());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    @DisplayName("Streams never subscribed should release their permit and be cancelled")
+    void testAbandonedStream() throws InterruptedException {
+        AdaptiveLimiter limiter = limiter(1, 0);
+        AdaptiveLimiter.Permit permit = limiter.acquire().await().indefinitely();
+        CountDownLatch cancelled = new CountDownLatch(1);
+        Multi<String> body = Multi.createFrom().<String>emitter(emitter -> { })
+            .onCancellation().invoke(cancelled::countDown);
+
+        Multi<String> guarded = permit.guard(body, Duration.ofMillis(50));
+
+        assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+        assertEquals(0, limiter.inFlight());
+        AssertSubscriber<String> late = guarded.subscribe().withSubscriber(AssertSubscriber.create(1));
+        late.assertFailedWith(IllegalStateException.class);
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    @DisplayName("Streams subscribed in time should hold their permit until they terminate")
+    void testSubscribedStream() throws InterruptedException {
+        AdaptiveLimiter limiter = limiter(1, 0);
+        AdaptiveLimiter.Permit permit = limiter.acquire().await().indefinitely();
+        List<MultiEmitter<? super String>> bodies = new ArrayList<>();
+        Multi<String> guarded = permit.guard(Multi.createFrom().emitter(bodies::add), Duration.ofMillis(50));
+
+        AssertSubscriber<String> subscriber = guarded.subscribe().withSubscriber(AssertSubscriber.create(1));
+        Thread.sleep(200);
+
+        assertEquals(1, limiter.inFlight());
+        bodies.getFirst().emit("chunk").complete();
+        subscriber.assertCompleted().assertItems("chunk");
+        assertEquals(0, limiter.inFlight());
+    }
+}
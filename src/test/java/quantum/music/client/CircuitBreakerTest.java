@@ -0,0 +1,112 @@
+package quantum.music.client;
+
+import io.smallrye.mutiny.Uni;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CircuitBreaker Tests")
+class CircuitBreakerTest {
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private Uni<String> success() {
+        calls.incrementAndGet();
+        return Uni.createFrom().item("ok");
+    }
+
+    private Uni<String> failure(Throwable failure) {
+        calls.incrementAndGet();
+        return Uni.createFrom().failure(failure);
+    }
+
+    private static void run(CircuitBreaker breaker, Supplier<Uni<String>> call) {
+        breaker.execute(call).subscribe().with(item -> {}, failure -> {});
+    }
+
+    @Test
+    @DisplayName("Circuit should open once the failure rate reaches the threshold")
+    void testOpen() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 4, 4, 0.5, Duration.ofMinutes(1), 1);
+        run(breaker, this::success);
+        run(breaker, this::success);
+        run(breaker, () -> failure(new WebApplicationException(502)));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+
+        run(breaker, () -> failure(new RuntimeException("connection refused")));
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertEquals(0.5, breaker.failureRate());
+    }
+
+    @Test
+    @DisplayName("Open circuit should fail fast with 503 without calling the upstream")
+    void testFailFast() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 1, 1, 0.5, Duration.ofMinutes(1), 1);
+        run(breaker, () -> failure(new WebApplicationException(500)));
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        breaker.execute(this::success).subscribe().with(item -> {}, failure::set);
+
+        assertEquals(1, calls.get());
+        assertInstanceOf(CircuitBreaker.OpenException.class, failure.get());
+        Response response = ((WebApplicationException) failure.get()).getResponse();
+        assertEquals(503, response.getStatus());
+        assertNotNull(response.getHeaderString("Retry-After"));
+    }
+
+    @Test
+    @DisplayName("Client errors and local rejections should not count as failures")
+    void testClientErrors() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 2, 2, 0.5, Duration.ofMinutes(1), 1);
+        run(breaker, () -> failure(new NotFoundException()));
+        run(breaker, () -> failure(new WebApplicationException(429)));
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertEquals(0, breaker.failureRate());
+
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 1, 1, 1, 0, Duration.ZERO, Duration.ZERO);
+        limiter.acquire().subscribe().with(permit -> {});
+        AtomicReference<Throwable> rejection = new AtomicReference<>();
+        limiter.acquire().subscribe().with(permit -> {}, rejection::set);
+        assertInstanceOf(AdaptiveLimiter.RejectedException.class, rejection.get());
+        assertFalse(CircuitBreaker.isUpstreamFailure(rejection.get()));
+    }
+
+    @Test
+    @DisplayName("Half-open circuit should close after successful trial calls")
+    void testHalfOpenClose() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 1, 1, 0.5, Duration.ZERO, 2);
+        run(breaker, () -> failure(new WebApplicationException(503)));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+
+        run(breaker, this::success);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        run(breaker, this::success);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertEquals(0, breaker.failureRate());
+    }
+
+    @Test
+    @DisplayName("Half-open circuit should open again when a trial call fails")
+    void testHalfOpenReopen() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker("test", 1, 1, 0.5, Duration.ofMillis(50), 1);
+        run(breaker, () -> failure(new WebApplicationException(503)));
+        Thread.sleep(60);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+
+        run(breaker, () -> failure(new WebApplicationException(500)));
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+}
@@ -0,0 +1,68 @@
+package quantum.music.client;
+
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.UniEmitter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SingleFlight Tests")
+class SingleFlightTest {
+
+    private final SingleFlight singleFlight = new SingleFlight();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicReference<UniEmitter<? super String>> emitter = new AtomicReference<>();
+
+    private Uni<String> call() {
+        return Uni.createFrom().emitter(e -> {
+            calls.incrementAndGet();
+            emitter.set(e);
+        });
+    }
+
+    @Test
+    @DisplayName("Concurrent calls with the same key should share one execution")
+    void testCoalesce() {
+        AtomicReference<String> first = new AtomicReference<>();
+        AtomicReference<String> second = new AtomicReference<>();
+        singleFlight.execute("album|1", this::call).subscribe().with(first::set);
+        singleFlight.execute("album|1", this::call).subscribe().with(second::set);
+
+        assertEquals(1, calls.get());
+        assertEquals(1, singleFlight.size());
+
+        emitter.get().complete("result");
+
+        assertEquals("result", first.get());
+        assertEquals("result", second.get());
+        assertEquals(0, singleFlight.size());
+    }
+
+    @Test
+    @DisplayName("Calls with different keys should execute independently")
+    void testDistinctKeys() {
+        singleFlight.execute("album|1", this::call).subscribe().with(item -> {});
+        singleFlight.execute("album|2", this::call).subscribe().with(item -> {});
+
+        assertEquals(2, calls.get());
+        assertEquals(2, singleFlight.size());
+    }
+
+    @Test
+    @DisplayName("Key should be released after completion or failure")
+    void testRelease() {
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        singleFlight.execute("track|1", this::call).subscribe().with(item -> {}, failure::set);
+        emitter.get().fail(new IllegalStateException("boom"));
+
+        assertInstanceOf(IllegalStateException.class, failure.get());
+        assertEquals(0, singleFlight.size());
+
+        singleFlight.execute("track|1", this::call).subscribe().with(item -> {});
+        assertEquals(2, calls.get());
+    }
+}
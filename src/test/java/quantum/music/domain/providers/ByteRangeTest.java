@@ -0,0 +1,48 @@
+package quantum.music.domain.providers;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ByteRange Tests")
+class ByteRangeTest {
+
+    @Test
+    @DisplayName("Closed, open-ended and suffix ranges should be parsed")
+    void testParse() {
+        assertEquals(new ByteRange(0L, 99L), ByteRange.parse("bytes=0-99"));
+        assertEquals(new ByteRange(100L, null), ByteRange.parse("bytes=100-"));
+        assertEquals(new ByteRange(null, 50L), ByteRange.parse("bytes=-50"));
+    }
+
+    @Test
+    @DisplayName("Unsupported or malformed ranges should be ignored")
+    void testParseUnsupported() {
+        assertNull(ByteRange.parse(null));
+        assertNull(ByteRange.parse("items=0-99"));
+        assertNull(ByteRange.parse("bytes=0-1,5-6"));
+        assertNull(ByteRange.parse("bytes=10-5"));
+        assertNull(ByteRange.parse("bytes=-"));
+        assertNull(ByteRange.parse("bytes=a-b"));
+    }
+
+    @Test
+    @DisplayName("Ranges should be resolved and clamped against the content size")
+    void testResolve() {
+        ByteRange suffix = ByteRange.parse("bytes=-50").resolve(1000);
+        assertEquals(new ByteRange(950L, 999L), suffix);
+        assertEquals(50, suffix.length());
+        assertEquals(new ByteRange(900L, 999L), ByteRange.parse("bytes=900-5000").resolve(1000));
+        assertFalse(ByteRange.parse("bytes=1000-").isSatisfiable(1000));
+        assertTrue(ByteRange.parse("bytes=999-").isSatisfiable(1000));
+    }
+
+    @Test
+    @DisplayName("Ranges should be formatted as Range header values")
+    void testToHeaderValue() {
+        assertEquals("bytes=0-99", new ByteRange(0L, 99L).toHeaderValue());
+        assertEquals("bytes=100-", new ByteRange(100L, null).toHeaderValue());
+        assertEquals("bytes=-50", new ByteRange(null, 50L).toHeaderValue());
+    }
+}
@@ -0,0 +1,229 @@
+package quantum.music.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * Closed-loop load generator for the qmusic API.
+ *
+ * <p>Each of the {@code concurrency} virtual users picks a scenario by weight, sends its request, reads
+ * the whole body and starts over until the duration elapses. For every scenario the harness records the
+ * time to first byte (response headers) and the total time, and reports their percentiles with the
+ * throughput and error count.</p>
+ *
+ * <p>Run {@link #main(String[])} against a running instance, e.g. one pointed at a
+ * {@link TdlStandInServer}: {@code LoadHarness <base-url> <concurrency> <duration> [bearer-token]}.</p>
+ */
+public class LoadHarness {
+
+    private final HttpClient client = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(5))
+        .executor(Executors.newVirtualThreadPerTaskExecutor())
+        .build();
+    private final String baseUrl;
+    private final String token;
+    private final List<Scenario> scenarios = new ArrayList<>();
+
+    /**
+     * @param baseUrl base URL of qmusic, e.g. http://localhost:8080
+     * @param token bearer token sent with every request, or null
+     */
+    public LoadHarness(String baseUrl, String token) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.token = token;
+    }
+
+    /**
+     * Runs the default tdl mix against a running instance.
+     *
+     * @param args base URL, concurrency, ISO-8601 duration and optional bearer token
+     */
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 3) {
+            System.err.println("Usage: LoadHarness <base-url> <concurrency> <duration> [bearer-token]");
+            System.exit(1);
+        }
+        LoadHarness harness = tdlMix(args[0], args.length > 3 ? args[3] : null);
+        Map<String, Report> reports = harness.run(Integer.parseInt(args[1]), Duration.parse(args[2]));
+        reports.values().forEach(System.out::println);
+    }
+
+    /**
+     * Harness with the default tdl mix: mostly album lookups, then searches, then track streams.
+     *
+     * @param baseUrl base URL of qmusic
+     * @param token bearer token, or null
+     * @return the harness
+     */
+    public static LoadHarness tdlMix(String baseUrl, String token) {
+        String[] queries = {"stand", "album", "artist", "track", "in"};
+        return new LoadHarness(baseUrl, token)
+            .scenario("search", 3, n -> STR."/music/search?source=tdl&q=\{queries[n % queries.length]}&offset=\{n % 50 * 10}")
+            .scenario("album", 5, n -> STR."/music/albums/tdl:\{1_000 + n % 200}")
+            .scenario("stream", 2, n -> STR."/music/tracks/tdl:\{100_000 + n % 300}/stream");
+    }
+
+    /**
+     * Adds a scenario to the mix.
+     *
+     * @param name name of the scenario in the reports
+     * @param weight relative share of the requests
+     * @param path builds the path of a request from a random number, to spread requests over resources
+     * @return this harness
+     */
+    public LoadHarness scenario(String name, int weight, IntFunction<String> path) {
+        scenarios.add(new Scenario(name, weight, path));
+        return this;
+    }
+
+    /**
+     * Sends requests from {@code concurrency} virtual users until the duration elapses.
+     *
+     * @param concurrency number of requests in flight at any time
+     * @param duration how long to run
+     * @return the report of every scenario, by name
+     */
+    public Map<String, Report> run(int concurrency, Duration duration) throws InterruptedException {
+        Map<String, Recorder> recorders = new LinkedHashMap<>();
+        scenarios.forEach(scenario -> recorders.put(scenario.name, new Recorder()));
+        int totalWeight = scenarios.stream().mapToInt(Scenario::weight).sum();
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                users.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        Scenario scenario = pick(totalWeight);
+                        send(scenario, recorders.get(scenario.name));
+                    }
+                });
+            }
+        }
+        Map<String, Report> reports = new LinkedHashMap<>();
+        recorders.forEach((name, recorder) -> reports.put(name, recorder.report(name, duration)));
+        return reports;
+    }
+
+    private Scenario pick(int totalWeight) {
+        int draw = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Scenario scenario : scenarios) {
+            draw -= scenario.weight;
+            if (draw < 0) {
+                return scenario;
+            }
+        }
+        return scenarios.getLast();
+    }
+
+    private void send(Scenario scenario, Recorder recorder) {
+        String path = scenario.path.apply(ThreadLocalRandom.current().nextInt(1_000_000));
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(Duration.ofSeconds(30))
+            .GET();
+        if (token != null) {
+            request.header("Authorization", STR."Bearer \{token}");
+        }
+        long start = System.nanoTime();
+        try {
+            HttpResponse<InputStream> response = client.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+            long firstByte = System.nanoTime() - start;
+            long bytes;
+            try (InputStream body = response.body()) {
+                bytes = body.transferTo(OutputStream.nullOutputStream());
+            }
+            recorder.record(firstByte, System.nanoTime() - start, bytes, response.statusCode() >= 400);
+        } catch (IOException e) {
+            recorder.record(-1, System.nanoTime() - start, 0, true);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Scenario(String name, int weight, IntFunction<String> path) {
+    }
+
+    /**
+     * Latency percentiles, throughput and errors of one scenario.
+     *
+     * @param scenario name of the scenario
+     * @param requests number of completed requests
+     * @param errors requests that failed or got a status of 400 or more
+     * @param throughput requests per second
+     * @param bytes response bytes read
+     * @param firstByte percentiles of the time to first byte
+     * @param total percentiles of the time to the last byte
+     */
+    public record Report(String scenario, long requests, long errors, double throughput, long bytes,
+                         Percentiles firstByte, Percentiles total) {
+
+        @Override
+        public String toString() {
+            return STR."\{scenario}: \{requests} requests, \{errors} errors, \{String.format("%.1f", throughput)} req/s, \{bytes / 1024} KiB\n  ttfb  \{firstByte}\n  total \{total}";
+        }
+    }
+
+    /**
+     * Latency percentiles.
+     */
+    public record Percentiles(Duration p50, Duration p90, Duration p99, Duration p999, Duration max) {
+
+        static final Percentiles EMPTY = new Percentiles(Duration.ZERO, Duration.ZERO, Duration.ZERO, Duration.ZERO, Duration.ZERO);
+
+        static Percentiles of(long[] nanos) {
+            if (nanos.length == 0) {
+                return EMPTY;
+            }
+            Arrays.sort(nanos);
+            return new Percentiles(at(nanos, 0.5), at(nanos, 0.9), at(nanos, 0.99), at(nanos, 0.999),
+                Duration.ofNanos(nanos[nanos.length - 1]));
+        }
+
+        private static Duration at(long[] sorted, double quantile) {
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return Duration.ofNanos(sorted[Math.clamp(index, 0, sorted.length - 1)]);
+        }
+
+        @Override
+        public String toString() {
+            return STR."p50=\{p50.toMillis()}ms p90=\{p90.toMillis()}ms p99=\{p99.toMillis()}ms p999=\{p999.toMillis()}ms max=\{max.toMillis()}ms";
+        }
+    }
+
+    /**
+     * Collects the samples of one scenario.
+     */
+    private static final class Recorder {
+
+        private final List<long[]> samples = new ArrayList<>();
+        private final AtomicLong bytes = new AtomicLong();
+
+        synchronized void record(long firstByteNanos, long totalNanos, long read, boolean error) {
+            samples.add(new long[] {firstByteNanos, totalNanos, error ? 1 : 0});
+            bytes.addAndGet(read);
+        }
+
+        synchronized Report report(String scenario, Duration duration) {
+            long errors = samples.stream().filter(sample -> sample[2] == 1).count();
+            long[] firstByte = samples.stream().filter(sample -> sample[0] >= 0).mapToLong(sample -> sample[0]).toArray();
+            long[] total = samples.stream().mapToLong(sample -> sample[1]).toArray();
+            double seconds = Math.max(1, duration.toMillis()) / 1000.0;
+            return new Report(scenario, samples.size(), errors, samples.size() / seconds, bytes.get(),
+                Percentiles.of(firstByte), Percentiles.of(total));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package quantum.music.loadtest;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.common.ResourceArg;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.net.URL;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load test of the tdl path against the {@link TdlStandInServer}, with realistic upstream latency.
+ *
+ * <p>Skipped by default; run it with {@code mvn test -Dtest=TdlLoadTest -Dload=true}, optionally
+ * with {@code -Dload.concurrency} and {@code -Dload.duration}. The reports are printed to the console.</p>
+ */
+@QuarkusTest
+@QuarkusTestResource(value = TdlStandInResource.class, restrictToAnnotatedClass = true, initArgs = {
+    @ResourceArg(name = "latency", value = "PT0.05S"),
+    @ResourceArg(name = "jitter", value = "PT0.05S"),
+    @ResourceArg(name = "bandwidth", value = "4194304"),
+    @ResourceArg(name = "error-rate", value = "0.01")
+})
+@EnabledIfSystemProperty(named = "load", matches = "true")
+@DisplayName("TDL Load Tests")
+class TdlLoadTest {
+
+    @TestHTTPResource
+    URL url;
+
+    @Test
+    @TestSecurity(user = "test-user")
+    @DisplayName("Mixed search, album and stream load should mostly succeed")
+    void mixedLoad() throws InterruptedException {
+        int concurrency = Integer.getInteger("load.concurrency", 50);
+        Duration duration = Duration.parse(System.getProperty("load.duration", "PT30S"));
+
+        Map<String, LoadHarness.Report> reports = LoadHarness.tdlMix(url.toString(), null).run(concurrency, duration);
+
+        reports.values().forEach(System.out::println);
+        reports.values().forEach(report -> {
+            assertTrue(report.requests() > 0, STR."No request completed for \{report.scenario()}");
+            assertTrue(report.errors() < report.requests() * 0.1, STR."Too many errors for \{report.scenario()}");
+        });
+    }
+}
@@ -0,0 +1,53 @@
+package quantum.music.loadtest;
+
+import io.quarkus.test.common.QuarkusTestResourceLifecycleManager;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Test resource starting a {@link TdlStandInServer} and pointing the tdl provider at it.
+ *
+ * <p>Accepted init arguments: {@code latency} and {@code jitter} (ISO-8601 durations), {@code bandwidth}
+ * (bytes per second), {@code error-rate} and {@code throttle-rate} (between 0 and 1).</p>
+ */
+public class TdlStandInResource implements QuarkusTestResourceLifecycleManager {
+
+    private Map<String, String> args = Map.of();
+    private TdlStandInServer server;
+
+    @Override
+    public void init(Map<String, String> initArgs) {
+        this.args = initArgs;
+    }
+
+    @Override
+    public Map<String, String> start() {
+        TdlStandInServer.Options.Builder options = TdlStandInServer.Options.builder();
+        if (args.containsKey("latency")) {
+            options.latency(Duration.parse(args.get("latency")));
+        }
+        if (args.containsKey("jitter")) {
+            options.jitter(Duration.parse(args.get("jitter")));
+        }
+        if (args.containsKey("bandwidth")) {
+            options.bandwidth(Long.parseLong(args.get("bandwidth")));
+        }
+        if (args.containsKey("error-rate")) {
+            options.errorRate(Double.parseDouble(args.get("error-rate")));
+        }
+        if (args.containsKey("throttle-rate")) {
+            options.throttleRate(Double.parseDouble(args.get("throttle-rate")));
+        }
+        server = new TdlStandInServer(options.build());
+        server.start(0);
+        return server.quarkusConfig();
+    }
+
+    @Override
+    public void stop() {
+        if (server != null) {
+            server.close();
+        }
+    }
+}
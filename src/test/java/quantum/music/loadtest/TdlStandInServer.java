@@ -0,0 +1,477 @@
+package quantum.music.loadtest;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.handler.BodyHandler;
+import quantum.music.domain.providers.ByteRange;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local stand-in for the TDL upstream, to load-test the tdl path end to end without the real service.
+ *
+ * <p>Implements the endpoints of {@code ApiClient} and {@code OAuth2Client} with generated catalog data,
+ * and serves the audio the manifests point to. The playback of a track depends on its id:</p>
+ * <ul>
+ *     <li>id divisible by 3: DASH manifest over plain segment files</li>
+ *     <li>id = 1 modulo 3: BTS manifest over an OLD_AES-encrypted file</li>
+ *     <li>otherwise: BTS manifest over a plain file</li>
+ * </ul>
+ * <p>Files honour {@code Range} requests. Latency, bandwidth and error injection are set through
+ * {@link Options}.</p>
+ *
+ * <p>Run {@link #main(String[])} to start it standalone; it prints the configuration to point qmusic at it.</p>
+ */
+public class TdlStandInServer implements AutoCloseable {
+
+    /** Base64 master key the security tokens of encrypted tracks are sealed with. */
+    public static final String MASTER_KEY = Base64.getEncoder().encodeToString(seeded(32, 1));
+
+    private static final int CHUNK_SIZE = 16 * 1024;
+
+    private final Options options;
+    private final Vertx vertx = Vertx.vertx();
+    private final byte[] plainFile;
+    private final byte[] encryptedFile;
+    private final byte[] segment;
+    private final String securityToken;
+    private HttpServer server;
+
+    /**
+     * @param options behaviour of the stand-in
+     */
+    public TdlStandInServer(Options options) {
+        this.options = options;
+        byte[] key = seeded(16, 2);
+        byte[] nonce = seeded(8, 3);
+        this.plainFile = seeded(options.fileSize, 4);
+        this.encryptedFile = encrypt(plainFile, key, nonce);
+        this.segment = seeded(options.segmentSize, 5);
+        this.securityToken = seal(key, nonce);
+    }
+
+    /**
+     * Starts the stand-in standalone.
+     *
+     * @param args optional port, 0 or absent for a random one
+     */
+    public static void main(String[] args) {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+        TdlStandInServer server = new TdlStandInServer(Options.builder().build());
+        server.start(port);
+        System.out.println(STR."TDL stand-in listening on \{server.baseUrl()}, start qmusic with:");
+        server.quarkusConfig().forEach((name, value) -> System.out.println(STR."  -D\{name}=\{value}"));
+    }
+
+    /**
+     * Starts listening, blocking until the server is bound.
+     *
+     * @param port port to listen on, 0 for a random one
+     * @return the bound port
+     */
+    public int start(int port) {
+        Router router = Router.router(vertx);
+        router.post("/v1/oauth2/token").handler(BodyHandler.create()).handler(this::token);
+        router.route("/v1/*").handler(this::inject);
+        router.get("/v1/search").handler(this::search);
+        router.get("/v1/artists/:id").handler(ctx -> json(ctx, artist(id(ctx))));
+        router.get("/v1/artists/:id/bio").handler(ctx -> json(ctx, new JsonObject().put("text", "A generated artist [wimpLink]bio[/wimpLink].")));
+        router.get("/v1/artists/:id/albums").handler(this::artistAlbums);
+        router.get("/v1/albums/:id").handler(ctx -> json(ctx, album(id(ctx))));
+        router.get("/v1/albums/:id/tracks").handler(this::albumTracks);
+        router.get("/v1/tracks/:id").handler(ctx -> json(ctx, track(id(ctx), id(ctx) / 100)));
+        router.get("/v1/tracks/:id/playbackinfopostpaywall").handler(this::playback);
+        router.route("/files/*").handler(this::inject);
+        router.get("/files/:id/plain.flac").handler(ctx -> file(ctx, plainFile));
+        router.get("/files/:id/encrypted.flac").handler(ctx -> file(ctx, encryptedFile));
+        router.get("/files/:id/segments/:number").handler(ctx -> file(ctx, segment));
+        server = vertx.createHttpServer().requestHandler(router)
+            .listen(port)
+            .toCompletionStage().toCompletableFuture().join();
+        return server.actualPort();
+    }
+
+    /**
+     * Base URL of the running stand-in.
+     *
+     * @return e.g. http://localhost:12345
+     */
+    public String baseUrl() {
+        return STR."http://localhost:\{server.actualPort()}";
+    }
+
+    /**
+     * Configuration pointing qmusic at the running stand-in.
+     *
+     * @return configuration properties by name
+     */
+    public Map<String, String> quarkusConfig() {
+        return Map.of(
+            "tdl-api/mp-rest/url", baseUrl(),
+            "auth-api-tdl/mp-rest/url", baseUrl(),
+            "tdl.master.key", MASTER_KEY,
+            "tdl.client.id", "stand-in",
+            "tdl.refresh.token", "stand-in");
+    }
+
+    @Override
+    public void close() {
+        vertx.close().toCompletionStage().toCompletableFuture().join();
+    }
+
+    private void token(RoutingContext ctx) {
+        json(ctx, new JsonObject()
+            .put("access_token", STR."stand-in-\{System.nanoTime()}")
+            .put("refresh_token", "stand-in")
+            .put("token_type", "Bearer")
+            .put("expires_in", 3600));
+    }
+
+    /**
+     * Applies the error injection, then delays the request by the configured latency.
+     */
+    private void inject(RoutingContext ctx) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double draw = random.nextDouble();
+        long delay = options.latency.toMillis()
+            + (options.jitter.isZero() ? 0 : random.nextLong(options.jitter.toMillis() + 1));
+        Runnable next;
+        if (draw < options.errorRate) {
+            next = () -> ctx.response().setStatusCode(500).end("Injected failure");
+        } else if (draw < options.errorRate + options.throttleRate) {
+            next = () -> ctx.response().setStatusCode(429).putHeader("Retry-After", "1").end("Injected throttling");
+        } else {
+            next = ctx::next;
+        }
+        if (delay > 0) {
+            vertx.setTimer(delay, timer -> next.run());
+        } else {
+            next.run();
+        }
+    }
+
+    private void search(RoutingContext ctx) {
+        int offset = intParam(ctx, "offset", 0);
+        int limit = Math.min(intParam(ctx, "limit", 10), 100);
+        JsonArray items = new JsonArray();
+        for (int i = 0; i < limit && offset + i < options.searchTotal; i++) {
+            items.add(album(1_000 + offset + i).put("artists", new JsonArray().add(artist(1))));
+        }
+        json(ctx, new JsonObject().put("albums", new JsonObject()
+            .put("offset", offset)
+            .put("limit", limit)
+            .put("totalNumberOfItems", options.searchTotal)
+            .put("items", items)));
+    }
+
+    private void artistAlbums(RoutingContext ctx) {
+        int offset = intParam(ctx, "offset", 0);
+        int limit = intParam(ctx, "limit", 10);
+        JsonArray items = new JsonArray();
+        for (int i = 0; i < limit && offset + i < 25; i++) {
+            items.add(album(id(ctx) * 1_000 + offset + i));
+        }
+        json(ctx, new JsonObject().put("items", items).put("totalNumberOfItems", 25));
+    }
+
+    private void albumTracks(RoutingContext ctx) {
+        long album = id(ctx);
+        JsonArray items = new JsonArray();
+        for (int i = 1; i <= options.albumTracks; i++) {
+            items.add(track(album * 100 + i, album));
+        }
+        json(ctx, new JsonObject().put("items", items).put("totalNumberOfItems", options.albumTracks));
+    }
+
+    private void playback(RoutingContext ctx) {
+        long track = id(ctx);
+        String files = STR."\{baseUrl()}/files/\{track}";
+        String mimeType;
+        String manifest;
+        if (track % 3 == 0) {
+            StringBuilder timeline = new StringBuilder();
+            timeline.append("<S d=\"176400\" r=\"").append(options.segmentCount - 2).append("\"/>");
+            mimeType = "application/dash+xml";
+            manifest = STR."""
+                <?xml version="1.0" encoding="UTF-8"?>
+                <MPD xmlns="urn:mpeg:dash:schema:mpd:2011"><Period><AdaptationSet mimeType="audio/mp4">
+                  <Representation id="FLAC" bandwidth="1411200">
+                    <SegmentTemplate initialization="\{files}/segments/0" media="\{files}/segments/$Number$" startNumber="1">
+                      <SegmentTimeline>\{timeline}</SegmentTimeline>
+                    </SegmentTemplate>
+                  </Representation>
+                </AdaptationSet></Period></MPD>
+                """;
+        } else {
+            boolean encrypted = track % 3 == 1;
+            mimeType = "application/vnd.tidal.bts";
+            manifest = new JsonObject()
+                .put("mimeType", "audio/flac")
+                .put("codecs", "flac")
+                .put("encryptionType", encrypted ? "OLD_AES" : "NONE")
+                .put("keyId", encrypted ? securityToken : null)
+                .put("urls", new JsonArray().add(STR."\{files}/\{encrypted ? "encrypted" : "plain"}.flac"))
+                .encode();
+        }
+        json(ctx, new JsonObject()
+            .put("trackId", track)
+            .put("audioQuality", ctx.request().getParam("audioquality"))
+            .put("manifestMimeType", mimeType)
+            .put("manifest", Base64.getEncoder().encodeToString(manifest.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    /**
+     * Sends a file, or the requested range of it, at the configured bandwidth.
+     */
+    private void file(RoutingContext ctx, byte[] content) {
+        HttpServerResponse response = ctx.response();
+        ByteRange range = ByteRange.parse(ctx.request().getHeader("Range"));
+        int first = 0;
+        int last = content.length - 1;
+        if (range != null) {
+            if (!range.isSatisfiable(content.length)) {
+                response.setStatusCode(416).putHeader("Content-Range", STR."bytes */\{content.length}").end();
+                return;
+            }
+            ByteRange resolved = range.resolve(content.length);
+            first = resolved.first().intValue();
+            last = resolved.last().intValue();
+            response.setStatusCode(206).putHeader("Content-Range", STR."bytes \{first}-\{last}/\{content.length}");
+        }
+        response.putHeader("Content-Type", "audio/flac")
+            .putHeader("Content-Length", Integer.toString(last - first + 1));
+        write(response, content, first, last + 1);
+    }
+
+    /**
+     * Writes a chunk, then schedules the next one so that the average rate matches the bandwidth,
+     * waiting for the socket to drain when the client reads slower.
+     */
+    private void write(HttpServerResponse response, byte[] content, int from, int to) {
+        if (response.closed()) {
+            return;
+        }
+        if (from >= to) {
+            response.end();
+            return;
+        }
+        int end = Math.min(to, from + CHUNK_SIZE);
+        response.write(Buffer.buffer().appendBytes(content, from, end - from));
+        Runnable next = () -> write(response, content, end, to);
+        if (response.writeQueueFull()) {
+            response.drainHandler(ignored -> schedule(next, end - from));
+        } else {
+            schedule(next, end - from);
+        }
+    }
+
+    private void schedule(Runnable next, int written) {
+        long delayMillis = options.bandwidth > 0 ? TimeUnit.SECONDS.toMillis(written) / options.bandwidth : 0;
+        if (delayMillis > 0) {
+            vertx.setTimer(delayMillis, timer -> next.run());
+        } else {
+            vertx.runOnContext(ignored -> next.run());
+        }
+    }
+
+    private static JsonObject album(long id) {
+        return new JsonObject()
+            .put("id", id)
+            .put("title", STR."Stand-in Album \{id}")
+            .put("numberOfVolumes", 1)
+            .put("releaseDate", "2024-03-15")
+            .put("copyright", "(P) 2024 Stand-in Records")
+            .put("type", "ALBUM")
+            .put("upc", Long.toString(600_000_000_000L + id))
+            .put("cover", "0d5c5c4e-3b9a-4f4e-9b7e-2f0c1a2b3c4d")
+            .put("artist", artist(id % 50 + 1))
+            .put("mediaMetadata", new JsonObject().put("tags", new JsonArray().add("LOSSLESS")));
+    }
+
+    private static JsonObject artist(long id) {
+        return new JsonObject()
+            .put("id", id)
+            .put("name", STR."Stand-in Artist \{id}")
+            .put("picture", "7a1b2c3d-4e5f-6a7b-8c9d-0e1f2a3b4c5d");
+    }
+
+    private static JsonObject track(long id, long album) {
+        return new JsonObject()
+            .put("id", id)
+            .put("title", STR."Stand-in Track \{id}")
+            .put("duration", 240)
+            .put("trackNumber", (int) (id % 100))
+            .put("volumeNumber", 1)
+            .put("audioQuality", "LOSSLESS")
+            .put("audioCodec", "FLAC")
+            .put("copyright", "(P) 2024 Stand-in Records")
+            .put("mediaMetadata", new JsonObject().put("tags", new JsonArray().add("LOSSLESS")))
+            .put("album", album(album))
+            .put("artist", artist(album % 50 + 1));
+    }
+
+    private static void json(RoutingContext ctx, JsonObject body) {
+        ctx.response().putHeader("Content-Type", "application/json").end(body.encode());
+    }
+
+    private static long id(RoutingContext ctx) {
+        try {
+            return Long.parseLong(ctx.pathParam("id"));
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+
+    private static int intParam(RoutingContext ctx, String name, int defaultValue) {
+        String value = ctx.request().getParam(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    private static byte[] seeded(int size, long seed) {
+        byte[] bytes = new byte[size];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static byte[] encrypt(byte[] plain, byte[] key, byte[] nonce) {
+        try {
+            byte[] counterBlock = new byte[16];
+            System.arraycopy(nonce, 0, counterBlock, 0, 8);
+            Cipher cipher = Cipher.getInstance("AES/CTR/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "AES"), new IvParameterSpec(counterBlock));
+            return cipher.doFinal(plain);
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot encrypt stand-in file", e);
+        }
+    }
+
+    /**
+     * Seals the key and nonce of a track into a security token, as the upstream does with its master key.
+     */
+    private static String seal(byte[] key, byte[] nonce) {
+        try {
+            byte[] iv = seeded(16, 6);
+            byte[] keyAndNonce = new byte[24];
+            System.arraycopy(key, 0, keyAndNonce, 0, 16);
+            System.arraycopy(nonce, 0, keyAndNonce, 16, 8);
+            Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
+            cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(Base64.getDecoder().decode(MASTER_KEY), "AES"),
+                new IvParameterSpec(iv));
+            byte[] sealed = cipher.doFinal(keyAndNonce);
+            byte[] token = new byte[iv.length + sealed.length];
+            System.arraycopy(iv, 0, token, 0, iv.length);
+            System.arraycopy(sealed, 0, token, iv.length, sealed.length);
+            return Base64.getEncoder().encodeToString(token);
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot seal stand-in security token", e);
+        }
+    }
+
+    /**
+     * Behaviour of the stand-in.
+     */
+    public static final class Options {
+
+        private Duration latency = Duration.ZERO;
+        private Duration jitter = Duration.ZERO;
+        private long bandwidth;
+        private double errorRate;
+        private double throttleRate;
+        private int fileSize = 4 * 1024 * 1024;
+        private int segmentCount = 20;
+        private int segmentSize = 256 * 1024;
+        private int albumTracks = 12;
+        private int searchTotal = 500;
+
+        private Options() {
+        }
+
+        public static Builder builder() {
+            return new Builder();
+        }
+
+        public static final class Builder {
+
+            private final Options options = new Options();
+
+            /** Fixed delay before every response. */
+            public Builder latency(Duration latency) {
+                options.latency = latency;
+                return this;
+            }
+
+            /** Random extra delay, up to this value, before every response. */
+            public Builder jitter(Duration jitter) {
+                options.jitter = jitter;
+                return this;
+            }
+
+            /** Bytes per second sent by each file response, 0 for unlimited. */
+            public Builder bandwidth(long bandwidth) {
+                options.bandwidth = bandwidth;
+                return this;
+            }
+
+            /** Share of requests answered with 500. */
+            public Builder errorRate(double errorRate) {
+                options.errorRate = errorRate;
+                return this;
+            }
+
+            /** Share of requests answered with 429. */
+            public Builder throttleRate(double throttleRate) {
+                options.throttleRate = throttleRate;
+                return this;
+            }
+
+            /** Size of single-file tracks, in bytes. */
+            public Builder fileSize(int fileSize) {
+                options.fileSize = fileSize;
+                return this;
+            }
+
+            /** Number of segments of DASH tracks, initialization segment included. */
+            public Builder segmentCount(int segmentCount) {
+                options.segmentCount = Math.max(2, segmentCount);
+                return this;
+            }
+
+            /** Size of each DASH segment, in bytes. */
+            public Builder segmentSize(int segmentSize) {
+                options.segmentSize = segmentSize;
+                return this;
+            }
+
+            /** Number of tracks of every album. */
+            public Builder albumTracks(int albumTracks) {
+                options.albumTracks = albumTracks;
+                return this;
+            }
+
+            /** Total number of albums matching any search. */
+            public Builder searchTotal(int searchTotal) {
+                options.searchTotal = searchTotal;
+                return this;
+            }
+
+            public Options build() {
+                return options;
+            }
+        }
+    }
+}
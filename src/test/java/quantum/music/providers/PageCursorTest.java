@@ -0,0 +1,38 @@
+package quantum.music.providers;
+
+import io.vertx.core.json.JsonObject;
+import jakarta.ws.rs.BadRequestException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PageCursor Tests")
+class PageCursorTest {
+
+    @Test
+    @DisplayName("Cursor state should survive an encode/decode round trip")
+    void testRoundTrip() {
+        JsonObject state = new JsonObject().put("p", 20).put("k", 1.5).put("id", "65a1f0c2e4b0a1b2c3d4e5f6");
+        String cursor = PageCursor.encode(state);
+
+        assertFalse(cursor.contains("="));
+        assertEquals(state, PageCursor.decode(cursor));
+    }
+
+    @Test
+    @DisplayName("Offset cursors should point at the encoded position")
+    void testOffset() {
+        assertEquals(0, PageCursor.offset(null));
+        assertEquals(0, PageCursor.offset(""));
+        assertEquals(40, PageCursor.offset(PageCursor.ofOffset(40)));
+    }
+
+    @Test
+    @DisplayName("Malformed cursors should be rejected as bad requests")
+    void testInvalid() {
+        assertThrows(BadRequestException.class, () -> PageCursor.decode("not a cursor!"));
+        assertThrows(BadRequestException.class, () -> PageCursor.decode(PageCursor.encode(new JsonObject()).concat("x%")));
+        assertThrows(BadRequestException.class, () -> PageCursor.offset(PageCursor.ofOffset(-1)));
+    }
+}
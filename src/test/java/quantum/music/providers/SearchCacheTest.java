@@ -0,0 +1,111 @@
+package quantum.music.providers;
+
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.UniEmitter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import quantum.music.domain.PagedResponse;
+import quantum.music.domain.providers.Album;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SearchCache Tests")
+class SearchCacheTest {
+
+    private final SearchCache cache = new SearchCache();
+    private final AtomicInteger searches = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache.ttl = Duration.ofMinutes(2);
+        cache.maxSize = 100;
+        cache.init();
+    }
+
+    @Test
+    @DisplayName("Queries differing in case, whitespace or diacritics should share a key")
+    void testNormalize() {
+        assertEquals("beyonce lemonade", SearchCache.normalize("  Beyoncé \t LEMONADE "));
+        assertEquals(SearchCache.normalize("sigur ros"), SearchCache.normalize("Sigur Rós"));
+        assertEquals("", SearchCache.normalize(null));
+    }
+
+    @Test
+    @DisplayName("Normalization should keep distinct words and punctuation")
+    void testNormalizeKeepsContent() {
+        assertNotEquals(SearchCache.normalize("ac/dc"), SearchCache.normalize("acdc"));
+        assertNotEquals(SearchCache.normalize("the beatles"), SearchCache.normalize("thebeatles"));
+    }
+
+    @Test
+    @DisplayName("Equivalent queries should be served from the cache")
+    void testHit() {
+        PagedResponse<Album> first = search("lcl", "Abbey Road");
+        PagedResponse<Album> second = search("lcl", "  abbey ROAD ");
+
+        assertSame(first, second);
+        assertEquals(1, searches.get());
+        assertEquals(1, cache.stats().getFirst().hits());
+    }
+
+    @Test
+    @DisplayName("Failed searches should not be cached")
+    void testFailureNotCached() {
+        assertThrows(IllegalStateException.class, () -> cache.get("lcl", "abbey road", 0, 10, () -> {
+            searches.incrementAndGet();
+            return Uni.createFrom().failure(new IllegalStateException("upstream down"));
+        }).await().indefinitely());
+
+        search("lcl", "abbey road");
+
+        assertEquals(2, searches.get());
+    }
+
+    @Test
+    @DisplayName("Invalidation should drop the pages of one provider only")
+    void testInvalidate() {
+        search("lcl", "abbey road");
+        search("tdl", "abbey road");
+
+        cache.invalidate("lcl");
+        search("lcl", "abbey road");
+        search("tdl", "abbey road");
+
+        assertEquals(3, searches.get());
+    }
+
+    @Test
+    @DisplayName("Searches in flight during an invalidation should be served but not cached")
+    void testInvalidateInFlight() {
+        AtomicReference<UniEmitter<? super PagedResponse<Album>>> emitter = new AtomicReference<>();
+        AtomicReference<PagedResponse<Album>> served = new AtomicReference<>();
+        cache.get("lcl", "abbey road", 0, 10, () -> {
+            searches.incrementAndGet();
+            return Uni.createFrom().emitter(emitter::set);
+        }).subscribe().with(served::set);
+
+        cache.invalidate("lcl");
+        emitter.get().complete(page());
+
+        assertNotNull(served.get());
+        search("lcl", "abbey road");
+        assertEquals(2, searches.get());
+    }
+
+    private PagedResponse<Album> search(String providerId, String q) {
+        return cache.get(providerId, q, 0, 10, () -> {
+            searches.incrementAndGet();
+            return Uni.createFrom().item(page());
+        }).await().indefinitely();
+    }
+
+    private static PagedResponse<Album> page() {
+        return new PagedResponse<>(List.of(Album.builder().id("lcl:1").title("Abbey Road").build()), 0, 10, 1);
+    }
+}
@@ -0,0 +1,144 @@
+package quantum.music.providers.tdl.cache;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.smallrye.mutiny.Uni;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.WebApplicationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("LoadingUniCache Tests")
+class LoadingUniCacheTest {
+
+    private static final Duration TTL = Duration.ofHours(24);
+    private static final Duration REFRESH_AFTER = Duration.ofHours(1);
+    private static final Duration STALE_TTL = Duration.ofDays(7);
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = nanos::get;
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Deque<Supplier<Uni<String>>> results = new ArrayDeque<>();
+
+    private LoadingUniCache<String> cache(long maxWeight) {
+        return new LoadingUniCache<>("test", TTL, REFRESH_AFTER, STALE_TTL, maxWeight, String::length,
+            Runnable::run, ticker, key -> {
+                loads.incrementAndGet();
+                Supplier<Uni<String>> result = results.poll();
+                return result != null ? result.get() : Uni.createFrom().item(STR."\{key}-\{loads.get()}");
+            });
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+
+    private static String get(LoadingUniCache<String> cache, String key) {
+        return cache.get(key).await().atMost(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Values should be loaded once and then served from the cache")
+    void testCached() {
+        LoadingUniCache<String> cache = cache(100);
+
+        assertEquals("a-1", get(cache, "a"));
+        assertEquals("a-1", get(cache, "a"));
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().hits());
+    }
+
+    @Test
+    @DisplayName("Failed loads should not be cached")
+    void testFailedLoadNotCached() {
+        LoadingUniCache<String> cache = cache(100);
+        results.add(() -> Uni.createFrom().failure(new NotFoundException("missing")));
+
+        assertThrows(NotFoundException.class, () -> get(cache, "a"));
+        assertEquals("a-2", get(cache, "a"));
+    }
+
+    @Test
+    @DisplayName("Entries older than refresh-after should be served while reloaded in the background")
+    void testRefreshAhead() {
+        LoadingUniCache<String> cache = cache(100);
+        get(cache, "a");
+        advance(REFRESH_AFTER.plusMinutes(1));
+
+        assertEquals("a-1", get(cache, "a"));
+        assertEquals("a-2", get(cache, "a"));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Failed reloads should keep the previous value")
+    void testFailedReloadKeepsValue() {
+        LoadingUniCache<String> cache = cache(100);
+        get(cache, "a");
+        advance(REFRESH_AFTER.plusMinutes(1));
+        results.add(() -> Uni.createFrom().failure(new WebApplicationException(503)));
+
+        assertEquals("a-1", get(cache, "a"));
+        assertEquals("a-1", get(cache, "a"));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Entries should be evicted once their total weight exceeds the maximum")
+    void testWeigher() {
+        LoadingUniCache<String> cache = cache(7);
+
+        get(cache, "a");
+        get(cache, "b");
+        get(cache, "c");
+
+        assertTrue(cache.stats().size() <= 7, () -> STR."weight \{cache.stats().size()}");
+        assertTrue(cache.stats().entries() < 3);
+    }
+
+    @Test
+    @DisplayName("Expired values should be served when the upstream is unavailable")
+    void testStaleFallback() {
+        LoadingUniCache<String> cache = cache(100);
+        get(cache, "a");
+        advance(TTL.plusMinutes(1));
+        results.add(() -> Uni.createFrom().failure(new WebApplicationException(503)));
+
+        assertEquals("a-1", get(cache, "a"));
+    }
+
+    @Test
+    @DisplayName("Expired values should not hide client errors such as 404")
+    void testStaleNotServedOnClientError() {
+        LoadingUniCache<String> cache = cache(100);
+        get(cache, "a");
+        advance(TTL.plusMinutes(1));
+        results.add(() -> Uni.createFrom().failure(new NotFoundException("gone")));
+
+        assertThrows(NotFoundException.class, () -> get(cache, "a"));
+    }
+
+    @Test
+    @DisplayName("Stale values should be dropped after the stale TTL")
+    void testStaleExpiry() {
+        LoadingUniCache<String> cache = cache(100);
+        get(cache, "a");
+        advance(TTL.plusMinutes(1));
+        results.add(() -> Uni.createFrom().failure(new WebApplicationException(503)));
+        get(cache, "a");
+        advance(STALE_TTL.plusMinutes(1));
+        results.add(() -> Uni.createFrom().failure(new WebApplicationException(503)));
+
+        assertThrows(WebApplicationException.class, () -> get(cache, "a"));
+    }
+}
@@ -0,0 +1,114 @@
+package quantum.music.providers.tdl.cache;
+
+import io.smallrye.mutiny.Uni;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import quantum.music.domain.tdl.MediaInfo;
+import quantum.music.providers.tdl.stream.Playback;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("TdlPlaybackCache Tests")
+class TdlPlaybackCacheTest {
+
+    private static final Duration TTL = Duration.ofMinutes(5);
+    private static final Instant NOW = Instant.ofEpochSecond(1_700_000_000L);
+
+    private final TdlPlaybackCache cache = TdlPlaybackCaches.create(TTL, 100);
+    private final AtomicInteger resolutions = new AtomicInteger();
+
+    @Test
+    @DisplayName("Expiry should be read from query, edge token and path-style parameters")
+    void testUrlExpiry() {
+        assertEquals(OptionalLong.of(1700000100L), TdlPlaybackCache.urlExpiry(new String[]{"https://cdn/a.flac?Expires=1700000100&Signature=x"}));
+        assertEquals(OptionalLong.of(1700000200L), TdlPlaybackCache.urlExpiry(new String[]{"https://cdn/a.flac?token=st=1~exp=1700000200~acl=*"}));
+        assertEquals(OptionalLong.of(1700000300L), TdlPlaybackCache.urlExpiry(new String[]{"https://cdn/a.flac?hdnts=exp=1700000300~hmac=y"}));
+        assertEquals(OptionalLong.of(1700000400L), TdlPlaybackCache.urlExpiry(new String[]{"https://cdn/a.flac?a=1&expires=1700000400"}));
+    }
+
+    @Test
+    @DisplayName("Earliest expiry of all URLs should win")
+    void testEarliestUrlExpiry() {
+        assertEquals(OptionalLong.of(1700000100L), TdlPlaybackCache.urlExpiry(new String[]{
+            "https://cdn/1.mp4?Expires=1700000500",
+            "https://cdn/2.mp4?Expires=1700000100",
+            "https://cdn/3.mp4?Expires=1700000300"}));
+    }
+
+    @Test
+    @DisplayName("URLs without an expiry parameter should have none, even with look-alike names")
+    void testNoUrlExpiry() {
+        assertEquals(OptionalLong.empty(), TdlPlaybackCache.urlExpiry(new String[]{"https://cdn/a.flac"}));
+        assertEquals(OptionalLong.empty(), TdlPlaybackCache.urlExpiry(new String[]{"https://cdn/a.flac?expiresIn=600&sexp=1700000100"}));
+    }
+
+    @Test
+    @DisplayName("Lifetime should be the TTL without an expiry or with a distant one")
+    void testLifetimeCappedByTtl() {
+        assertEquals(TTL, cache.lifetime(playback("https://cdn/a.flac"), NOW));
+        assertEquals(TTL, cache.lifetime(playback(STR."https://cdn/a.flac?Expires=\{NOW.getEpochSecond() + 3600}"), NOW));
+    }
+
+    @Test
+    @DisplayName("Lifetime should end 30 seconds before a close URL expiry")
+    void testLifetimeBeforeExpiry() {
+        assertEquals(Duration.ofSeconds(90), cache.lifetime(playback(STR."https://cdn/a.flac?Expires=\{NOW.getEpochSecond() + 120}"), NOW));
+    }
+
+    @Test
+    @DisplayName("URLs expiring within the margin or already expired should not be cached")
+    void testLifetimeWithinMargin() {
+        assertEquals(Duration.ZERO, cache.lifetime(playback(STR."https://cdn/a.flac?Expires=\{NOW.getEpochSecond() + 10}"), NOW));
+        assertEquals(Duration.ZERO, cache.lifetime(playback(STR."https://cdn/a.flac?Expires=\{NOW.getEpochSecond() - 60}"), NOW));
+    }
+
+    @Test
+    @DisplayName("Playbacks should be resolved once while their URLs are valid")
+    void testCached() {
+        Playback playback = playback(STR."https://cdn/a.flac?Expires=\{Instant.now().getEpochSecond() + 3600}");
+
+        get(playback);
+        get(playback);
+
+        assertEquals(1, resolutions.get());
+    }
+
+    @Test
+    @DisplayName("Playbacks whose URLs are about to expire should be resolved again")
+    void testExpiredNotServed() {
+        Playback playback = playback(STR."https://cdn/a.flac?Expires=\{Instant.now().getEpochSecond() + 5}");
+
+        get(playback);
+        get(playback);
+
+        assertEquals(2, resolutions.get());
+    }
+
+    @Test
+    @DisplayName("Invalidated playbacks should be resolved again")
+    void testInvalidate() {
+        Playback playback = playback("https://cdn/a.flac");
+        get(playback);
+
+        cache.invalidate("tdl:1", "LOSSLESS", "FULL");
+        get(playback);
+
+        assertEquals(2, resolutions.get());
+    }
+
+    private void get(Playback playback) {
+        cache.get("tdl:1", "LOSSLESS", "FULL", () -> {
+            resolutions.incrementAndGet();
+            return Uni.createFrom().item(playback);
+        }).await().indefinitely();
+    }
+
+    private static Playback playback(String url) {
+        return new Playback(new MediaInfo(new String[]{url}, "NONE", null), null);
+    }
+}
@@ -0,0 +1,25 @@
+package quantum.music.providers.tdl.cache;
+
+import java.time.Duration;
+
+/**
+ * Builds {@link TdlPlaybackCache} instances outside of CDI, for tests of other packages.
+ */
+public final class TdlPlaybackCaches {
+
+    private TdlPlaybackCaches() {
+    }
+
+    /**
+     * @param ttl maximum time a playback is cached
+     * @param maxSize maximum number of cached playbacks
+     * @return an initialized cache
+     */
+    public static TdlPlaybackCache create(Duration ttl, long maxSize) {
+        TdlPlaybackCache cache = new TdlPlaybackCache();
+        cache.ttl = ttl;
+        cache.maxSize = maxSize;
+        cache.init();
+        return cache;
+    }
+}
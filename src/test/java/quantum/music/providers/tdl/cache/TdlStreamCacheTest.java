@@ -0,0 +1,148 @@
+package quantum.music.providers.tdl.cache;
+
+import io.smallrye.mutiny.Multi;
+import io.vertx.mutiny.core.Vertx;
+import io.vertx.mutiny.core.buffer.Buffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("TdlStreamCache Tests")
+class TdlStreamCacheTest {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    @TempDir
+    Path directory;
+
+    private Vertx vertx;
+    private TdlStreamCache cache;
+
+    @BeforeEach
+    void setUp() {
+        vertx = Vertx.vertx();
+        cache = new TdlStreamCache();
+        cache.vertx = vertx;
+        cache.enabled = true;
+        cache.directory = directory.toString();
+        cache.maxSize = 10_000;
+        cache.writeQueueMaxSize = 1024 * 1024;
+        cache.onStart(null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        vertx.closeAndAwait();
+    }
+
+    @Test
+    @DisplayName("Complete stream should be published with its exact content")
+    void testFillAndCommit() throws IOException {
+        byte[] content = randomBytes(4_500);
+
+        List<Buffer> served = cache.fill("tdl:1", "LOSSLESS", "FULL", chunks(content)).collect().asList().await().indefinitely();
+
+        assertEquals(5, served.size());
+        awaitUntil(() -> cache.lookup("tdl:1", "LOSSLESS", "FULL").isPresent());
+        Path file = cache.lookup("tdl:1", "LOSSLESS", "FULL").orElseThrow();
+        assertArrayEquals(content, Files.readAllBytes(file));
+        assertEquals(4_500, cache.stats().getFirst().size());
+        assertEquals(List.of(), partFiles());
+    }
+
+    @Test
+    @DisplayName("Failed stream should leave no entry and no temporary file")
+    void testDiscardOnFailure() {
+        Multi<Buffer> failing = chunks(randomBytes(2_000))
+            .onCompletion().switchTo(Multi.createFrom().failure(new IOException("upstream reset")));
+
+        assertThrows(RuntimeException.class,
+            () -> cache.fill("tdl:2", "LOSSLESS", "FULL", failing).collect().asList().await().indefinitely());
+
+        awaitUntil(() -> partFiles().isEmpty());
+        assertEquals(Optional.empty(), cache.lookup("tdl:2", "LOSSLESS", "FULL"));
+    }
+
+    @Test
+    @DisplayName("Cancelled stream should leave no entry and no temporary file")
+    void testDiscardOnCancellation() {
+        cache.fill("tdl:3", "LOSSLESS", "FULL", chunks(randomBytes(5_000)))
+            .select().first(2)
+            .collect().asList().await().indefinitely();
+
+        awaitUntil(() -> partFiles().isEmpty());
+        assertEquals(Optional.empty(), cache.lookup("tdl:3", "LOSSLESS", "FULL"));
+    }
+
+    @Test
+    @DisplayName("Least recently used tracks should be evicted once the size limit is exceeded")
+    void testEviction() {
+        fill("tdl:4", 4_000);
+        fill("tdl:5", 4_000);
+        assertTrue(cache.lookup("tdl:4", "LOSSLESS", "FULL").isPresent());
+
+        fill("tdl:6", 4_000);
+
+        assertTrue(cache.lookup("tdl:4", "LOSSLESS", "FULL").isPresent());
+        assertFalse(cache.lookup("tdl:5", "LOSSLESS", "FULL").isPresent());
+        assertTrue(cache.lookup("tdl:6", "LOSSLESS", "FULL").isPresent());
+        awaitUntil(() -> !Files.exists(directory.resolve("tdl-5_LOSSLESS_FULL")));
+        assertEquals(8_000, cache.stats().getFirst().size());
+    }
+
+    private void fill(String trackId, int size) {
+        cache.fill(trackId, "LOSSLESS", "FULL", chunks(randomBytes(size))).collect().asList().await().indefinitely();
+        awaitUntil(() -> cache.lookup(trackId, "LOSSLESS", "FULL").isPresent());
+    }
+
+    private Multi<Buffer> chunks(byte[] content) {
+        return Multi.createFrom().range(0, (content.length + CHUNK_SIZE - 1) / CHUNK_SIZE)
+            .map(i -> Buffer.buffer(content).getBuffer(i * CHUNK_SIZE, Math.min((i + 1) * CHUNK_SIZE, content.length)));
+    }
+
+    private List<Path> partFiles() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".part")).toList();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Condition not met within 5 seconds");
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,83 @@
+package quantum.music.providers.tdl.manifest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import quantum.music.domain.tdl.MediaInfo;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ManifestParser Tests")
+class ManifestParserTest {
+
+    private static final String DASH = "application/dash+xml";
+
+    private final ManifestParser parser = new ManifestParser();
+
+    @Test
+    @DisplayName("DASH manifest should expand initialization and repeated media segments")
+    void testParseDash() {
+        MediaInfo mediaInfo = parser.parse(DASH, encode("""
+            <?xml version="1.0" encoding="UTF-8"?>
+            <MPD xmlns="urn:mpeg:dash:schema:mpd:2011">
+              <Period>
+                <AdaptationSet mimeType="audio/mp4">
+                  <Representation id="FLAC,44100,16" bandwidth="1000">
+                    <SegmentTemplate initialization="https://cdn/$RepresentationID$/0.mp4"
+                                     media="https://cdn/$Bandwidth$/$Number$.mp4" startNumber="1">
+                      <SegmentTimeline>
+                        <S d="100" r="2"/>
+                        <S d="50"/>
+                      </SegmentTimeline>
+                    </SegmentTemplate>
+                  </Representation>
+                  <Representation id="other" bandwidth="2000">
+                    <SegmentTemplate media="https://cdn/other/$Number$.mp4">
+                      <SegmentTimeline><S d="100"/></SegmentTimeline>
+                    </SegmentTemplate>
+                  </Representation>
+                </AdaptationSet>
+              </Period>
+            </MPD>
+            """));
+
+        assertArrayEquals(new String[]{
+            "https://cdn/FLAC,44100,16/0.mp4",
+            "https://cdn/1000/1.mp4",
+            "https://cdn/1000/2.mp4",
+            "https://cdn/1000/3.mp4",
+            "https://cdn/1000/4.mp4"
+        }, mediaInfo.urls());
+        assertEquals("NONE", mediaInfo.encryption());
+    }
+
+    @Test
+    @DisplayName("DASH manifest without a SegmentTimeline should be rejected")
+    void testParseDashWithoutTimeline() {
+        String manifest = encode("""
+            <MPD xmlns="urn:mpeg:dash:schema:mpd:2011"><Period><AdaptationSet>
+              <Representation id="a"><SegmentTemplate media="$Number$.mp4"/></Representation>
+            </AdaptationSet></Period></MPD>
+            """);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> parser.parse(DASH, manifest));
+        assertEquals("No SegmentTimeline found in DASH manifest", e.getCause().getMessage());
+    }
+
+    @Test
+    @DisplayName("BTS manifest should expose its URLs and encryption")
+    void testParseBts() {
+        MediaInfo mediaInfo = parser.parse("application/vnd.tidal.bts",
+            encode("{\"urls\":[\"https://cdn/track.flac\"],\"encryptionType\":\"OLD_AES\",\"keyId\":\"key\"}"));
+
+        assertArrayEquals(new String[]{"https://cdn/track.flac"}, mediaInfo.urls());
+        assertEquals("OLD_AES", mediaInfo.encryption());
+        assertEquals("key", mediaInfo.keyId());
+    }
+
+    private String encode(String manifest) {
+        return Base64.getEncoder().encodeToString(manifest.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,116 @@
+package quantum.music.providers.tdl.services;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.core.buffer.Buffer;
+import jakarta.ws.rs.WebApplicationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import quantum.music.domain.providers.AudioContent;
+import quantum.music.domain.providers.ByteRange;
+import quantum.music.domain.tdl.MediaInfo;
+import quantum.music.providers.tdl.cache.TdlPlaybackCache;
+import quantum.music.providers.tdl.cache.TdlPlaybackCaches;
+import quantum.music.providers.tdl.cache.TdlStreamCache;
+import quantum.music.providers.tdl.stream.Playback;
+import quantum.music.providers.tdl.stream.StreamMeters;
+import quantum.music.service.StreamMetrics;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("TdlTrackService Tests")
+class TdlTrackServiceTest {
+
+    private static final Playback PLAYBACK = new Playback(
+        new MediaInfo(new String[]{"https://cdn/a.flac"}, TdlTrackService.NONE, null), null);
+
+    private final AtomicInteger resolutions = new AtomicInteger();
+    private Uni<AudioContent> upstream;
+    private TdlTrackService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TdlTrackService() {
+            @Override
+            public Uni<AudioContent> streamFile(Playback playback, ByteRange range, StreamMeters meters) {
+                return upstream;
+            }
+        };
+        // Left unconfigured, the stream cache is disabled and every stream goes upstream
+        service.streamCache = new TdlStreamCache();
+        service.playbackCache = TdlPlaybackCaches.create(Duration.ofMinutes(5), 100);
+        service.streamMetrics = new StreamMetrics() {
+            @Override
+            public StreamMeters upstream(String provider, String quality) {
+                return StreamMeters.NONE;
+            }
+        };
+        resolve(service.playbackCache);
+    }
+
+    @Test
+    @DisplayName("Playback should be resolved again after upstream rejected its stream")
+    void testInvalidatedOnUpstreamFailure() {
+        upstream = Uni.createFrom().failure(new WebApplicationException(403));
+
+        assertThrows(WebApplicationException.class,
+            () -> service.stream("tdl:1", "FLAC", "LOSSLESS", "FULL", null).await().indefinitely());
+        resolve(service.playbackCache);
+
+        assertEquals(2, resolutions.get());
+    }
+
+    @Test
+    @DisplayName("Playback should be resolved again after a segment of its stream was rejected")
+    void testInvalidatedOnSegmentFailure() {
+        upstream = Uni.createFrom().item(AudioContent.full(Multi.createFrom().<Buffer>item(Buffer.buffer("segment-0"))
+            .onCompletion().switchTo(Multi.createFrom().failure(new WebApplicationException(410))), AudioContent.UNKNOWN_LENGTH));
+
+        AudioContent content = service.stream("tdl:1", "FLAC", "LOSSLESS", "FULL", null).await().indefinitely();
+        assertEquals(1, resolutions.get());
+        assertThrows(WebApplicationException.class, () -> content.data().collect().asList().await().indefinitely());
+        resolve(service.playbackCache);
+
+        assertEquals(2, resolutions.get());
+    }
+
+    @Test
+    @DisplayName("Playback should stay cached after local rejections and range errors")
+    void testKeptOnLocalFailure() {
+        for (int status : new int[]{416, 503, 502}) {
+            upstream = Uni.createFrom().failure(new WebApplicationException(status));
+            assertThrows(WebApplicationException.class,
+                () -> service.stream("tdl:1", "FLAC", "LOSSLESS", "FULL", null).await().indefinitely());
+        }
+        upstream = Uni.createFrom().item(AudioContent.full(
+            Multi.createFrom().failure(new WebApplicationException(503)), AudioContent.UNKNOWN_LENGTH));
+        AudioContent content = service.stream("tdl:1", "FLAC", "LOSSLESS", "FULL", null).await().indefinitely();
+        assertThrows(WebApplicationException.class, () -> content.data().collect().asList().await().indefinitely());
+        resolve(service.playbackCache);
+
+        assertEquals(1, resolutions.get());
+    }
+
+    @Test
+    @DisplayName("Playback should stay cached after a successful upstream stream")
+    void testKeptOnUpstreamSuccess() {
+        upstream = Uni.createFrom().item(AudioContent.full(Multi.createFrom().item(Buffer.buffer("audio")), 5));
+
+        service.stream("tdl:1", "FLAC", "LOSSLESS", "FULL", null).await().indefinitely();
+        resolve(service.playbackCache);
+
+        assertEquals(1, resolutions.get());
+    }
+
+    private void resolve(TdlPlaybackCache cache) {
+        cache.get("tdl:1", "LOSSLESS", "FULL", () -> {
+            resolutions.incrementAndGet();
+            return Uni.createFrom().item(PLAYBACK);
+        }).await().indefinitely();
+    }
+}
@@ -0,0 +1,129 @@
+package quantum.music.providers.tdl.stream.crypto;
+
+import io.netty.buffer.Unpooled;
+import io.smallrye.mutiny.Multi;
+import io.vertx.mutiny.core.buffer.Buffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import quantum.music.providers.tdl.stream.FileStreamer;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@DisplayName("DecryptingFileStreamer Tests")
+class DecryptingFileStreamerTest {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private final Random random = new Random(42);
+    private byte[] plain;
+    private byte[] encrypted;
+    private String masterKey;
+    private String securityToken;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        byte[] key = randomBytes(16);
+        byte[] nonce = randomBytes(8);
+        byte[] master = randomBytes(32);
+        plain = randomBytes(10_000);
+
+        byte[] counterBlock = new byte[16];
+        System.arraycopy(nonce, 0, counterBlock, 0, 8);
+        Cipher ctr = Cipher.getInstance("AES/CTR/NoPadding");
+        ctr.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "AES"), new IvParameterSpec(counterBlock));
+        encrypted = ctr.doFinal(plain);
+
+        byte[] iv = randomBytes(16);
+        byte[] keyAndNonce = new byte[24];
+        System.arraycopy(key, 0, keyAndNonce, 0, 16);
+        System.arraycopy(nonce, 0, keyAndNonce, 16, 8);
+        Cipher cbc = Cipher.getInstance("AES/CBC/PKCS5Padding");
+        cbc.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(master, "AES"), new IvParameterSpec(iv));
+        byte[] encryptedKeys = cbc.doFinal(keyAndNonce);
+        byte[] token = new byte[iv.length + encryptedKeys.length];
+        System.arraycopy(iv, 0, token, 0, iv.length);
+        System.arraycopy(encryptedKeys, 0, token, iv.length, encryptedKeys.length);
+
+        masterKey = Base64.getEncoder().encodeToString(master);
+        securityToken = Base64.getEncoder().encodeToString(token);
+    }
+
+    @Test
+    @DisplayName("Whole file should be decrypted from the first byte")
+    void testDecryptFromStart() {
+        assertArrayEquals(plain, decrypt(new DecryptingFileStreamer(chunks(0), securityToken, masterKey)));
+    }
+
+    @Test
+    @DisplayName("Decryption should resume at offsets inside and on AES block boundaries")
+    void testDecryptFromOffset() {
+        for (int offset : new int[]{1, 15, 16, 17, 4097, 9999}) {
+            byte[] actual = decrypt(new DecryptingFileStreamer(chunks(offset), securityToken, masterKey, offset));
+            assertArrayEquals(Arrays.copyOfRange(plain, offset, plain.length), actual, "offset " + offset);
+        }
+    }
+
+    @Test
+    @DisplayName("Chunks should be decrypted in place and emitted as the same buffers")
+    void testDecryptInPlace() {
+        FileStreamer source = chunks(0);
+        List<Buffer> input = source.stream().collect().asList().await().indefinitely();
+
+        List<Buffer> output = new DecryptingFileStreamer(() -> Multi.createFrom().iterable(input), securityToken, masterKey)
+            .stream().collect().asList().await().indefinitely();
+
+        assertEquals(input.size(), output.size());
+        for (int i = 0; i < input.size(); i++) {
+            assertSame(input.get(i), output.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Composite chunks should be decrypted into new buffers")
+    void testDecryptCompositeChunks() {
+        List<Buffer> buffers = new ArrayList<>();
+        for (int i = 0; i < encrypted.length; i += CHUNK_SIZE) {
+            int middle = Math.min(i + CHUNK_SIZE / 2, encrypted.length);
+            int end = Math.min(i + CHUNK_SIZE, encrypted.length);
+            buffers.add(Buffer.newInstance(io.vertx.core.buffer.Buffer.buffer(Unpooled.wrappedBuffer(
+                Unpooled.wrappedBuffer(Arrays.copyOfRange(encrypted, i, middle)),
+                Unpooled.wrappedBuffer(Arrays.copyOfRange(encrypted, middle, end))))));
+        }
+
+        assertArrayEquals(plain, decrypt(new DecryptingFileStreamer(() -> Multi.createFrom().iterable(buffers), securityToken, masterKey)));
+    }
+
+    private FileStreamer chunks(int offset) {
+        List<Buffer> buffers = new ArrayList<>();
+        for (int i = offset; i < encrypted.length; i += CHUNK_SIZE) {
+            buffers.add(Buffer.buffer(Arrays.copyOfRange(encrypted, i, Math.min(i + CHUNK_SIZE, encrypted.length))));
+        }
+        return () -> Multi.createFrom().iterable(buffers);
+    }
+
+    private byte[] decrypt(DecryptingFileStreamer streamer) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        streamer.stream().collect().asList().await().indefinitely()
+            .forEach(buffer -> out.writeBytes(buffer.getBytes()));
+        return out.toByteArray();
+    }
+
+    private byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,232 @@
+package quantum.music.providers.tdl.stream.http;
+
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.mutiny.core.buffer.Buffer;
+import io.vertx.mutiny.core.http.HttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("MultiUrlFileStreamer Tests")
+class MultiUrlFileStreamerTest {
+
+    private static final int SEGMENT_SIZE = 1000;
+    private static final int SEGMENTS = 10;
+
+    private Vertx vertx;
+    private HttpServer server;
+    private HttpClient client;
+
+    /** Delay before each segment response, by segment number. */
+    private final Map<Integer, Long> delays = new ConcurrentHashMap<>();
+    /** Segments answered with their headers and first half only, until released. */
+    private final Set<Integer> held = ConcurrentHashMap.newKeySet();
+    private final Map<Integer, HttpServerResponse> heldResponses = new ConcurrentHashMap<>();
+    private final List<Integer> requested = new CopyOnWriteArrayList<>();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+    private final AtomicInteger closedEarly = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        vertx = Vertx.vertx();
+        server = vertx.createHttpServer().requestHandler(this::handle)
+            .listen(0).toCompletionStage().toCompletableFuture().join();
+        client = io.vertx.mutiny.core.Vertx.newInstance(vertx).createHttpClient();
+    }
+
+    @AfterEach
+    void tearDown() {
+        vertx.close().toCompletionStage().toCompletableFuture().join();
+    }
+
+    @Test
+    @DisplayName("Segments should be emitted in order even when later ones complete first")
+    void testOrder() {
+        IntStream.range(0, SEGMENTS).forEach(n -> delays.put(n, (long) (SEGMENTS - n) * 20));
+
+        byte[] actual = collect(streamer(4, Long.MAX_VALUE));
+
+        assertArrayEquals(expected(), actual);
+    }
+
+    @Test
+    @DisplayName("No more than prefetch segment requests should be in flight")
+    void testWindowSize() {
+        IntStream.range(0, SEGMENTS).forEach(n -> delays.put(n, 30L));
+
+        byte[] actual = collect(streamer(3, Long.MAX_VALUE));
+
+        assertArrayEquals(expected(), actual);
+        assertEquals(3, maxActive.get());
+    }
+
+    @Test
+    @DisplayName("No segment request should start while fetched segments exceed the buffered bytes cap")
+    void testMaxBufferedBytes() throws InterruptedException {
+        held.add(0);
+        AssertSubscriber<Buffer> subscriber = streamer(4, 1).stream().subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+        awaitUntil(() -> requested.size() == 4 && active.get() == 1);
+        Thread.sleep(200);
+
+        assertEquals(List.of(0, 1, 2, 3), sorted(requested));
+
+        release(0);
+        subscriber.awaitCompletion(Duration.ofSeconds(5));
+        assertArrayEquals(expected(), bytes(subscriber.getItems()));
+    }
+
+    @Test
+    @DisplayName("Segments should keep being fetched while the head is streaming when under the cap")
+    void testPrefetchWhileHeadStreams() {
+        held.add(0);
+        AssertSubscriber<Buffer> subscriber = streamer(4, Long.MAX_VALUE).stream().subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+
+        awaitUntil(() -> requested.size() == SEGMENTS);
+
+        release(0);
+        subscriber.awaitCompletion(Duration.ofSeconds(5));
+        assertArrayEquals(expected(), bytes(subscriber.getItems()));
+    }
+
+    @Test
+    @DisplayName("The head segment should be streamed through before it is complete")
+    void testHeadStreamedThrough() {
+        held.add(0);
+        AssertSubscriber<Buffer> subscriber = streamer(4, Long.MAX_VALUE).stream().subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+
+        awaitUntil(() -> bytes(subscriber.getItems()).length == SEGMENT_SIZE / 2);
+
+        assertArrayEquals(Arrays.copyOf(segment(0), SEGMENT_SIZE / 2), bytes(subscriber.getItems()));
+        assertFalse(subscriber.hasCompleted());
+        release(0);
+        subscriber.awaitCompletion(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Cancelling the stream should cancel the segment requests in flight")
+    void testCancelInFlight() throws InterruptedException {
+        IntStream.range(0, 4).forEach(held::add);
+        AssertSubscriber<Buffer> subscriber = streamer(4, Long.MAX_VALUE).stream().subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+        awaitUntil(() -> heldResponses.size() == 4);
+        Thread.sleep(200);
+
+        subscriber.cancel();
+
+        awaitUntil(() -> closedEarly.get() == 4);
+        assertEquals(4, requested.size());
+    }
+
+    private MultiUrlFileStreamer streamer(int prefetch, long maxBufferedBytes) {
+        List<String> urls = IntStream.range(0, SEGMENTS)
+            .mapToObj(n -> STR."http://localhost:\{server.actualPort()}/segments/\{n}")
+            .toList();
+        return new MultiUrlFileStreamer(client, urls, prefetch, maxBufferedBytes);
+    }
+
+    private void handle(HttpServerRequest request) {
+        int n = Integer.parseInt(request.path().substring("/segments/".length()));
+        requested.add(n);
+        maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+        HttpServerResponse response = request.response();
+        response.closeHandler(ignored -> {
+            if (!response.ended()) {
+                closedEarly.incrementAndGet();
+                active.decrementAndGet();
+            }
+        });
+        long delay = delays.getOrDefault(n, 0L);
+        if (delay > 0) {
+            vertx.setTimer(delay, timer -> respond(n, response));
+        } else {
+            respond(n, response);
+        }
+    }
+
+    private void respond(int n, HttpServerResponse response) {
+        byte[] content = segment(n);
+        response.putHeader("Content-Length", Integer.toString(content.length));
+        if (held.contains(n)) {
+            response.write(io.vertx.core.buffer.Buffer.buffer(Arrays.copyOf(content, SEGMENT_SIZE / 2)));
+            heldResponses.put(n, response);
+            return;
+        }
+        active.decrementAndGet();
+        response.end(io.vertx.core.buffer.Buffer.buffer(content));
+    }
+
+    private void release(int n) {
+        awaitUntil(() -> heldResponses.containsKey(n));
+        HttpServerResponse response = heldResponses.remove(n);
+        vertx.runOnContext(ignored -> {
+            active.decrementAndGet();
+            response.end(io.vertx.core.buffer.Buffer.buffer(Arrays.copyOfRange(segment(n), SEGMENT_SIZE / 2, SEGMENT_SIZE)));
+        });
+    }
+
+    private static byte[] segment(int n) {
+        byte[] content = new byte[SEGMENT_SIZE];
+        Arrays.fill(content, (byte) n);
+        return content;
+    }
+
+    private static byte[] expected() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IntStream.range(0, SEGMENTS).forEach(n -> out.writeBytes(segment(n)));
+        return out.toByteArray();
+    }
+
+    private static byte[] collect(MultiUrlFileStreamer streamer) {
+        return bytes(streamer.stream().collect().asList().await().atMost(Duration.ofSeconds(10)));
+    }
+
+    private static byte[] bytes(List<Buffer> buffers) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        buffers.forEach(buffer -> out.writeBytes(buffer.getBytes()));
+        return out.toByteArray();
+    }
+
+    private static List<Integer> sorted(List<Integer> values) {
+        List<Integer> copy = new ArrayList<>(values);
+        copy.sort(null);
+        return copy;
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Condition not met within 5 seconds");
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package quantum.music.repository;
+
+import com.mongodb.MongoClientSettings;
+import org.bson.BsonDocument;
+import org.bson.BsonDouble;
+import org.bson.BsonInt32;
+import org.bson.BsonNull;
+import org.bson.BsonString;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import quantum.music.domain.local.QAlbum;
+import quantum.music.repository.AlbumRepository.AlbumPage;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("AlbumRepository Paging Tests")
+class AlbumRepositoryTest {
+
+    @Test
+    @DisplayName("Extra album beyond the limit should mean more albums follow, counted once in the estimate")
+    void testEstimatedPageWithMore() {
+        AlbumPage page = AlbumRepository.estimatedPage(albums(11), 20, 10);
+
+        assertEquals(10, page.items().size());
+        assertTrue(page.hasMore());
+        assertEquals(31, page.total());
+    }
+
+    @Test
+    @DisplayName("Last page should be exact when no extra album was fetched")
+    void testEstimatedLastPage() {
+        AlbumPage page = AlbumRepository.estimatedPage(albums(4), 20, 10);
+
+        assertEquals(4, page.items().size());
+        assertFalse(page.hasMore());
+        assertEquals(24, page.total());
+    }
+
+    @Test
+    @DisplayName("Unbounded page should hold all remaining albums")
+    void testEstimatedUnboundedPage() {
+        AlbumPage page = AlbumRepository.estimatedPage(albums(150), 5, 0);
+
+        assertEquals(150, page.items().size());
+        assertFalse(page.hasMore());
+        assertEquals(155, page.total());
+    }
+
+    @Test
+    @DisplayName("Counted page should have more albums until the total is reached")
+    void testCountedPage() {
+        assertTrue(AlbumRepository.countedPage(albums(10), 0, 25).hasMore());
+        assertFalse(AlbumRepository.countedPage(albums(5), 20, 25).hasMore());
+        assertEquals(25, AlbumRepository.countedPage(albums(5), 20, 25).total());
+    }
+
+    @Test
+    @DisplayName("Items facet should skip, limit and leave out the embedded tracks")
+    void testItemStages() {
+        List<BsonDocument> stages = AlbumRepository.itemStages(30, 10).stream()
+            .map(AlbumRepositoryTest::render)
+            .toList();
+
+        assertEquals(new BsonInt32(30), stages.get(0).get("$skip"));
+        assertEquals(new BsonInt32(10), stages.get(1).get("$limit"));
+        assertEquals(new BsonInt32(0), stages.get(2).getDocument("$project").get("tracks"));
+    }
+
+    @Test
+    @DisplayName("Ascending keyset after a null key should keep the albums with a key")
+    void testKeysetAfterNullKey() {
+        ObjectId id = new ObjectId();
+
+        BsonDocument filter = render(AlbumRepository.keysetFilter("title", false, BsonNull.VALUE, id));
+
+        assertEquals(BsonDocument.parse(STR."""
+            {"$or": [
+              {"title": {"$ne": null}},
+              {"$and": [{"title": null}, {"_id": {"$gt": {"$oid": "\{id.toHexString()}"}}}]}
+            ]}"""), filter);
+    }
+
+    @Test
+    @DisplayName("Descending keyset after a null key should only keep the albums without a key")
+    void testDescendingKeysetAfterNullKey() {
+        ObjectId id = new ObjectId();
+
+        BsonDocument filter = render(AlbumRepository.keysetFilter("score", true, null, id));
+
+        assertEquals(BsonDocument.parse(STR."""
+            {"$and": [{"score": null}, {"_id": {"$gt": {"$oid": "\{id.toHexString()}"}}}]}"""), filter);
+    }
+
+    @Test
+    @DisplayName("Descending keyset after a key should keep the albums without a key, sorted last")
+    void testDescendingKeysetKeepsNullKeys() {
+        ObjectId id = new ObjectId();
+
+        BsonDocument filter = render(AlbumRepository.keysetFilter("score", true, new BsonDouble(1.5), id));
+
+        assertEquals(BsonDocument.parse(STR."""
+            {"$or": [
+              {"score": {"$lt": 1.5}},
+              {"$and": [{"score": 1.5}, {"_id": {"$gt": {"$oid": "\{id.toHexString()}"}}}]},
+              {"score": null}
+            ]}"""), filter);
+    }
+
+    @Test
+    @DisplayName("Ascending keyset after a key should only keep greater keys and ties with greater ids")
+    void testAscendingKeyset() {
+        ObjectId id = new ObjectId();
+
+        BsonDocument filter = render(AlbumRepository.keysetFilter("title", false, new BsonString("M"), id));
+
+        assertEquals(BsonDocument.parse(STR."""
+            {"$or": [
+              {"title": {"$gt": "M"}},
+              {"$and": [{"title": "M"}, {"_id": {"$gt": {"$oid": "\{id.toHexString()}"}}}]}
+            ]}"""), filter);
+    }
+
+    private static BsonDocument render(Bson bson) {
+        return bson.toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry());
+    }
+
+    private static List<QAlbum> albums(int count) {
+        return IntStream.range(0, count).mapToObj(i -> new QAlbum()).toList();
+    }
+}
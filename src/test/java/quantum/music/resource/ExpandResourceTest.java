@@ -0,0 +1,140 @@
+package quantum.music.resource;
+
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import io.smallrye.mutiny.Uni;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import quantum.music.domain.PagedResponse;
+import quantum.music.domain.providers.Album;
+import quantum.music.domain.providers.Artist;
+import quantum.music.domain.providers.Track;
+import quantum.music.domain.providers.TrackList;
+import quantum.music.providers.MusicProvider;
+import quantum.music.service.ProviderService;
+
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Integration tests for the {@code expand} parameter of {@link AlbumResource} and {@link ArtistResource}.
+ */
+@QuarkusTest
+@TestSecurity(user = "test-user")
+@DisplayName("Expand Resource Tests")
+class ExpandResourceTest {
+
+    private static final Artist ARTIST = Artist.builder().id("tdl:7").name("The Beatles").build();
+    private static final Album ALBUM = Album.builder().id("tdl:1").title("Abbey Road").artist(ARTIST).build();
+
+    @InjectMock
+    ProviderService providerService;
+
+    private MusicProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        provider = Mockito.mock(MusicProvider.class);
+        when(providerService.fromId(anyString())).thenReturn(Uni.createFrom().item(provider));
+        when(provider.getAlbumById("tdl:1")).thenReturn(Uni.createFrom().item(ALBUM));
+        when(provider.getAlbumWithTracks("tdl:1")).thenReturn(Uni.createFrom().item(new TrackList(ALBUM, List.of(
+            Track.builder().id("tdl:11").title("Come Together").trackNumber(1).volumeNumber(1).build(),
+            Track.builder().id("tdl:12").title("Something").trackNumber(2).volumeNumber(1).build()))));
+        when(provider.getArtistById("tdl:7")).thenReturn(Uni.createFrom().item(ARTIST));
+        when(provider.getAlbumsByArtistId(Mockito.eq("tdl:7"), Mockito.eq(0), anyInt()))
+            .thenAnswer(invocation -> Uni.createFrom().item(new PagedResponse<>(List.of(ALBUM), 0, invocation.getArgument(2), 1)));
+    }
+
+    @Test
+    @DisplayName("Album should embed its tracks with expand=tracks")
+    void testAlbumTracks() {
+        given()
+            .when().get("/music/albums/tdl:1?expand=tracks")
+            .then()
+                .statusCode(200)
+                .body("id", is("tdl:1"))
+                .body("trackList.total", is(2))
+                .body("trackList.tracks", hasSize(2))
+                .body("trackList.tracks[1].id", is("tdl:12"));
+
+        verify(provider).getAlbumWithTracks("tdl:1");
+        verify(provider, never()).getAlbumById(anyString());
+    }
+
+    @Test
+    @DisplayName("Album should not embed its tracks without expand")
+    void testAlbumWithoutExpand() {
+        given()
+            .when().get("/music/albums/tdl:1")
+            .then()
+                .statusCode(200)
+                .body("id", is("tdl:1"))
+                .body("trackList", nullValue());
+
+        verify(provider, never()).getAlbumWithTracks(anyString());
+    }
+
+    @Test
+    @DisplayName("Artist should embed the first page of its albums with expand=albums")
+    void testArtistAlbums() {
+        given()
+            .when().get("/music/artists/tdl:7?expand=albums&limit=5")
+            .then()
+                .statusCode(200)
+                .body("id", is("tdl:7"))
+                .body("albumList.items", hasSize(1))
+                .body("albumList.items[0].id", is("tdl:1"))
+                .body("albumList.limit", is(5));
+
+        verify(provider).getArtistById("tdl:7");
+        verify(provider).getAlbumsByArtistId("tdl:7", 0, 5);
+    }
+
+    @Test
+    @DisplayName("Embedded albums limit should be capped")
+    void testArtistAlbumsLimitCapped() {
+        given()
+            .when().get("/music/artists/tdl:7?expand=albums&limit=1000")
+            .then()
+                .statusCode(200)
+                .body("albumList.limit", is(PageLimit.MAX));
+
+        verify(provider).getAlbumsByArtistId("tdl:7", 0, PageLimit.MAX);
+    }
+
+    @Test
+    @DisplayName("Limits below 1 should be rejected as bad requests")
+    void testInvalidLimit() {
+        given()
+            .when().get("/music/artists/tdl:7?expand=albums&limit=0")
+            .then()
+                .statusCode(400);
+        given()
+            .when().get("/music/artists/tdl:7/albums?limit=-1")
+            .then()
+                .statusCode(400);
+
+        verify(provider, never()).getAlbumsByArtistId(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Unsupported expansions should be rejected as bad requests")
+    void testUnsupportedExpand() {
+        given()
+            .when().get("/music/albums/tdl:1?expand=albums")
+            .then()
+                .statusCode(400);
+    }
+}
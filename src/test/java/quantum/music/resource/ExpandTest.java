@@ -0,0 +1,28 @@
+package quantum.music.resource;
+
+import jakarta.ws.rs.BadRequestException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Expand Tests")
+class ExpandTest {
+
+    @Test
+    @DisplayName("Comma-separated expansions should be parsed")
+    void testParse() {
+        assertEquals(Set.of(), Expand.parse(null, Set.of("tracks")));
+        assertEquals(Set.of(), Expand.parse(" ", Set.of("tracks")));
+        assertEquals(Set.of("tracks"), Expand.parse("tracks", Set.of("tracks")));
+        assertEquals(Set.of("tracks", "albums"), Expand.parse(" tracks, albums,", Set.of("tracks", "albums")));
+    }
+
+    @Test
+    @DisplayName("Unsupported expansions should be rejected as bad requests")
+    void testUnsupported() {
+        assertThrows(BadRequestException.class, () -> Expand.parse("albums", Set.of("tracks")));
+    }
+}
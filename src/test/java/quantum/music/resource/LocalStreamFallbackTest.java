@@ -0,0 +1,96 @@
+package quantum.music.resource;
+
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import quantum.music.domain.providers.ByteRange;
+import quantum.music.providers.LocalFileStreamer;
+import quantum.music.providers.lcl.services.LclTrackService;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static quantum.music.resource.LocalStreamResourceTest.AUDIO;
+import static quantum.music.resource.LocalStreamResourceTest.TRACK_ID;
+
+/**
+ * Integration tests for local tracks with {@code lcl.stream.sendfile=false}: {@link LocalStreamResource}
+ * is disabled and {@link TrackResource} streams the file reactively.
+ */
+@QuarkusTest
+@TestProfile(LocalStreamFallbackTest.SendfileDisabled.class)
+@DisplayName("Local Stream Fallback Tests")
+class LocalStreamFallbackTest {
+
+    public static class SendfileDisabled implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("lcl.stream.sendfile", "false");
+        }
+    }
+
+    @InjectMock
+    LclTrackService trackService;
+
+    @Inject
+    LocalFileStreamer fileStreamer;
+
+    @TempDir
+    Path directory;
+
+    private final AtomicBoolean dataRead = new AtomicBoolean();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path file = Files.write(directory.resolve("track.flac"), AUDIO);
+        when(trackService.streamTrackById(eq(TRACK_ID), any(), any(), any(), any()))
+            .thenAnswer(invocation -> fileStreamer.stream(file, invocation.<ByteRange>getArgument(4))
+                .onItem().transform(content -> content.withData(
+                    content.data().onSubscription().invoke(() -> dataRead.set(true)))));
+    }
+
+    @Test
+    @DisplayName("Whole track should be streamed reactively with status 200")
+    void testWholeTrack() {
+        byte[] body = given()
+            .when().get(STR."/music/tracks/\{TRACK_ID}/stream")
+            .then()
+                .statusCode(200)
+                .header("Accept-Ranges", is("bytes"))
+                .extract().asByteArray();
+
+        assertArrayEquals(AUDIO, body);
+        assertTrue(dataRead.get(), "TrackResource should stream the reactive data");
+    }
+
+    @Test
+    @DisplayName("Requested range should be streamed reactively with status 206")
+    void testRange() {
+        byte[] body = given()
+            .header("Range", "bytes=100-199")
+            .when().get(STR."/music/tracks/\{TRACK_ID}/stream")
+            .then()
+                .statusCode(206)
+                .header("Content-Range", is("bytes 100-199/1000"))
+                .extract().asByteArray();
+
+        assertArrayEquals(Arrays.copyOfRange(AUDIO, 100, 200), body);
+        assertTrue(dataRead.get(), "TrackResource should stream the reactive data");
+    }
+}
@@ -0,0 +1,111 @@
+package quantum.music.resource;
+
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import quantum.music.domain.providers.ByteRange;
+import quantum.music.providers.LocalFileStreamer;
+import quantum.music.providers.lcl.services.LclTrackService;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Integration tests for {@link LocalStreamResource}: local track ids are sent from their file with
+ * sendfile, without subscribing to the reactive data of the content.
+ */
+@QuarkusTest
+@DisplayName("Local Stream Resource Tests")
+class LocalStreamResourceTest {
+
+    static final String TRACK_ID = "lcl:65f1c0a2b3d4e5f601234567";
+    static final byte[] AUDIO = audio(1000);
+
+    @InjectMock
+    LclTrackService trackService;
+
+    @Inject
+    LocalFileStreamer fileStreamer;
+
+    @TempDir
+    Path directory;
+
+    private final AtomicBoolean dataRead = new AtomicBoolean();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path file = Files.write(directory.resolve("track.flac"), AUDIO);
+        when(trackService.streamTrackById(eq(TRACK_ID), any(), any(), any(), any()))
+            .thenAnswer(invocation -> fileStreamer.stream(file, invocation.<ByteRange>getArgument(4))
+                .onItem().transform(content -> content.withData(
+                    content.data().onSubscription().invoke(() -> dataRead.set(true)))));
+    }
+
+    @Test
+    @DisplayName("Whole track should be sent from its file with status 200")
+    void testWholeTrack() {
+        byte[] body = given()
+            .when().get(STR."/music/tracks/\{TRACK_ID}/stream")
+            .then()
+                .statusCode(200)
+                .contentType("audio/flac")
+                .header("Accept-Ranges", is("bytes"))
+                .header("Content-Length", is("1000"))
+                .header("Content-Range", nullValue())
+                .extract().asByteArray();
+
+        assertArrayEquals(AUDIO, body);
+        assertFalse(dataRead.get(), "sendfile should not read the reactive data");
+    }
+
+    @Test
+    @DisplayName("Requested range should be sent from its file with status 206")
+    void testRange() {
+        byte[] body = given()
+            .header("Range", "bytes=100-199")
+            .when().get(STR."/music/tracks/\{TRACK_ID}/stream")
+            .then()
+                .statusCode(206)
+                .header("Accept-Ranges", is("bytes"))
+                .header("Content-Length", is("100"))
+                .header("Content-Range", is("bytes 100-199/1000"))
+                .extract().asByteArray();
+
+        assertArrayEquals(Arrays.copyOfRange(AUDIO, 100, 200), body);
+        assertFalse(dataRead.get(), "sendfile should not read the reactive data");
+    }
+
+    @Test
+    @DisplayName("Range beyond the end of the file should be rejected with status 416")
+    void testUnsatisfiableRange() {
+        given()
+            .header("Range", "bytes=2000-2099")
+            .when().get(STR."/music/tracks/\{TRACK_ID}/stream")
+            .then()
+                .statusCode(416)
+                .header("Content-Range", is("bytes */1000"));
+    }
+
+    static byte[] audio(int length) {
+        byte[] audio = new byte[length];
+        for (int i = 0; i < length; i++) {
+            audio[i] = (byte) i;
+        }
+        return audio;
+    }
+}
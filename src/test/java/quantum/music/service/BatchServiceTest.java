@@ -0,0 +1,136 @@
+package quantum.music.service;
+
+import io.smallrye.mutiny.Uni;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.WebApplicationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import quantum.music.domain.BatchResult;
+import quantum.music.domain.providers.Album;
+import quantum.music.domain.providers.Artist;
+import quantum.music.domain.providers.Track;
+import quantum.music.domain.providers.TrackDetail;
+import quantum.music.providers.MusicProvider;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+@DisplayName("BatchService Tests")
+class BatchServiceTest {
+
+    private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+    private BatchService service;
+
+    @BeforeEach
+    void setUp() {
+        ProviderService providers = Mockito.mock(ProviderService.class);
+        when(providers.getProvider(anyString()))
+            .thenAnswer(invocation -> Uni.createFrom().failure(new NotFoundException(STR."Unknown provider ID: \{invocation.getArgument(0)}")));
+        when(providers.getProvider("lcl")).thenReturn(Uni.createFrom().item(provider("lcl")));
+        when(providers.getProvider("tdl")).thenReturn(Uni.createFrom().item(provider("tdl")));
+        service = new BatchService();
+        service.providerService = providers;
+        service.maxIds = 10;
+    }
+
+    @Test
+    @DisplayName("Ids of several providers should be resolved in the requested order")
+    void testMixedProvidersInOrder() {
+        BatchResult result = lookup(List.of("tdl:2", "lcl:1", "tdl:1"), List.of("lcl:7", "tdl:7"), List.of("tdl:3", "lcl:3"));
+
+        assertEquals(List.of("tdl:2", "lcl:1", "tdl:1"), result.albums().stream().map(Album::id).toList());
+        assertEquals(List.of("lcl:7", "tdl:7"), result.artists().stream().map(Artist::id).toList());
+        assertEquals(List.of("tdl:3", "lcl:3"), result.tracks().stream().map(track -> track.track().id()).toList());
+        assertEquals(List.of(), result.missing());
+    }
+
+    @Test
+    @DisplayName("Unknown and malformed ids should be reported missing without failing the batch")
+    void testUnknownIds() {
+        BatchResult result = lookup(List.of("lcl:1", "tdl:404", "lcl:404", "tdl:400", "lcl:bad"), null, List.of("tdl:404"));
+
+        assertEquals(List.of("lcl:1"), result.albums().stream().map(Album::id).toList());
+        assertEquals(List.of("tdl:404", "lcl:404", "tdl:400", "lcl:bad", "tdl:404"), result.missing());
+    }
+
+    @Test
+    @DisplayName("Ids of an unknown provider should be reported missing")
+    void testUnknownPrefix() {
+        BatchResult result = lookup(List.of("xyz:1", "lcl:1", "nope"), null, null);
+
+        assertEquals(List.of("lcl:1"), result.albums().stream().map(Album::id).toList());
+        assertEquals(List.of("xyz:1", "nope"), result.missing());
+    }
+
+    @Test
+    @DisplayName("Provider failures other than unknown ids should fail the batch")
+    void testProviderFailure() {
+        assertThrows(WebApplicationException.class, () -> lookup(List.of("lcl:1", "tdl:503"), null, null));
+    }
+
+    @Test
+    @DisplayName("Duplicate ids should be resolved once")
+    void testDuplicates() {
+        BatchResult result = lookup(List.of("lcl:1", "tdl:1", "lcl:1", "tdl:1"), null, null);
+
+        assertEquals(List.of("lcl:1", "tdl:1"), result.albums().stream().map(Album::id).toList());
+        assertEquals(1, calls.get("album lcl:1").get());
+        assertEquals(1, calls.get("album tdl:1").get());
+    }
+
+    @Test
+    @DisplayName("More distinct ids than batch.max-ids should be rejected")
+    void testMaxIds() {
+        service.maxIds = 3;
+
+        assertThrows(BadRequestException.class, () -> lookup(List.of("lcl:1", "lcl:2"), List.of("lcl:3"), List.of("lcl:4")));
+        assertEquals(2, lookup(List.of("lcl:1", "lcl:2", "lcl:1"), List.of("lcl:3"), null).albums().size());
+    }
+
+    private BatchResult lookup(List<String> albumIds, List<String> artistIds, List<String> trackIds) {
+        return service.lookup(albumIds, artistIds, trackIds).await().indefinitely();
+    }
+
+    /**
+     * Provider relying on the default batch lookups: ids ending with 404 or 400 fail as the REST client
+     * reports them, "bad" ids are malformed and ids ending with 503 fail as an unavailable upstream.
+     */
+    private MusicProvider provider(String providerId) {
+        MusicProvider provider = Mockito.mock(MusicProvider.class, withSettings().defaultAnswer(Mockito.CALLS_REAL_METHODS));
+        doAnswer(invocation -> lookup("album", invocation.getArgument(0), id -> Album.builder().id(id).title(id).build()))
+            .when(provider).getAlbumById(any());
+        doAnswer(invocation -> lookup("artist", invocation.getArgument(0), id -> Artist.builder().id(id).name(id).build()))
+            .when(provider).getArtistById(any());
+        doAnswer(invocation -> lookup("track", invocation.getArgument(0), id -> new TrackDetail(
+                Album.builder().id(STR."\{providerId}:album").build(), Track.builder().id(id).build())))
+            .when(provider).getTrackById(any());
+        return provider;
+    }
+
+    private <T> Uni<T> lookup(String type, String id, Function<String, T> item) {
+        calls.computeIfAbsent(STR."\{type} \{id}", ignored -> new AtomicInteger()).incrementAndGet();
+        if (id.endsWith(":bad")) {
+            return Uni.createFrom().failure(new IllegalArgumentException(STR."Malformed id: \{id}"));
+        }
+        for (int status : new int[]{400, 404, 503}) {
+            if (id.endsWith(STR.":\{status}")) {
+                return Uni.createFrom().failure(new WebApplicationException(status));
+            }
+        }
+        return Uni.createFrom().item(item.apply(id));
+    }
+}
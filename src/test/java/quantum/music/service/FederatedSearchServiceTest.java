@@ -0,0 +1,143 @@
+package quantum.music.service;
+
+import jakarta.ws.rs.BadRequestException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import quantum.music.domain.PagedResponse;
+import quantum.music.domain.providers.Album;
+import quantum.music.domain.providers.Artist;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("FederatedSearchService Tests")
+class FederatedSearchServiceTest {
+
+    @Test
+    @DisplayName("Results should be interleaved by rank across providers")
+    void testInterleave() {
+        List<Album> merged = FederatedSearchService.merge(List.of(
+            page(album("lcl:1", "Abbey Road", "The Beatles", null), album("lcl:2", "Help!", "The Beatles", null)),
+            page(album("tdl:1", "Revolver", "The Beatles", null))
+        ));
+
+        assertEquals(List.of("lcl:1", "tdl:1", "lcl:2"), merged.stream().map(Album::id).toList());
+    }
+
+    @Test
+    @DisplayName("Albums found by several providers should be kept once, by UPC or by title and artist")
+    void testDeduplicate() {
+        List<Album> merged = FederatedSearchService.merge(List.of(
+            page(album("lcl:1", "Abbey Road", "The Beatles", "0094638246817"), album("lcl:2", "Let It Be", "The Beatles", null)),
+            page(album("tdl:1", "Abbey Road (Remastered)", "Beatles", "0094638246817"), album("tdl:2", "Let it be", "The Beatles", "123"))
+        ));
+
+        assertEquals(List.of("lcl:1", "lcl:2"), merged.stream().map(Album::id).toList());
+    }
+
+    @Test
+    @DisplayName("Streamed batches should leave out albums already emitted")
+    void testDistinct() {
+        Set<String> seen = new HashSet<>();
+        FederatedSearchService.distinct(List.of(album("tdl:1", "Abbey Road", "The Beatles", "0094638246817")), seen);
+
+        List<Album> kept = FederatedSearchService.distinct(List.of(
+            album("lcl:1", "Abbey Road", "The Beatles", null),
+            album("lcl:2", "Abbey Road", "The Beatles", null),
+            album("lcl:3", "Pet Sounds", "The Beach Boys", null)
+        ), seen);
+
+        assertEquals(List.of("lcl:3"), kept.stream().map(Album::id).toList());
+    }
+
+    @Test
+    @DisplayName("Pages should be sliced from the merged results")
+    void testPage() {
+        List<PagedResponse<Album>> pages = List.of(
+            new PagedResponse<>(List.of(album("lcl:1", "A", "X", null), album("lcl:2", "B", "X", null),
+                album("lcl:3", "C", "X", null), album("lcl:4", "D", "X", null)), 0, 4, 5),
+            new PagedResponse<>(List.of(album("tdl:1", "E", "Y", null)), 0, 4, 1)
+        );
+
+        PagedResponse<Album> page = FederatedSearchService.page(pages, 2, 2, 200);
+
+        assertEquals(List.of("lcl:2", "lcl:3"), page.items().stream().map(Album::id).toList());
+        assertEquals(6, page.total());
+        assertTrue(page.hasMore());
+        assertTrue(FederatedSearchService.page(pages, 6, 2, 200).items().isEmpty());
+    }
+
+    @Test
+    @DisplayName("A provider returning fewer results than the window should not report more pages")
+    void testProviderPageCap() {
+        List<PagedResponse<Album>> pages = List.of(
+            new PagedResponse<>(List.of(album("tdl:1", "A", "X", null), album("tdl:2", "B", "X", null)), 0, 6, 500, true),
+            new PagedResponse<>(List.of(), 0, 6, 0, false)
+        );
+
+        PagedResponse<Album> last = FederatedSearchService.page(pages, 0, 6, 200);
+        PagedResponse<Album> beyond = FederatedSearchService.page(pages, 6, 6, 200);
+
+        assertEquals(List.of("tdl:1", "tdl:2"), last.items().stream().map(Album::id).toList());
+        assertFalse(last.hasMore());
+        assertTrue(beyond.items().isEmpty());
+        assertFalse(beyond.hasMore());
+    }
+
+    @Test
+    @DisplayName("A provider filling the window should report more pages")
+    void testProviderFilledWindow() {
+        List<PagedResponse<Album>> pages = List.of(
+            new PagedResponse<>(List.of(album("tdl:1", "A", "X", null), album("tdl:2", "B", "X", null)), 0, 2, 500, true)
+        );
+
+        assertTrue(FederatedSearchService.page(pages, 0, 2, 200).hasMore());
+    }
+
+    @Test
+    @DisplayName("Pages should stop at the maximum depth")
+    void testMaxDepth() {
+        List<PagedResponse<Album>> pages = List.of(
+            new PagedResponse<>(List.of(album("tdl:1", "A", "X", null), album("tdl:2", "B", "X", null),
+                album("tdl:3", "C", "X", null), album("tdl:4", "D", "X", null)), 0, 4, 500, true)
+        );
+
+        PagedResponse<Album> page = FederatedSearchService.page(pages, 2, 5, 4);
+
+        assertEquals(List.of("tdl:3", "tdl:4"), page.items().stream().map(Album::id).toList());
+        assertFalse(page.hasMore());
+    }
+
+    @Test
+    @DisplayName("Window should be capped by the maximum depth without overflowing")
+    void testWindow() {
+        assertEquals(30, FederatedSearchService.window(20, 10, 200));
+        assertEquals(200, FederatedSearchService.window(190, 50, 200));
+        assertEquals(200, FederatedSearchService.window(Integer.MAX_VALUE - 1, 10, 200));
+    }
+
+    @Test
+    @DisplayName("Offsets beyond the maximum depth should be rejected")
+    void testOffsetBeyondMaxDepth() {
+        FederatedSearchService service = new FederatedSearchService();
+        service.maxDepth = 200;
+
+        assertThrows(BadRequestException.class, () -> service.search("beatles", 200, 10).await().indefinitely());
+    }
+
+    private static PagedResponse<Album> page(Album... albums) {
+        return new PagedResponse<>(List.of(albums), 0, albums.length, albums.length);
+    }
+
+    private static Album album(String id, String title, String artist, String upc) {
+        return Album.builder()
+            .id(id)
+            .title(title)
+            .artist(Artist.builder().name(artist).build())
+            .upc(upc)
+            .build();
+    }
+}
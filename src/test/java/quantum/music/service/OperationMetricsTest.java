@@ -0,0 +1,66 @@
+package quantum.music.service;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.UniEmitter;
+import jakarta.ws.rs.NotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("OperationMetrics Tests")
+class OperationMetricsTest {
+
+    private static final Tags TAGS = Tags.of("provider", "tdl", "operation", "getAlbumById");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final OperationMetrics metrics = new OperationMetrics();
+
+    @BeforeEach
+    void setUp() {
+        metrics.registry = registry;
+    }
+
+    @Test
+    @DisplayName("Operations should be timed by outcome and exception type")
+    void testOutcome() {
+        metrics.time("test.operation", TAGS, () -> Uni.createFrom().item("album")).await().indefinitely();
+        assertThrows(NotFoundException.class, () -> metrics.time("test.operation", TAGS,
+            () -> Uni.createFrom().failure(new NotFoundException())).await().indefinitely());
+
+        assertEquals(1, registry.get("test.operation").tags(TAGS)
+            .tag("outcome", "success").tag("exception", "none").timer().count());
+        assertEquals(1, registry.get("test.operation").tags(TAGS)
+            .tag("outcome", "failure").tag("exception", "NotFoundException").timer().count());
+    }
+
+    @Test
+    @DisplayName("Running operations should be counted by the in-flight gauge")
+    void testInFlight() {
+        AtomicReference<UniEmitter<? super String>> emitter = new AtomicReference<>();
+        metrics.time("test.operation", TAGS, () -> Uni.createFrom().<String>emitter(emitter::set))
+            .subscribe().with(item -> {});
+
+        assertEquals(1, registry.get("test.operation.in.flight").tags(TAGS).gauge().value());
+
+        emitter.get().complete("album");
+
+        assertEquals(0, registry.get("test.operation.in.flight").tags(TAGS).gauge().value());
+    }
+
+    @Test
+    @DisplayName("Cancelled operations should be recorded as such")
+    void testCancelled() {
+        metrics.time("test.operation", TAGS, () -> Uni.createFrom().<String>nothing())
+            .subscribe().with(item -> {})
+            .cancel();
+
+        assertEquals(1, registry.get("test.operation").tag("outcome", "cancelled").timer().count());
+        assertEquals(0, registry.get("test.operation.in.flight").tags(TAGS).gauge().value());
+    }
+}
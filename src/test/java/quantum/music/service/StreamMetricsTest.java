@@ -0,0 +1,91 @@
+package quantum.music.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import io.vertx.mutiny.core.buffer.Buffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("StreamMetrics Tests")
+class StreamMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final StreamMetrics metrics = new StreamMetrics();
+
+    @BeforeEach
+    void setUp() {
+        metrics.registry = registry;
+        metrics.stallThreshold = Duration.ofMillis(20);
+    }
+
+    private Multi<Buffer> chunks(int count, int size) {
+        return Multi.createFrom().range(0, count).map(i -> Buffer.buffer(new byte[size]));
+    }
+
+    private double counter(String name) {
+        return registry.get(name).tag("provider", "tdl").tag("quality", "HIGH").counter().count();
+    }
+
+    @Test
+    @DisplayName("Served streams should record time to first byte, bytes served and throughput")
+    void testServed() {
+        metrics.served("tdl", "high", System.nanoTime(), chunks(4, 100))
+            .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE))
+            .assertCompleted();
+
+        assertEquals(1, registry.get("qmusic.stream.ttfb").tag("quality", "HIGH").timer().count());
+        assertEquals(400, counter("qmusic.stream.bytes.served"));
+        assertEquals(0, counter("qmusic.stream.cancelled"));
+        assertEquals(1, registry.get("qmusic.stream.throughput").summary().count());
+    }
+
+    @Test
+    @DisplayName("Cancelled streams should be counted")
+    void testCancelled() {
+        metrics.served("tdl", "HIGH", System.nanoTime(), chunks(4, 100))
+            .subscribe().withSubscriber(AssertSubscriber.create(1))
+            .cancel();
+
+        assertEquals(1, counter("qmusic.stream.cancelled"));
+        assertEquals(100, counter("qmusic.stream.bytes.served"));
+    }
+
+    @Test
+    @DisplayName("Clients not requesting data beyond the threshold should count as stalls")
+    void testClientStall() throws InterruptedException {
+        AssertSubscriber<Buffer> subscriber = metrics.served("tdl", "HIGH", System.nanoTime(), chunks(2, 10))
+            .subscribe().withSubscriber(AssertSubscriber.create(1));
+        Thread.sleep(40);
+        subscriber.request(1).assertCompleted();
+
+        assertEquals(1, registry.get("qmusic.stream.stalls").tag("cause", "client").counter().count());
+        assertEquals(0, registry.get("qmusic.stream.stalls").tag("cause", "upstream").counter().count());
+    }
+
+    @Test
+    @DisplayName("Upstream pauses beyond the threshold should count as stalls")
+    void testUpstreamStall() {
+        Multi<Buffer> slow = Multi.createFrom().ticks().every(Duration.ofMillis(40))
+            .select().first(2)
+            .map(tick -> Buffer.buffer(new byte[10]));
+        metrics.served("tdl", "HIGH", System.nanoTime(), slow)
+            .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE))
+            .awaitCompletion();
+
+        assertEquals(1, registry.get("qmusic.stream.stalls").tag("cause", "upstream").counter().count());
+    }
+
+    @Test
+    @DisplayName("Quality tags should be normalized to a bounded set of values")
+    void testQualityTag() {
+        assertEquals("DEFAULT", StreamMetrics.quality(null));
+        assertEquals("HI_RES_LOSSLESS", StreamMetrics.quality(" hi_res_lossless "));
+        assertEquals("OTHER", StreamMetrics.quality("<script>"));
+    }
+}
@@ -0,0 +1,151 @@
+package quantum.music.service;
+
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.UniEmitter;
+import io.vertx.mutiny.core.Vertx;
+import jakarta.ws.rs.WebApplicationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import quantum.music.domain.TokenResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TokenService Tests")
+class TokenServiceTest {
+
+    private final List<UniEmitter<? super TokenResponse>> renewals = new CopyOnWriteArrayList<>();
+    private Vertx vertx;
+    private TokenService service;
+
+    @BeforeEach
+    void setUp() {
+        vertx = Vertx.vertx();
+        service = new TokenService();
+        service.vertx = vertx;
+        service.oAuth2Client = (grantType, refreshToken, clientId, scope) -> Uni.createFrom().emitter(renewals::add);
+        service.clientId = "client";
+        service.refreshToken = "refresh";
+        service.refreshAhead = Duration.ofMinutes(5);
+        service.refreshRetryDelay = Duration.ofMillis(100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.cancelRefresh();
+        vertx.closeAndAwait();
+    }
+
+    @Test
+    @DisplayName("Concurrent callers should share one renewal")
+    void testSingleFlight() {
+        List<String> tokens = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            service.getToken().subscribe().with(tokens::add);
+        }
+
+        assertEquals(1, renewals.size());
+        renewals.get(0).complete(token("a", 3600));
+
+        assertEquals(List.of("a", "a", "a", "a", "a"), tokens);
+        assertEquals("a", service.getToken().await().indefinitely());
+        assertEquals(1, renewals.size());
+    }
+
+    @Test
+    @DisplayName("A token rejected with 401 should be renewed once and the call retried")
+    void testForcedRefresh() {
+        obtain("a", 3600);
+        List<String> sent = new ArrayList<>();
+        AtomicInteger attempts = new AtomicInteger();
+
+        List<String> results = new CopyOnWriteArrayList<>();
+        service.withToken(() -> {
+            sent.add(service.getLatestToken());
+            return attempts.incrementAndGet() == 1
+                ? Uni.createFrom().failure(new WebApplicationException(401))
+                : Uni.createFrom().item("ok");
+        }).subscribe().with(results::add);
+
+        assertEquals(2, renewals.size());
+        renewals.get(1).complete(token("b", 3600));
+
+        assertEquals(List.of("ok"), results);
+        assertEquals(List.of("a", "b"), sent);
+    }
+
+    @Test
+    @DisplayName("Failures other than 401 should not renew the token")
+    void testNoRefreshOnOtherFailures() {
+        obtain("a", 3600);
+
+        assertThrows(WebApplicationException.class, () -> service.withToken(
+            () -> Uni.createFrom().failure(new WebApplicationException(503))).await().indefinitely());
+
+        assertEquals(1, renewals.size());
+    }
+
+    @Test
+    @DisplayName("A failed background renewal should be retried while the token is valid")
+    void testBackgroundRetry() throws InterruptedException {
+        // Renewed in the background halfway through its 4 second lifetime
+        obtain("a", 4);
+
+        awaitRenewals(2, Duration.ofSeconds(5));
+        renewals.get(1).fail(new WebApplicationException(500));
+        awaitRenewals(3, Duration.ofSeconds(2));
+        renewals.get(2).complete(token("b", 3600));
+
+        assertEquals("b", service.getToken().await().indefinitely());
+        assertEquals(3, renewals.size());
+    }
+
+    @Test
+    @DisplayName("Short-lived tokens should be valid for part of their lifetime")
+    void testShortLivedToken() {
+        obtain("a", 30);
+
+        assertEquals("a", service.getCachedToken());
+        assertEquals("a", service.getToken().await().indefinitely());
+        assertEquals(1, renewals.size());
+        assertEquals(Duration.ofSeconds(15), TokenService.expirySkew(Duration.ofSeconds(60)));
+        assertEquals(Duration.ofSeconds(60), TokenService.expirySkew(Duration.ofHours(1)));
+    }
+
+    @Test
+    @DisplayName("Requests should be authorized with the latest token, even within the expiry margin")
+    void testLatestToken() {
+        assertNull(service.getLatestToken());
+
+        obtain("a", 0);
+
+        assertNull(service.getCachedToken());
+        assertEquals("a", service.getLatestToken());
+    }
+
+    private void obtain(String value, long expiresIn) {
+        int renewal = renewals.size();
+        Uni<String> token = service.getToken();
+        token.subscribe().with(ignored -> {}, failure -> {});
+        renewals.get(renewal).complete(token(value, expiresIn));
+    }
+
+    private void awaitRenewals(int count, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (renewals.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(count, renewals.size());
+    }
+
+    private static TokenResponse token(String value, long expiresIn) {
+        return new TokenResponse(value, "refresh", expiresIn);
+    }
+}